@@ -14,7 +14,9 @@
  * limitations under the License.
  */
 
-import React from "react";
+import React, {useEffect, useState} from "react";
+import {Button} from "react-bootstrap";
+import axios from "axios";
 import {
   Bell,
   CheckSquare,
@@ -35,6 +37,8 @@ import {KeywordActivityBadgeList} from "./keywords";
 import {AssayTaskCard} from "./assayTasks";
 import {relationshipTypes} from "../config/studyRelationshipConstants";
 import dateFormat from "dateformat";
+import {CardLoadingMessage} from "./loading";
+import {DismissableAlert} from "./errors";
 
 const createMarkup = (content) => {
   return {__html: content};
@@ -1085,4 +1089,60 @@ export const Timeline = ({activity}) => {
       </React.Fragment>
   );
 
-};
\ No newline at end of file
+};
+
+/**
+ * Loads an activity feed from the given URL one page at a time. The cursor for the next page is
+ * returned by the server in the 'X-Next-Cursor' header, and more records are only requested when
+ * the user asks for them.
+ */
+export const ActivityFeed = ({url, errorMessage}) => {
+
+  const [activity, setActivity] = useState(null);
+  const [cursor, setCursor] = useState(null);
+  const [isLoading, setIsLoading] = useState(false);
+  const [error, setError] = useState(null);
+
+  const loadPage = (nextCursor) => {
+    setIsLoading(true);
+    axios.get(url, {params: nextCursor ? {cursor: nextCursor} : {}})
+    .then(response => {
+      setActivity(prev => prev && nextCursor ? prev.concat(response.data) : response.data);
+      setCursor(response.headers["x-next-cursor"] || null);
+      setIsLoading(false);
+    })
+    .catch(e => {
+      console.error(e);
+      setError(e);
+      setIsLoading(false);
+    });
+  };
+
+  useEffect(() => {
+    loadPage(null);
+  }, [url]);
+
+  if (!!error) {
+    return <DismissableAlert color={'warning'} message={errorMessage}/>;
+  } else if (!activity) {
+    return <CardLoadingMessage/>;
+  }
+
+  return (
+      <React.Fragment>
+        <Timeline activity={activity}/>
+        {
+          !!cursor ? (
+              <div className="text-center mt-3">
+                <Button variant="outline-primary"
+                        disabled={isLoading}
+                        onClick={() => loadPage(cursor)}>
+                  {isLoading ? "Loading..." : "Load more"}
+                </Button>
+              </div>
+          ) : ""
+        }
+      </React.Fragment>
+  );
+
+};
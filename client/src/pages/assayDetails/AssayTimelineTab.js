@@ -14,55 +14,21 @@
  * limitations under the License.
  */
 
-import React, {useEffect, useState} from "react";
+import React from "react";
 import {Col, Row} from 'react-bootstrap'
-import {Timeline} from "../../common/activity";
-import {CardLoadingMessage} from "../../common/loading";
-import {DismissableAlert} from "../../common/errors";
-import axios from "axios";
+import {ActivityFeed} from "../../common/activity";
 import PropTypes from "prop-types";
 
 const AssayTimelineTab = props => {
 
   const {assay} = props;
 
-  const [state, setState] = useState({
-    isLoaded: false,
-    isError: false,
-  });
-
-  useEffect(() => {
-    axios.get("/api/internal/assay/" + assay.code + "/activity")
-    .then(response => {
-      setState(prevState => ({
-        ...prevState,
-        activity: response.data,
-        isLoaded: true
-      }));
-    })
-    .catch(e => {
-      setState(prevState => ({
-        ...prevState,
-        isError: true,
-        error: e.message
-      }));
-    })
-  }, []);
-
-
-  let content = <CardLoadingMessage/>;
-  if (!!state.isLoaded && !!state.activity) {
-    content = <Timeline activity={state.activity}/>;
-  } else if (state.isError) {
-    content = <DismissableAlert color={'warning'}
-                                message={'Failed to load assay activity.'}/>;
-  }
-
   return (
       <div className="timeline-tab">
         <Row>
           <Col sm={12}>
-            {content}
+            <ActivityFeed url={"/api/internal/assay/" + assay.code + "/activity"}
+                          errorMessage={'Failed to load assay activity.'}/>
           </Col>
         </Row>
       </div>
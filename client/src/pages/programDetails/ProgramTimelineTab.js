@@ -14,44 +14,21 @@
  * limitations under the License.
  */
 
-import React, {useEffect, useState} from "react";
+import React from "react";
 import {Col, Row} from 'react-bootstrap'
-import {Timeline} from "../../common/activity";
-import {CardLoadingMessage} from "../../common/loading";
-import {DismissableAlert} from "../../common/errors";
-import axios from "axios";
+import {ActivityFeed} from "../../common/activity";
 import PropTypes from "prop-types";
 
 const ProgramTimelineTab = props => {
 
   const {program} = props;
-  const [activity, setActivity] = useState(null);
-  const [error, setError] = useState(null);
-
-  useEffect(() => {
-    axios.get("/api/internal/program/" + program.id + "/activity")
-    .then(response => {
-      setActivity(response.data);
-    })
-    .catch(e => {
-      console.error(e);
-      setError(e);
-    })
-  }, []);
-
-  let content = <CardLoadingMessage/>;
-  if (!!error) {
-    content = <DismissableAlert color={'warning'}
-                                message={'Failed to load program activity.'}/>;
-  } else if (!!activity) {
-    content = <Timeline activity={activity}/>;
-  }
 
   return (
       <div className="timeline-tab">
         <Row>
           <Col sm={12}>
-            {content}
+            <ActivityFeed url={"/api/internal/program/" + program.id + "/activity"}
+                          errorMessage={'Failed to load program activity.'}/>
           </Col>
         </Row>
       </div>
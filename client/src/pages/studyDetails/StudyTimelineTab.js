@@ -14,44 +14,21 @@
  * limitations under the License.
  */
 
-import React, {useEffect, useState} from "react";
+import React from "react";
 import {Col, Row} from 'react-bootstrap'
-import {Timeline} from "../../common/activity";
-import {CardLoadingMessage} from "../../common/loading";
-import {DismissableAlert} from "../../common/errors";
-import axios from "axios";
+import {ActivityFeed} from "../../common/activity";
 import PropTypes from "prop-types";
 
 const StudyTimelineTab = props => {
 
   const {study} = props;
-  const [activity, setActivity] = useState(null);
-  const [error, setError] = useState(null);
-
-  useEffect(() => {
-    axios.get("/api/internal/study/" + study.code + "/activity")
-    .then(response => setActivity(response.data))
-    .catch(e => {
-      setError(e);
-      console.error(e);
-    })
-  }, []);
-
-  let content = <CardLoadingMessage/>;
-  if (error !== null) {
-    content = <DismissableAlert
-        color={'warning'}
-        message={'Failed to load study activity.'}
-    />;
-  } else if (activity !== null) {
-    content = <Timeline activity={activity}/>;
-  }
 
   return (
       <div className="timeline-tab">
         <Row>
           <Col sm={12}>
-            {content}
+            <ActivityFeed url={"/api/internal/study/" + study.code + "/activity"}
+                          errorMessage={'Failed to load study activity.'}/>
           </Col>
         </Row>
       </div>
@@ -14,44 +14,20 @@
  * limitations under the License.
  */
 
-import React, {useEffect, useState} from "react";
+import React from "react";
 import {Col, Row} from 'react-bootstrap'
-import {Timeline} from "../../common/activity";
-import {CardLoadingMessage} from "../../common/loading";
-import {DismissableAlert} from "../../common/errors";
-import axios from "axios";
+import {ActivityFeed} from "../../common/activity";
 
 const UserTimelineTab = props => {
 
   const {targetUser} = props;
-  const [activity, setActivity] = useState(null);
-  const [error, setError] = useState(null);
-
-  useEffect(() => {
-    axios.get("/api/internal/user/" + targetUser.id + "/activity")
-    .then(response => {
-      setActivity(response.data);
-    })
-    .catch(e => {
-      console.error(e);
-      setError(e);
-    })
-  }, []);
-
-  let content = <CardLoadingMessage/>;
-  if (!!error) {
-    content = <DismissableAlert color={'warning'}
-                                message={'Failed to load user activity.'}/>;
-  }
-  else if (!!activity) {
-    content = <Timeline activity={activity}/>;
-  }
 
   return (
       <div className="timeline-tab">
         <Row>
           <Col sm={12}>
-            {content}
+            <ActivityFeed url={"/api/internal/user/" + targetUser.id + "/activity"}
+                          errorMessage={'Failed to load user activity.'}/>
           </Col>
         </Row>
       </div>
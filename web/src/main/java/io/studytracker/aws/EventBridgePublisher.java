@@ -0,0 +1,384 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.aws;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResponse;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResultEntry;
+
+/**
+ * Publishes EventBridge entries from a background thread, so that callers never wait on AWS.
+ * Entries are buffered and sent in {@code PutEvents} batches, each of which is dispatched once it
+ * holds {@code batchSize} entries, would exceed the request size limit, or its oldest entry has
+ * waited {@code flushInterval} milliseconds. Entries that fail are retried with exponential
+ * backoff, up to {@code maxRetries} times. Callers that need to know whether an entry was
+ * delivered can instead send it synchronously with {@link #publishAndWait(List)}.
+ */
+public class EventBridgePublisher implements MeterBinder {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventBridgePublisher.class);
+
+  /** Maximum size of a single PutEvents request, as defined by EventBridge. */
+  private static final int MAX_REQUEST_BYTES = 256 * 1024;
+
+  private static final long INITIAL_BACKOFF_MILLIS = 200L;
+
+  private static final long MAX_BACKOFF_MILLIS = 30000L;
+
+  private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000L;
+
+  /** Longest time the worker waits on the queue before checking whether it has been stopped. */
+  private static final long POLL_INTERVAL_MILLIS = 100L;
+
+  private final EventBridgeClient client;
+
+  private final int batchSize;
+
+  private final long flushIntervalMillis;
+
+  private final int maxRetries;
+
+  private final BlockingQueue<PendingEntry> queue;
+
+  private final ScheduledExecutorService retryScheduler;
+
+  private Thread worker;
+
+  private volatile boolean running = true;
+
+  private final LongAdder published = new LongAdder();
+
+  private final LongAdder retried = new LongAdder();
+
+  private final LongAdder dropped = new LongAdder();
+
+  private volatile DistributionSummary batchSizeSummary;
+
+  private volatile Timer putEventsTimer;
+
+  private volatile Timer publishLatencyTimer;
+
+  public EventBridgePublisher(
+      EventBridgeClient client,
+      int batchSize,
+      long flushIntervalMillis,
+      int queueCapacity,
+      int maxRetries) {
+    if (flushIntervalMillis < 1) {
+      throw new IllegalArgumentException("flushIntervalMillis must be at least one");
+    }
+    this.client = client;
+    this.batchSize = batchSize;
+    this.flushIntervalMillis = flushIntervalMillis;
+    this.maxRetries = maxRetries;
+    this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    this.retryScheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "eventbridge-retry");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Starts the background thread that sends queued entries. Entries published before the
+   * publisher is started are held in the queue until then.
+   */
+  @PostConstruct
+  public synchronized void start() {
+    if (worker != null) {
+      return;
+    }
+    worker = new Thread(this::run, "eventbridge-publisher");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  /**
+   * Queues an entry for publishing. If the queue is full, the entry is dropped and logged, rather
+   * than blocking the caller.
+   *
+   * @param entry the event entry
+   */
+  public void publish(PutEventsRequestEntry entry) {
+    enqueue(new PendingEntry(entry));
+  }
+
+  /**
+   * Sends the given entries on the calling thread and waits for EventBridge to acknowledge them.
+   * Entries are split into requests by the same batch size and request size limits as queued
+   * entries, but failed entries are not retried. Returns, for each entry in order, {@code null} if
+   * it was published, or a description of the error if it was not.
+   *
+   * @param entries the event entries
+   * @return the error for each entry, or {@code null} for entries that were published
+   */
+  public List<String> publishAndWait(List<PutEventsRequestEntry> entries) {
+    List<String> errors = new ArrayList<>();
+    List<PendingEntry> batch = new ArrayList<>();
+    int requestBytes = 0;
+    for (PutEventsRequestEntry entry : entries) {
+      PendingEntry pending = new PendingEntry(entry);
+      if (!batch.isEmpty()
+          && (batch.size() >= batchSize || requestBytes + pending.size > MAX_REQUEST_BYTES)) {
+        errors.addAll(put(batch));
+        batch = new ArrayList<>();
+        requestBytes = 0;
+      }
+      batch.add(pending);
+      requestBytes = requestBytes + pending.size;
+    }
+    if (!batch.isEmpty()) {
+      errors.addAll(put(batch));
+    }
+    return errors;
+  }
+
+  private void enqueue(PendingEntry pending) {
+    if (!running || !queue.offer(pending)) {
+      dropped.increment();
+      LOGGER.error("Dropping EventBridge event, publisher queue is unavailable: {}",
+          pending.entry.detail());
+    }
+  }
+
+  private void run() {
+    PendingEntry carry = null;
+    while (running || carry != null || !queue.isEmpty()) {
+      try {
+        PendingEntry first = carry != null
+            ? carry
+            : queue.poll(Math.min(flushIntervalMillis, POLL_INTERVAL_MILLIS), TimeUnit.MILLISECONDS);
+        carry = null;
+        if (first == null) {
+          continue;
+        }
+        List<PendingEntry> batch = new ArrayList<>();
+        batch.add(first);
+        int requestBytes = first.size;
+        long deadline = first.enqueuedNanos + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        while (batch.size() < batchSize) {
+          long wait = running ? deadline - System.nanoTime() : 0L;
+          PendingEntry next = wait > 0
+              ? queue.poll(
+                  Math.min(wait, TimeUnit.MILLISECONDS.toNanos(POLL_INTERVAL_MILLIS)),
+                  TimeUnit.NANOSECONDS)
+              : queue.poll();
+          if (next == null) {
+            if (wait > 0) {
+              continue;
+            }
+            break;
+          }
+          if (requestBytes + next.size > MAX_REQUEST_BYTES) {
+            carry = next;
+            break;
+          }
+          batch.add(next);
+          requestBytes = requestBytes + next.size;
+        }
+        send(batch);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (Exception e) {
+        LOGGER.error("Unexpected error in EventBridge publisher", e);
+      }
+    }
+  }
+
+  private void send(List<PendingEntry> batch) {
+    List<String> errors = put(batch);
+    for (int i = 0; i < batch.size(); i++) {
+      if (errors.get(i) != null) {
+        retry(batch.get(i));
+      }
+    }
+  }
+
+  /**
+   * Sends a single PutEvents request for the given entries. Returns, for each entry in order,
+   * {@code null} if it was published, or a description of the error if it was not.
+   */
+  private List<String> put(List<PendingEntry> batch) {
+    List<PutEventsRequestEntry> entries = new ArrayList<>();
+    for (PendingEntry pending : batch) {
+      entries.add(pending.entry);
+    }
+    DistributionSummary summary = batchSizeSummary;
+    if (summary != null) {
+      summary.record(batch.size());
+    }
+    long start = System.nanoTime();
+    List<String> errors = new ArrayList<>();
+    try {
+      PutEventsResponse response =
+          client.putEvents(PutEventsRequest.builder().entries(entries).build());
+      List<PutEventsResultEntry> results = response.entries();
+      for (int i = 0; i < batch.size(); i++) {
+        PutEventsResultEntry result = i < results.size() ? results.get(i) : null;
+        if (result == null || result.errorCode() != null) {
+          String error =
+              result != null ? result.errorCode() + " " + result.errorMessage() : "no result";
+          LOGGER.warn("Failed to publish EventBridge event: {}", error);
+          errors.add(error);
+        } else {
+          LOGGER.debug("Published EventBridge event: {}", result.eventId());
+          published.increment();
+          errors.add(null);
+          Timer latency = publishLatencyTimer;
+          if (latency != null) {
+            latency.record(System.nanoTime() - batch.get(i).enqueuedNanos, TimeUnit.NANOSECONDS);
+          }
+        }
+      }
+    } catch (Exception e) {
+      LOGGER.warn("Failed to publish batch of {} EventBridge events", batch.size(), e);
+      errors.clear();
+      for (int i = 0; i < batch.size(); i++) {
+        errors.add(e.toString());
+      }
+    } finally {
+      Timer timer = putEventsTimer;
+      if (timer != null) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      }
+    }
+    return errors;
+  }
+
+  private void retry(PendingEntry pending) {
+    if (pending.attempts >= maxRetries || !running) {
+      dropped.increment();
+      LOGGER.error("Giving up on EventBridge event after {} attempts: {}",
+          pending.attempts + 1, pending.entry.detail());
+      return;
+    }
+    pending.attempts = pending.attempts + 1;
+    retried.increment();
+    long backoff = Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << (pending.attempts - 1));
+    backoff = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    try {
+      retryScheduler.schedule(() -> enqueue(pending), backoff, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      dropped.increment();
+      LOGGER.error("Dropping EventBridge event, publisher is shutting down: {}",
+          pending.entry.detail());
+    }
+  }
+
+  /**
+   * Stops accepting new entries and waits for those already queued to be sent. Entries that are
+   * still waiting to be retried are discarded.
+   */
+  public synchronized void shutdown() {
+    running = false;
+    retryScheduler.shutdownNow();
+    if (worker != null) {
+      try {
+        worker.join(SHUTDOWN_TIMEOUT_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (!queue.isEmpty()) {
+      LOGGER.warn("Discarding {} unpublished EventBridge events on shutdown", queue.size());
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("eventbridge.queue.depth", queue, BlockingQueue::size)
+        .description("EventBridge events waiting to be published")
+        .register(registry);
+    FunctionCounter.builder("eventbridge.events.published", published, LongAdder::doubleValue)
+        .description("EventBridge events published successfully")
+        .register(registry);
+    FunctionCounter.builder("eventbridge.events.retried", retried, LongAdder::doubleValue)
+        .description("EventBridge event publishing attempts that were retried")
+        .register(registry);
+    FunctionCounter.builder("eventbridge.events.dropped", dropped, LongAdder::doubleValue)
+        .description("EventBridge events discarded without being published")
+        .register(registry);
+    batchSizeSummary = DistributionSummary.builder("eventbridge.batch.size")
+        .description("Number of events sent in each PutEvents request")
+        .register(registry);
+    putEventsTimer = Timer.builder("eventbridge.put.events")
+        .description("Duration of PutEvents requests")
+        .register(registry);
+    publishLatencyTimer = Timer.builder("eventbridge.publish.latency")
+        .description("Time from an event being queued until it is published")
+        .register(registry);
+  }
+
+  private static class PendingEntry {
+
+    private final PutEventsRequestEntry entry;
+
+    private final int size;
+
+    private final long enqueuedNanos = System.nanoTime();
+
+    private int attempts = 0;
+
+    private PendingEntry(PutEventsRequestEntry entry) {
+      this.entry = entry;
+      this.size = entrySize(entry);
+    }
+
+    /** Computes the entry size as EventBridge does when enforcing the request size limit. */
+    private static int entrySize(PutEventsRequestEntry entry) {
+      int size = 14;
+      size = size + utf8Length(entry.source());
+      size = size + utf8Length(entry.detailType());
+      size = size + utf8Length(entry.detail());
+      if (entry.resources() != null) {
+        for (String resource : entry.resources()) {
+          size = size + utf8Length(resource);
+        }
+      }
+      return size;
+    }
+
+    private static int utf8Length(String value) {
+      return value != null ? value.getBytes(StandardCharsets.UTF_8).length : 0;
+    }
+  }
+}
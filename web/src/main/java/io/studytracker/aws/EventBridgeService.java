@@ -22,26 +22,32 @@ import io.studytracker.events.EventsService;
 import io.studytracker.events.StudyTrackerEvent;
 import io.studytracker.exception.StudyTrackerException;
 import io.studytracker.model.Activity;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
-import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
 import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
-import software.amazon.awssdk.services.eventbridge.model.PutEventsResponse;
-import software.amazon.awssdk.services.eventbridge.model.PutEventsResultEntry;
 
+/**
+ * Dispatches events to an AWS EventBridge event bus. Events are serialized on the calling thread
+ * and handed to an {@link EventBridgePublisher}, which sends them asynchronously in batches.
+ * Events dispatched with {@link #dispatchEventsAndWait(List)} are instead sent on the calling
+ * thread, and the result of each entry is reported back to the caller.
+ */
 public class EventBridgeService implements EventsService {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(EventBridgeService.class);
 
-  private final EventBridgeClient client;
+  private final EventBridgePublisher publisher;
 
   private final ObjectMapper objectMapper;
 
   private final String eventBusName;
 
-  public EventBridgeService(EventBridgeClient client, String eventBusName) {
-    this.client = client;
+  public EventBridgeService(EventBridgePublisher publisher, String eventBusName) {
+    this.publisher = publisher;
     this.objectMapper = new ObjectMapper();
     this.eventBusName = eventBusName;
   }
@@ -54,24 +60,44 @@ public class EventBridgeService implements EventsService {
 
   @Override
   public void dispatchEvent(StudyTrackerEvent event) {
+    publisher.publish(toEntry(event));
+  }
+
+  @Override
+  public Map<Long, String> dispatchEventsAndWait(List<Activity> activities) {
+    Map<Long, String> errors = new HashMap<>();
+    List<Activity> sent = new ArrayList<>();
+    List<PutEventsRequestEntry> entries = new ArrayList<>();
+    for (Activity activity : activities) {
+      try {
+        entries.add(toEntry(new EventBridgeEvent(activity)));
+        sent.add(activity);
+      } catch (Exception e) {
+        errors.put(activity.getId(), e.toString());
+      }
+    }
+    List<String> results = publisher.publishAndWait(entries);
+    for (int i = 0; i < sent.size(); i++) {
+      if (results.get(i) != null) {
+        errors.put(sent.get(i).getId(), results.get(i));
+      }
+    }
+    return errors;
+  }
+
+  private PutEventsRequestEntry toEntry(StudyTrackerEvent event) {
     String json;
     try {
       json = objectMapper.writeValueAsString(event);
     } catch (JsonProcessingException e) {
       throw new StudyTrackerException(e);
     }
-    LOGGER.info("Dispatching event with data: " + json);
-    PutEventsRequestEntry entry =
-        PutEventsRequestEntry.builder()
-            .eventBusName(eventBusName)
-            .source("study-tracker")
-            .detailType(event.getEventType().toString())
-            .detail(json)
-            .build();
-    PutEventsRequest request = PutEventsRequest.builder().entries(entry).build();
-    PutEventsResponse response = client.putEvents(request);
-    for (PutEventsResultEntry resultEntry : response.entries()) {
-      System.out.println(resultEntry.toString());
-    }
+    LOGGER.debug("Dispatching event with data: " + json);
+    return PutEventsRequestEntry.builder()
+        .eventBusName(eventBusName)
+        .source("study-tracker")
+        .detailType(event.getEventType().toString())
+        .detail(json)
+        .build();
   }
 }
@@ -17,34 +17,51 @@
 package io.studytracker.aws;
 
 import io.studytracker.aws.integration.S3IntegrationOptions;
-import io.studytracker.aws.integration.S3IntegrationOptionsFactory;
 import io.studytracker.exception.InsufficientPrivilegesException;
+import io.studytracker.integration.IntegrationOptionsCache;
 import io.studytracker.model.FileStorageLocation;
 import io.studytracker.storage.DataFileStorageService;
 import io.studytracker.storage.StorageFile;
 import io.studytracker.storage.StorageFolder;
+import io.studytracker.storage.StorageFolderPage;
 import io.studytracker.storage.StoragePermissions;
 import io.studytracker.storage.exception.StudyStorageException;
 import io.studytracker.storage.exception.StudyStorageNotFoundException;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
 
 public class S3DataFileStorageService  implements DataFileStorageService {
 
+  private static final int MULTIPART_UPLOAD_PART_SIZE = 8 * 1024 * 1024;
+
   private static final Logger LOGGER = LoggerFactory.getLogger(S3DataFileStorageService.class);
 
   private final S3Client client;
 
+  @Autowired
+  private IntegrationOptionsCache integrationOptionsCache;
+
   public S3DataFileStorageService(S3Client client) {
     this.client = client;
   }
@@ -55,7 +72,7 @@ public class S3DataFileStorageService  implements DataFileStorageService {
     LOGGER.debug("Looking up folder by path: {}", path);
 
     // Get the bucket
-    S3IntegrationOptions options = S3IntegrationOptionsFactory.create(location.getIntegrationInstance());
+    S3IntegrationOptions options = integrationOptionsCache.getS3Options(location);
     String bucketName = options.getBucketName();
     LOGGER.debug("Using bucket: {}", bucketName);
 
@@ -64,18 +81,57 @@ public class S3DataFileStorageService  implements DataFileStorageService {
       path += "/";
     }
 
+    // Follow continuation tokens as the listing is read, so large folders are not truncated
+    try {
+      ListObjectsV2Request request = ListObjectsV2Request.builder()
+          .bucket(bucketName)
+          .prefix(path)
+          .delimiter("/")
+          .build();
+      // Read each page once, collecting both files and subfolders from it
+      List<S3Object> contents = new ArrayList<>();
+      List<CommonPrefix> commonPrefixes = new ArrayList<>();
+      for (ListObjectsV2Response response : client.listObjectsV2Paginator(request)) {
+        contents.addAll(response.contents());
+        commonPrefixes.addAll(response.commonPrefixes());
+      }
+      StorageFolder folder = S3Utils.convertS3ObjectsToStorageFolderWithContents(path,
+          contents, commonPrefixes);
+      LOGGER.debug("Found {} files and {} folders in path {}", folder.getFiles().size(),
+          folder.getSubFolders().size(), path);
+      return folder;
+    } catch (AwsServiceException e) {
+      e.printStackTrace();
+      throw new StudyStorageNotFoundException("Cannot access folder at path: " + path);
+    }
+  }
+
+  @Override
+  public StorageFolderPage findFolderPageByPath(FileStorageLocation location, String path,
+      String cursor, int size) throws StudyStorageNotFoundException {
+    LOGGER.debug("Looking up folder page by path: {}", path);
+
+    // Get the bucket
+    S3IntegrationOptions options = integrationOptionsCache.getS3Options(location);
+    String bucketName = options.getBucketName();
+
+    // Clean the path input
+    if (!path.trim().equals("") && !path.endsWith("/")) {
+      path += "/";
+    }
+
     try {
       ListObjectsV2Request request = ListObjectsV2Request.builder()
           .bucket(bucketName)
           .prefix(path)
           .delimiter("/")
+          .maxKeys(size)
+          .continuationToken(cursor)
           .build();
       ListObjectsV2Response response = client.listObjectsV2(request);
-      LOGGER.debug("Found {} files and {} folders in path {}", response.contents().size(),
+      LOGGER.debug("Found {} files and {} folders in page of path {}", response.contents().size(),
           response.commonPrefixes().size(), path);
-      LOGGER.debug(response.toString());
-      return S3Utils.convertS3ObjectsToStorageFolderWithContents(path, response.contents(),
-          response.commonPrefixes());
+      return S3Utils.convertListObjectsResponseToStorageFolderPage(path, response);
     } catch (AwsServiceException e) {
       e.printStackTrace();
       throw new StudyStorageNotFoundException("Cannot access folder at path: " + path);
@@ -89,7 +145,7 @@ public class S3DataFileStorageService  implements DataFileStorageService {
     LOGGER.debug("Looking up file by path: {}", path);
 
     // Get the bucket
-    S3IntegrationOptions options = S3IntegrationOptionsFactory.create(location.getIntegrationInstance());
+    S3IntegrationOptions options = integrationOptionsCache.getS3Options(location);
     String bucketName = options.getBucketName();
 
     try {
@@ -121,7 +177,7 @@ public class S3DataFileStorageService  implements DataFileStorageService {
     try {
 
       // Get the bucket
-      S3IntegrationOptions options = S3IntegrationOptionsFactory.create(location.getIntegrationInstance());
+      S3IntegrationOptions options = integrationOptionsCache.getS3Options(location);
       String bucketName = options.getBucketName();
 
       if (!StoragePermissions.canWrite(location.getPermissions())) {
@@ -147,7 +203,7 @@ public class S3DataFileStorageService  implements DataFileStorageService {
     LOGGER.info("Uploading file: {} to path: {} in bucket: {}", file.getName(), path, location.getName());
 
     // Get the bucket
-    S3IntegrationOptions options = S3IntegrationOptionsFactory.create(location.getIntegrationInstance());
+    S3IntegrationOptions options = integrationOptionsCache.getS3Options(location);
     String bucketName = options.getBucketName();
 
     // Check permissions
@@ -172,16 +228,111 @@ public class S3DataFileStorageService  implements DataFileStorageService {
     return findFileByPath(location, fullPath);
   }
 
+  @Override
+  public boolean supportsStreamingUploads() {
+    return true;
+  }
+
+  /**
+   * Uploads the stream contents to S3 without writing them to disk. Content is read in parts of
+   *   {@link #MULTIPART_UPLOAD_PART_SIZE} bytes; content that fits in a single part is uploaded
+   *   with one request, and larger content is sent as a multipart upload, so only one part is held
+   *   in memory at a time.
+   */
+  @Override
+  public StorageFile saveFile(FileStorageLocation location, String path, String fileName,
+      InputStream inputStream) throws StudyStorageException {
+
+    LOGGER.info("Streaming file: {} to path: {} in bucket: {}", fileName, path, location.getName());
+
+    // Get the bucket
+    S3IntegrationOptions options = integrationOptionsCache.getS3Options(location);
+    String bucketName = options.getBucketName();
+
+    // Check permissions
+    if (!StoragePermissions.canWrite(location.getPermissions())) {
+      throw new InsufficientPrivilegesException("Insufficient privileges to upload files");
+    }
+
+    String fullPath = S3Utils.joinS3Path(path, fileName);
+    byte[] buffer = new byte[MULTIPART_UPLOAD_PART_SIZE];
+    String uploadId = null;
+
+    try {
+
+      // Small files are uploaded in a single request
+      int read = readPart(inputStream, buffer);
+      if (read < buffer.length) {
+        PutObjectRequest request = PutObjectRequest.builder()
+            .bucket(bucketName)
+            .key(fullPath)
+            .build();
+        client.putObject(request, RequestBody.fromByteBuffer(ByteBuffer.wrap(buffer, 0, read)));
+      } else {
+        uploadId = client.createMultipartUpload(b -> b.bucket(bucketName).key(fullPath))
+            .uploadId();
+        List<CompletedPart> parts = new ArrayList<>();
+        int partNumber = 1;
+        while (read > 0) {
+          int number = partNumber;
+          String id = uploadId;
+          UploadPartResponse response = client.uploadPart(
+              b -> b.bucket(bucketName).key(fullPath).uploadId(id).partNumber(number),
+              RequestBody.fromByteBuffer(ByteBuffer.wrap(buffer, 0, read)));
+          parts.add(CompletedPart.builder().partNumber(number).eTag(response.eTag()).build());
+          partNumber = partNumber + 1;
+          read = readPart(inputStream, buffer);
+        }
+        String id = uploadId;
+        client.completeMultipartUpload(b -> b.bucket(bucketName).key(fullPath).uploadId(id)
+            .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build()));
+        LOGGER.debug("Completed multipart upload of {} in {} parts", fullPath, parts.size());
+      }
+
+    } catch (Exception e) {
+      if (uploadId != null) {
+        String id = uploadId;
+        try {
+          client.abortMultipartUpload(b -> b.bucket(bucketName).key(fullPath).uploadId(id));
+        } catch (Exception ex) {
+          LOGGER.warn("Failed to abort multipart upload {} for {}", uploadId, fullPath, ex);
+        }
+      }
+      throw new StudyStorageException("Failed to upload file: " + fullPath, e);
+    }
+
+    return findFileByPath(location, fullPath);
+  }
+
+  /**
+   * Fills the buffer from the stream, returning the number of bytes read, which is less than the
+   *   buffer length only if the end of the stream was reached.
+   */
+  private static int readPart(InputStream inputStream, byte[] buffer) throws IOException {
+    int total = 0;
+    while (total < buffer.length) {
+      int read = inputStream.read(buffer, total, buffer.length - total);
+      if (read < 0) {
+        break;
+      }
+      total = total + read;
+    }
+    return total;
+  }
+
   @Override
   public Resource fetchFile(FileStorageLocation location, String path) throws StudyStorageException {
 
     // Get the bucket
-    S3IntegrationOptions options = S3IntegrationOptionsFactory.create(location.getIntegrationInstance());
+    S3IntegrationOptions options = integrationOptionsCache.getS3Options(location);
     String bucketName = options.getBucketName();
 
     try {
-      return new ByteArrayResource(
-          client.getObjectAsBytes(b -> b.bucket(bucketName).key(path)).asByteArray());
+      HeadObjectResponse metadata = client.headObject(HeadObjectRequest.builder()
+          .bucket(bucketName)
+          .key(path)
+          .build());
+      return new S3ObjectResource(client, bucketName, path, metadata);
     } catch (Exception e) {
       throw new StudyStorageException("Failed to download file: " + path, e);
     }
@@ -191,7 +342,7 @@ public class S3DataFileStorageService  implements DataFileStorageService {
   public boolean fileExists(FileStorageLocation location, String path) {
 
     // Get the bucket
-    S3IntegrationOptions options = S3IntegrationOptionsFactory.create(location.getIntegrationInstance());
+    S3IntegrationOptions options = integrationOptionsCache.getS3Options(location);
     String bucketName = options.getBucketName();
 
     try {
@@ -212,7 +363,7 @@ public class S3DataFileStorageService  implements DataFileStorageService {
   public boolean folderExists(FileStorageLocation location, String path) {
 
     // Get the bucket
-    S3IntegrationOptions options = S3IntegrationOptionsFactory.create(location.getIntegrationInstance());
+    S3IntegrationOptions options = integrationOptionsCache.getS3Options(location);
     String bucketName = options.getBucketName();
 
     try {
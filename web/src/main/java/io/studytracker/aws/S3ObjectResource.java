@@ -0,0 +1,199 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.aws;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.commons.io.FilenameUtils;
+import org.springframework.core.io.AbstractResource;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+/**
+ * {@link org.springframework.core.io.Resource} that streams an S3 object, rather than buffering
+ *   it in memory. Object metadata is fetched once, on first use, unless it is provided. The object is not requested
+ *   until the first read from its input stream, and any bytes skipped before then are requested
+ *   as a byte range, so serving an HTTP range request only downloads the requested bytes.
+ */
+public class S3ObjectResource extends AbstractResource {
+
+  private final S3Client client;
+
+  private final String bucketName;
+
+  private final String key;
+
+  private HeadObjectResponse metadata;
+
+  public S3ObjectResource(S3Client client, String bucketName, String key) {
+    this.client = client;
+    this.bucketName = bucketName;
+    this.key = key;
+  }
+
+  public S3ObjectResource(
+      S3Client client, String bucketName, String key, HeadObjectResponse metadata) {
+    this(client, bucketName, key);
+    this.metadata = metadata;
+  }
+
+  private synchronized HeadObjectResponse getMetadata() throws IOException {
+    if (metadata == null) {
+      try {
+        metadata = client.headObject(HeadObjectRequest.builder()
+            .bucket(bucketName)
+            .key(key)
+            .build());
+      } catch (NoSuchKeyException e) {
+        throw new FileNotFoundException(getDescription() + " does not exist");
+      } catch (Exception e) {
+        throw new IOException("Failed to read metadata for " + getDescription(), e);
+      }
+    }
+    return metadata;
+  }
+
+  @Override
+  public boolean exists() {
+    try {
+      getMetadata();
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public long contentLength() throws IOException {
+    return getMetadata().contentLength();
+  }
+
+  @Override
+  public long lastModified() throws IOException {
+    return getMetadata().lastModified().toEpochMilli();
+  }
+
+  @Override
+  public String getFilename() {
+    return FilenameUtils.getName(key);
+  }
+
+  @Override
+  public String getDescription() {
+    return "S3 object [s3://" + bucketName + "/" + key + "]";
+  }
+
+  @Override
+  public InputStream getInputStream() throws IOException {
+    return new S3ObjectInputStream(getMetadata().contentLength());
+  }
+
+  /**
+   * Opens the S3 object on the first read, starting from the position reached by any preceding
+   *   calls to {@link #skip(long)}.
+   */
+  private class S3ObjectInputStream extends InputStream {
+
+    private final long length;
+
+    private long position = 0L;
+
+    private ResponseInputStream<GetObjectResponse> delegate;
+
+    private S3ObjectInputStream(long length) {
+      this.length = length;
+    }
+
+    private InputStream open() throws IOException {
+      if (delegate == null) {
+        GetObjectRequest.Builder builder = GetObjectRequest.builder().bucket(bucketName).key(key);
+        if (position > 0) {
+          builder.range("bytes=" + position + "-");
+        }
+        try {
+          delegate = client.getObject(builder.build());
+        } catch (Exception e) {
+          throw new IOException("Failed to download " + getDescription(), e);
+        }
+      }
+      return delegate;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (position >= length) {
+        return -1;
+      }
+      int b = open().read();
+      if (b >= 0) {
+        position = position + 1;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (position >= length) {
+        return -1;
+      }
+      int read = open().read(b, off, len);
+      if (read > 0) {
+        position = position + read;
+      }
+      return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      if (n <= 0) {
+        return 0L;
+      }
+      if (delegate == null) {
+        long skipped = Math.min(n, length - position);
+        position = position + skipped;
+        return skipped;
+      }
+      long skipped = delegate.skip(n);
+      position = position + skipped;
+      return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+      return delegate != null ? delegate.available() : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (delegate != null) {
+        // Abort rather than drain the connection if the object was not fully read
+        if (position < length) {
+          delegate.abort();
+        }
+        delegate.close();
+      }
+    }
+
+  }
+
+}
@@ -18,11 +18,13 @@ package io.studytracker.aws;
 
 import io.studytracker.storage.StorageFile;
 import io.studytracker.storage.StorageFolder;
+import io.studytracker.storage.StorageFolderPage;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
 public class S3Utils {
@@ -57,7 +59,7 @@ public class S3Utils {
   }
 
   public static StorageFolder convertS3ObjectsToStorageFolderWithContents(String path,
-      Iterable<S3Object> s3Objects, List<CommonPrefix> commonPrefixes) {
+      Iterable<S3Object> s3Objects, Iterable<CommonPrefix> commonPrefixes) {
     StorageFolder storageFolder = new StorageFolder();
     storageFolder.setPath(path);
     String folderName = path.split("/")[path.split("/").length - 1];
@@ -76,6 +78,16 @@ public class S3Utils {
     return storageFolder;
   }
 
+  public static StorageFolderPage convertListObjectsResponseToStorageFolderPage(String path,
+      ListObjectsV2Response response) {
+    StorageFolder folder = convertS3ObjectsToStorageFolderWithContents(path, response.contents(),
+        response.commonPrefixes());
+    String nextCursor = Boolean.TRUE.equals(response.isTruncated())
+        ? response.nextContinuationToken() : null;
+    return new StorageFolderPage(folder, response.continuationToken(), nextCursor,
+        response.maxKeys());
+  }
+
   public static StorageFolder deriveParentFolder(String path) {
     if (path.trim().equals("")) return null;
     StorageFolder parentFolder = new StorageFolder();
@@ -16,7 +16,6 @@
 
 package io.studytracker.benchling.api;
 
-import io.studytracker.benchling.api.entities.BenchlingAuthenticationToken;
 import io.studytracker.benchling.api.entities.BenchlingEntry;
 import io.studytracker.config.properties.BenchlingProperties;
 import io.studytracker.eln.NotebookEntry;
@@ -36,6 +35,9 @@ public abstract class AbstractBenchlingApiService {
   @Autowired
   private BenchlingProperties properties;
 
+  @Autowired
+  private BenchlingAuthenticationTokenCache tokenCache;
+
   private URL rootUrl;
 
   private URL rootFolderUrl;
@@ -49,7 +51,8 @@ public abstract class AbstractBenchlingApiService {
   /**
    * Generates an Authorization header to be used in REST API requests. The header will acquired
    * based on the provided configuration. If an application client is provided, a Bearer token will
-   * be generated. Otherwise, a HTTP Basic auth header will be used.
+   * be generated, reusing a cached token while it remains valid. Otherwise, a HTTP Basic auth
+   * header will be used.
    *
    * @return token
    */
@@ -66,9 +69,7 @@ public abstract class AbstractBenchlingApiService {
       byte[] bytes = Base64.encodeBase64(auth.getBytes(StandardCharsets.US_ASCII));
       return "Basic " + new String(bytes);
     } else {
-      BenchlingAuthenticationToken benchlingAuthenticationToken =
-          client.acquireApplicationAuthenticationToken(clientId, clientSecret);
-      return "Bearer " + benchlingAuthenticationToken.getAccessToken();
+      return "Bearer " + tokenCache.getAccessToken(clientId, clientSecret);
     }
   }
 
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.benchling.api;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.studytracker.benchling.api.entities.BenchlingAuthenticationToken;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches Benchling application access tokens by client ID, so that API calls do not each require
+ * an additional OAuth request. Tokens are reused until {@link #EXPIRY_MARGIN_SECONDS} before they
+ * expire, and are refreshed in the background once {@link #REFRESH_AHEAD_RATIO} of their lifetime
+ * has elapsed. Concurrent requests for the same client share a single in-flight refresh.
+ */
+public class BenchlingAuthenticationTokenCache implements MeterBinder {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(BenchlingAuthenticationTokenCache.class);
+
+  private static final long EXPIRY_MARGIN_SECONDS = 30L;
+
+  private static final double REFRESH_AHEAD_RATIO = 0.75;
+
+  private final BenchlingElnRestClient client;
+
+  private final LongSupplier nanoClock;
+
+  private final Map<String, CachedToken> tokens = new ConcurrentHashMap<>();
+
+  private final Map<String, CompletableFuture<CachedToken>> refreshes = new ConcurrentHashMap<>();
+
+  private final ExecutorService executor =
+      Executors.newCachedThreadPool(
+          runnable -> {
+            Thread thread = new Thread(runnable, "benchling-token-refresh");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  private final LongAdder refreshCount = new LongAdder();
+
+  private final LongAdder refreshNanos = new LongAdder();
+
+  private final LongAdder refreshFailures = new LongAdder();
+
+  public BenchlingAuthenticationTokenCache(BenchlingElnRestClient client) {
+    this(client, System::nanoTime);
+  }
+
+  /**
+   * Creates a cache that reads the current time from the given clock, rather than {@link
+   * System#nanoTime()}.
+   *
+   * @param client Benchling API client used to request new tokens
+   * @param nanoClock source of the current time in nanoseconds
+   */
+  public BenchlingAuthenticationTokenCache(BenchlingElnRestClient client, LongSupplier nanoClock) {
+    this.client = client;
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Returns a valid access token for the given client, requesting a new one only when there is no
+   * usable cached token.
+   *
+   * @param clientId registered application client ID
+   * @param clientSecret registered application client secret
+   * @return access token
+   */
+  public String getAccessToken(String clientId, String clientSecret) {
+    long now = nanoClock.getAsLong();
+    CachedToken cached = tokens.get(clientId);
+    if (cached != null && now < cached.expiresAtNanos) {
+      hits.increment();
+      if (now >= cached.refreshAtNanos) {
+        refresh(clientId, clientSecret);
+      }
+      return cached.accessToken;
+    }
+    misses.increment();
+    try {
+      return refresh(clientId, clientSecret).join().accessToken;
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private CompletableFuture<CachedToken> refresh(String clientId, String clientSecret) {
+    CompletableFuture<CachedToken> future =
+        refreshes.computeIfAbsent(
+            clientId,
+            id -> CompletableFuture.supplyAsync(() -> fetch(id, clientSecret), executor));
+    future.whenComplete((token, error) -> refreshes.remove(clientId, future));
+    return future;
+  }
+
+  private CachedToken fetch(String clientId, String clientSecret) {
+    long start = nanoClock.getAsLong();
+    try {
+      BenchlingAuthenticationToken token =
+          client.acquireApplicationAuthenticationToken(clientId, clientSecret);
+      long lifetime =
+          TimeUnit.SECONDS.toNanos(token.getExpiresIn() != null ? token.getExpiresIn() : 0L);
+      CachedToken cached =
+          new CachedToken(
+              token.getAccessToken(),
+              start + lifetime - TimeUnit.SECONDS.toNanos(EXPIRY_MARGIN_SECONDS),
+              start + (long) (lifetime * REFRESH_AHEAD_RATIO));
+      tokens.put(clientId, cached);
+      return cached;
+    } catch (RuntimeException e) {
+      refreshFailures.increment();
+      LOGGER.warn("Failed to refresh Benchling access token for client ID: {}", clientId, e);
+      throw e;
+    } finally {
+      refreshCount.increment();
+      refreshNanos.add(nanoClock.getAsLong() - start);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("benchling.auth.token.requests", hits, LongAdder::doubleValue)
+        .description("Benchling access token lookups served from the cache")
+        .tag("result", "hit")
+        .register(registry);
+    FunctionCounter.builder("benchling.auth.token.requests", misses, LongAdder::doubleValue)
+        .description("Benchling access token lookups that required a new token")
+        .tag("result", "miss")
+        .register(registry);
+    FunctionTimer.builder("benchling.auth.token.refresh", this,
+            cache -> cache.refreshCount.sum(),
+            cache -> cache.refreshNanos.sum(),
+            TimeUnit.NANOSECONDS)
+        .description("Requests made to acquire new Benchling access tokens")
+        .register(registry);
+    FunctionCounter.builder("benchling.auth.token.refresh.failures", refreshFailures,
+            LongAdder::doubleValue)
+        .description("Failed requests to acquire Benchling access tokens")
+        .register(registry);
+  }
+
+  private static class CachedToken {
+
+    private final String accessToken;
+
+    private final long expiresAtNanos;
+
+    private final long refreshAtNanos;
+
+    private CachedToken(String accessToken, long expiresAtNanos, long refreshAtNanos) {
+      this.accessToken = accessToken;
+      this.expiresAtNanos = expiresAtNanos;
+      this.refreshAtNanos = refreshAtNanos;
+    }
+  }
+}
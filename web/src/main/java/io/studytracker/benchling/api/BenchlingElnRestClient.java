@@ -35,6 +35,7 @@ import io.studytracker.benchling.exception.BenchlingException;
 import io.studytracker.exception.StudyTrackerException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -345,6 +346,32 @@ public final class BenchlingElnRestClient {
     return response.getBody();
   }
 
+  /**
+   * Returns the entries in a folder, identified by its ID. Entries in subfolders are not included.
+   *
+   * @param folderId
+   * @param authHeader
+   * @return
+   */
+  public BenchlingEntryList findFolderEntries(
+      @NotNull String folderId, @NotNull String authHeader, String nextToken) {
+    LOGGER.debug("Requesting Benchling notebook entries for folder with ID: " + folderId);
+    Map<String, String> map = new HashMap<>();
+    map.put("folderId", folderId);
+    map.put("nextToken", nextToken);
+    String url = resolveUrl("/api/v2/entries", map);
+    HttpHeaders headers = new HttpHeaders();
+    headers.set("Authorization", authHeader);
+    headers.set("Accept", "application/json");
+    headers.set("Content-Type", "application/json");
+    headers.set("Cache-Control", "no-cache");
+    Map<String, Object> body = new LinkedHashMap<>();
+    HttpEntity<?> request = new HttpEntity<>(body, headers);
+    ResponseEntity<BenchlingEntryList> response =
+        restTemplate.exchange(url, HttpMethod.GET, request, BenchlingEntryList.class);
+    return response.getBody();
+  }
+
   public BenchlingEntry createEntry(
       @NotNull BenchlingEntryRequest entryRequest, @NotNull String authHeader) {
     LOGGER.info("Creating Benchling entry {}", entryRequest.toString());
@@ -493,6 +520,36 @@ public final class BenchlingElnRestClient {
     }
   }
 
+  /**
+   * Fetches all users with the provided IDs, in as few requests as the result paging allows.
+   *
+   * @param ids Benchling user IDs
+   * @param authHeader
+   * @param nextToken
+   * @return
+   */
+  public BenchlingUserList findUsersByIds(
+      @NotNull Collection<String> ids, @NotNull String authHeader, String nextToken) {
+    LOGGER.debug("Requesting Benchling users with IDs: " + ids);
+    Map<String, String> params = new LinkedHashMap<>();
+    params.put("ids", String.join(",", ids));
+    params.put("nextToken", nextToken);
+    String url = resolveUrl("/api/v2/users", params);
+    HttpHeaders headers = new HttpHeaders();
+    headers.set("Authorization", authHeader);
+    headers.set("Accept", "application/json");
+    headers.set("Cache-Control", "no-cache");
+
+    HttpEntity<BenchlingUserList> request = new HttpEntity<>(headers);
+    ResponseEntity<BenchlingUserList> response =
+        restTemplate.exchange(url, HttpMethod.GET, request, BenchlingUserList.class);
+    if (response.getStatusCode().equals(HttpStatus.OK)) {
+      return response.getBody();
+    } else {
+      throw new BenchlingException("Failed to fetch users");
+    }
+  }
+
   public Optional<BenchlingUser> findUserById(@NotNull String id, @NotNull String authHeader) {
     LOGGER.debug("Requesting user with ID: " + id);
     String url = resolveUrl("/api/v2/users/" + id);
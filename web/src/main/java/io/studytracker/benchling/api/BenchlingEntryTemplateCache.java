@@ -0,0 +1,232 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.benchling.api;
+
+import io.studytracker.eln.NotebookTemplate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory catalogue of Benchling entry templates, used to answer template lookups and
+ * autocomplete queries without calling Benchling. The catalogue is reloaded in the background
+ * once it is older than the configured TTL, while the previous copy continues to be served.
+ * Template names are indexed by the prefixes of their words, so that searches do not need to scan
+ * every template.
+ */
+public class BenchlingEntryTemplateCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BenchlingEntryTemplateCache.class);
+
+  private final Supplier<List<NotebookTemplate>> loader;
+
+  private final long ttlNanos;
+
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "benchling-template-cache");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private volatile Catalogue catalogue;
+
+  private CompletableFuture<Catalogue> pendingLoad;
+
+  public BenchlingEntryTemplateCache(Supplier<List<NotebookTemplate>> loader, long ttlMillis) {
+    this.loader = loader;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+  }
+
+  /**
+   * Returns all templates in the catalogue, loading it first if necessary.
+   *
+   * @return templates
+   */
+  public List<NotebookTemplate> findAll() {
+    return new ArrayList<>(getCatalogue().templates);
+  }
+
+  /**
+   * Returns the template with the provided reference ID from the catalogue, loading it first if
+   * necessary.
+   *
+   * @param id template reference ID
+   * @return the template, or empty if it is not in the catalogue
+   */
+  public Optional<NotebookTemplate> findById(String id) {
+    return Optional.ofNullable(getCatalogue().templatesById.get(id));
+  }
+
+  /**
+   * Returns the templates whose names match the provided keyword. Each word of the keyword must be
+   * the start of a word in the template name. If nothing matches this way, templates whose names
+   * contain the keyword anywhere are returned instead.
+   *
+   * @param keyword search keyword
+   * @return matching templates, in catalogue order
+   */
+  public List<NotebookTemplate> search(String keyword) {
+    return getCatalogue().search(keyword);
+  }
+
+  /**
+   * Discards the current catalogue, along with the result of any load already in progress, so that
+   * the next request reloads it from Benchling.
+   */
+  public synchronized void invalidate() {
+    LOGGER.info("Invalidating Benchling entry template cache.");
+    catalogue = null;
+    pendingLoad = null;
+  }
+
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private Catalogue getCatalogue() {
+    Catalogue current = catalogue;
+    if (current == null) {
+      try {
+        return load().join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw e;
+      }
+    }
+    if (System.nanoTime() - current.loadedAtNanos > ttlNanos) {
+      load();
+    }
+    return current;
+  }
+
+  /**
+   * Starts loading the catalogue, unless a load is already in progress, in which case the pending
+   * load is returned.
+   */
+  private synchronized CompletableFuture<Catalogue> load() {
+    if (pendingLoad == null) {
+      CompletableFuture<Catalogue> future =
+          CompletableFuture.supplyAsync(() -> new Catalogue(loader.get()), executor);
+      pendingLoad = future;
+      future.whenComplete(
+          (loaded, error) -> {
+            synchronized (this) {
+              if (loaded != null && pendingLoad == future) {
+                catalogue = loaded;
+              }
+              if (error != null) {
+                LOGGER.warn("Failed to load Benchling entry templates", error);
+              }
+              if (pendingLoad == future) {
+                pendingLoad = null;
+              }
+            }
+          });
+    }
+    return pendingLoad;
+  }
+
+  private static List<String> tokenize(String text) {
+    List<String> tokens = new ArrayList<>();
+    for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+      if (!token.isEmpty()) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+
+  /** Immutable snapshot of the templates, along with the word-prefix index of their names. */
+  private static class Catalogue {
+
+    private final List<NotebookTemplate> templates;
+
+    private final List<String> names = new ArrayList<>();
+
+    private final Map<String, NotebookTemplate> templatesById = new HashMap<>();
+
+    private final Map<String, BitSet> prefixIndex = new HashMap<>();
+
+    private final long loadedAtNanos = System.nanoTime();
+
+    private Catalogue(List<NotebookTemplate> templates) {
+      this.templates = Collections.unmodifiableList(new ArrayList<>(templates));
+      for (int i = 0; i < this.templates.size(); i++) {
+        NotebookTemplate template = this.templates.get(i);
+        if (template.getReferenceId() != null) {
+          templatesById.put(template.getReferenceId(), template);
+        }
+        String name = template.getName();
+        names.add(name != null ? name.toLowerCase() : "");
+        for (String token : tokenize(names.get(i))) {
+          for (int end = 1; end <= token.length(); end++) {
+            prefixIndex.computeIfAbsent(token.substring(0, end), k -> new BitSet()).set(i);
+          }
+        }
+      }
+    }
+
+    private List<NotebookTemplate> search(String keyword) {
+      List<String> tokens = tokenize(keyword);
+      if (tokens.isEmpty()) {
+        return new ArrayList<>(templates);
+      }
+      BitSet matches = null;
+      for (String token : tokens) {
+        BitSet postings = prefixIndex.get(token);
+        if (postings == null) {
+          matches = new BitSet();
+          break;
+        }
+        if (matches == null) {
+          matches = (BitSet) postings.clone();
+        } else {
+          matches.and(postings);
+        }
+      }
+      List<NotebookTemplate> results = new ArrayList<>();
+      for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+        results.add(templates.get(i));
+      }
+      if (results.isEmpty()) {
+        String fragment = keyword.toLowerCase();
+        for (int i = 0; i < templates.size(); i++) {
+          if (names.get(i).contains(fragment)) {
+            results.add(templates.get(i));
+          }
+        }
+      }
+      return results;
+    }
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.benchling.api;
+
+import io.studytracker.benchling.api.entities.BenchlingEntry;
+import io.studytracker.benchling.api.entities.BenchlingEntryList;
+import io.studytracker.benchling.api.entities.BenchlingFolder;
+import io.studytracker.benchling.api.entities.BenchlingFolderList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import org.springframework.util.StringUtils;
+
+/**
+ * Loads Benchling folder hierarchies, fetching the children of sibling folders concurrently. The
+ * tree is walked one level at a time from the calling thread, with each folder's child listing
+ * submitted to a fixed-size pool, so no more than {@code parallelism} requests are ever in flight
+ * and pool threads never block on one another.
+ */
+public class BenchlingFolderTreeLoader {
+
+  private final BenchlingElnRestClient client;
+
+  private final ExecutorService executor;
+
+  public BenchlingFolderTreeLoader(BenchlingElnRestClient client, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be at least one");
+    }
+    this.client = client;
+    AtomicInteger counter = new AtomicInteger();
+    this.executor =
+        Executors.newFixedThreadPool(
+            parallelism,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "benchling-folder-loader-" + counter.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Fetches the subfolders beneath the provided folder, down to the requested depth.
+   *
+   * @param root the folder to load
+   * @param maxDepth the number of levels to load beneath the root, or a negative value to load the
+   *     entire tree
+   * @param authHeader authorization header
+   * @return child folders, keyed by their parent folder's ID
+   */
+  public Map<String, List<BenchlingFolder>> loadChildren(
+      BenchlingFolder root, int maxDepth, String authHeader) {
+    Map<String, List<BenchlingFolder>> children = new HashMap<>();
+    List<BenchlingFolder> level = new ArrayList<>();
+    level.add(root);
+    int depth = 0;
+    while (!level.isEmpty() && (maxDepth < 0 || depth < maxDepth)) {
+      Map<String, CompletableFuture<List<BenchlingFolder>>> futures = new LinkedHashMap<>();
+      for (BenchlingFolder folder : level) {
+        futures.put(
+            folder.getId(),
+            CompletableFuture.supplyAsync(
+                () -> findAllChildren(folder.getId(), authHeader), executor));
+      }
+      List<BenchlingFolder> nextLevel = new ArrayList<>();
+      for (Map.Entry<String, CompletableFuture<List<BenchlingFolder>>> entry : futures.entrySet()) {
+        List<BenchlingFolder> folders = join(entry.getValue());
+        children.put(entry.getKey(), folders);
+        nextLevel.addAll(folders);
+      }
+      level = nextLevel;
+      depth++;
+    }
+    return children;
+  }
+
+  /**
+   * Starts fetching all notebook entries in the given project, occupying one of the loader's
+   * request slots.
+   *
+   * @param projectId Benchling project ID
+   * @param authHeader authorization header
+   * @return the pending list of entries
+   */
+  public CompletableFuture<List<BenchlingEntry>> loadProjectEntries(
+      String projectId, String authHeader) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          List<BenchlingEntry> entries = new ArrayList<>();
+          String nextToken = null;
+          boolean hasNext = true;
+          while (hasNext) {
+            BenchlingEntryList entryList =
+                client.findProjectEntries(projectId, authHeader, nextToken);
+            entries.addAll(entryList.getEntries());
+            nextToken = entryList.getNextToken();
+            hasNext = StringUtils.hasText(nextToken);
+          }
+          return entries;
+        },
+        executor);
+  }
+
+  /**
+   * Fetches the notebook entries in each of the given folders, listing the folders concurrently.
+   * Used in place of {@link #loadProjectEntries(String, String)} when only part of a project's
+   * folder tree is loaded.
+   *
+   * @param folderIds IDs of the folders to list
+   * @param authHeader authorization header
+   * @return entries, keyed by folder ID
+   */
+  public Map<String, List<BenchlingEntry>> loadFolderEntries(
+      Collection<String> folderIds, String authHeader) {
+    Map<String, CompletableFuture<List<BenchlingEntry>>> futures = new LinkedHashMap<>();
+    for (String folderId : folderIds) {
+      futures.put(
+          folderId,
+          CompletableFuture.supplyAsync(() -> findAllEntries(folderId, authHeader), executor));
+    }
+    Map<String, List<BenchlingEntry>> entries = new HashMap<>();
+    for (Map.Entry<String, CompletableFuture<List<BenchlingEntry>>> entry : futures.entrySet()) {
+      entries.put(entry.getKey(), join(entry.getValue()));
+    }
+    return entries;
+  }
+
+  /**
+   * Waits for the result of a loader task, rethrowing any failure in its original form.
+   *
+   * @param future pending result
+   * @param <T> result type
+   * @return the result
+   */
+  public static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private List<BenchlingFolder> findAllChildren(String folderId, String authHeader) {
+    List<BenchlingFolder> folders = new ArrayList<>();
+    String nextToken = null;
+    boolean hasNext = true;
+    while (hasNext) {
+      BenchlingFolderList folderList = client.findFolderChildren(folderId, authHeader, nextToken);
+      folders.addAll(folderList.getFolders());
+      nextToken = folderList.getNextToken();
+      hasNext = StringUtils.hasText(nextToken);
+    }
+    return folders;
+  }
+
+  private List<BenchlingEntry> findAllEntries(String folderId, String authHeader) {
+    List<BenchlingEntry> entries = new ArrayList<>();
+    String nextToken = null;
+    boolean hasNext = true;
+    while (hasNext) {
+      BenchlingEntryList entryList = client.findFolderEntries(folderId, authHeader, nextToken);
+      entries.addAll(entryList.getEntries());
+      nextToken = entryList.getNextToken();
+      hasNext = StringUtils.hasText(nextToken);
+    }
+    return entries;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
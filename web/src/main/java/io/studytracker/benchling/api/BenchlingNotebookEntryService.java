@@ -20,6 +20,7 @@ import io.studytracker.benchling.api.entities.BenchlingEntryRequest;
 import io.studytracker.benchling.api.entities.BenchlingEntryRequest.CustomField;
 import io.studytracker.benchling.api.entities.BenchlingEntryTemplate;
 import io.studytracker.benchling.api.entities.BenchlingEntryTemplateList;
+import io.studytracker.config.properties.BenchlingProperties;
 import io.studytracker.eln.NotebookEntry;
 import io.studytracker.eln.NotebookEntryService;
 import io.studytracker.eln.NotebookTemplate;
@@ -29,12 +30,14 @@ import io.studytracker.exception.NotebookException;
 import io.studytracker.model.Assay;
 import io.studytracker.model.Study;
 import io.studytracker.model.User;
+import java.net.MalformedURLException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,8 +52,36 @@ public final class BenchlingNotebookEntryService
   @Autowired
   private NotebookUserService notebookUserService;
 
+  @Autowired
+  private BenchlingProperties benchlingProperties;
+
+  private BenchlingEntryTemplateCache templateCache;
+
+  @Override
+  @PostConstruct
+  public void init() throws MalformedURLException {
+    super.init();
+    templateCache =
+        new BenchlingEntryTemplateCache(
+            this::fetchEntryTemplates, benchlingProperties.getTemplateCacheTtl());
+  }
+
+  @PreDestroy
+  public void destroy() {
+    templateCache.shutdown();
+  }
+
   @Override
   public List<NotebookTemplate> findEntryTemplates() {
+    return templateCache.findAll();
+  }
+
+  @Override
+  public void invalidateEntryTemplates() {
+    templateCache.invalidate();
+  }
+
+  private List<NotebookTemplate> fetchEntryTemplates() {
     LOGGER.info("Fetching Benchling notebook entry templates.");
     String authHeader = generateAuthorizationHeader();
     List<BenchlingEntryTemplate> templates = new ArrayList<>();
@@ -67,13 +98,15 @@ public final class BenchlingNotebookEntryService
 
   @Override
   public List<NotebookTemplate> searchNotebookTemplates(String keyword) {
-    return this.findEntryTemplates().stream()
-        .filter(template -> template.getName().toLowerCase().contains(keyword.toLowerCase()))
-        .collect(Collectors.toList());
+    return templateCache.search(keyword);
   }
 
   @Override
   public Optional<NotebookTemplate> findEntryTemplateById(String id) {
+    Optional<NotebookTemplate> cached = templateCache.findById(id);
+    if (cached.isPresent()) {
+      return cached;
+    }
     LOGGER.info("Fetching Benchling notebook entry template: " + id);
     String authHeader = generateAuthorizationHeader();
     BenchlingEntryTemplate template = this.getClient().findEntryTemplateById(id, authHeader);
@@ -95,10 +128,11 @@ public final class BenchlingNotebookEntryService
 
     // Users
     List<String> userIds = new ArrayList<>();
+    Map<String, NotebookUser> notebookUsers = notebookUserService.findNotebookUsers(study.getUsers());
     for (User user : study.getUsers()) {
-      Optional<NotebookUser> userOptional = notebookUserService.findNotebookUser(user);
-      if (userOptional.isPresent()) {
-        userIds.add(userOptional.get().getReferenceId());
+      NotebookUser notebookUser = notebookUsers.get(user.getEmail());
+      if (notebookUser != null) {
+        userIds.add(notebookUser.getReferenceId());
       } else {
         LOGGER.warn("Could not find user registered in Benchling: " + user);
       }
@@ -141,10 +175,11 @@ public final class BenchlingNotebookEntryService
 
     // Users
     List<String> userIds = new ArrayList<>();
+    Map<String, NotebookUser> notebookUsers = notebookUserService.findNotebookUsers(assay.getUsers());
     for (User user : assay.getUsers()) {
-      Optional<NotebookUser> userOptional = notebookUserService.findNotebookUser(user);
-      if (userOptional.isPresent()) {
-        userIds.add(userOptional.get().getReferenceId());
+      NotebookUser notebookUser = notebookUsers.get(user.getEmail());
+      if (notebookUser != null) {
+        userIds.add(notebookUser.getReferenceId());
       } else {
         LOGGER.warn("Could not find user registered in Benchling: " + user.getUsername());
       }
@@ -17,7 +17,6 @@
 package io.studytracker.benchling.api;
 
 import io.studytracker.benchling.api.entities.BenchlingEntry;
-import io.studytracker.benchling.api.entities.BenchlingEntryList;
 import io.studytracker.benchling.api.entities.BenchlingFolder;
 import io.studytracker.benchling.api.entities.BenchlingFolderList;
 import io.studytracker.benchling.api.entities.BenchlingProject;
@@ -33,8 +32,12 @@ import io.studytracker.model.Study;
 import io.studytracker.repository.ELNFolderRepository;
 import io.studytracker.service.NamingService;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -47,12 +50,18 @@ public final class BenchlingNotebookFolderService
 
   private static final Logger LOGGER = LoggerFactory.getLogger(BenchlingNotebookFolderService.class);
 
+  /** Maximum number of folders walked between a subfolder and its study or assay folder. */
+  private static final int MAX_SUBFOLDER_DEPTH = 64;
+
   @Autowired 
   private NamingService namingService;
 
   @Autowired 
   private ELNFolderRepository elnFolderRepository;
 
+  @Autowired
+  private BenchlingFolderTreeLoader folderTreeLoader;
+
   /**
    * Generate the web this.getClient() URL for the folder with the given ID.
    *
@@ -90,61 +99,106 @@ public final class BenchlingNotebookFolderService
 
   /**
    * Converts a {@link BenchlingFolder} to a {@link NotebookFolder} via {@link
-   * #convertBenchlingFolder(BenchlingFolder)}, without loading the contents of linked entries.
+   * #convertBenchlingFolder(BenchlingFolder)}, attaching its linked {@link BenchlingEntry} entries
+   * and any already-loaded subfolders.
    *
    * @param benchlingFolder
+   * @param children subfolders, keyed by parent folder ID
+   * @param entries entries, keyed by folder ID
    * @return
    */
-  private NotebookFolder convertFolder(BenchlingFolder benchlingFolder, String authHeader) {
-    return convertFolder(benchlingFolder, null, authHeader);
+  private NotebookFolder convertFolder(
+      BenchlingFolder benchlingFolder,
+      Map<String, List<BenchlingFolder>> children,
+      Map<String, List<BenchlingEntry>> entries) {
+    NotebookFolder notebookFolder = convertBenchlingFolder(benchlingFolder);
+    entries.getOrDefault(benchlingFolder.getId(), Collections.emptyList())
+        .forEach(entry -> notebookFolder.getEntries().add(convertBenchlingEntry(entry)));
+    children.getOrDefault(benchlingFolder.getId(), Collections.emptyList())
+        .forEach(
+            folder ->
+                notebookFolder.getSubFolders().add(convertFolder(folder, children, entries)));
+    return notebookFolder;
   }
 
   /**
-   * Converts a {@link BenchlingFolder} to a {@link NotebookFolder} via {@link
-   * #convertBenchlingFolder(BenchlingFolder)}, loading the contents of linked {@link
-   * BenchlingEntry} entries.
+   * Loads the entries and subfolder tree of a {@link BenchlingFolder}, listing sibling folders
+   * concurrently. When the whole tree is requested, the project's entries are fetched in a single
+   * listing while the tree is walked. When the depth is limited, only the entries of the loaded
+   * folders are fetched, so the cost of expanding a level does not grow with the size of the
+   * project.
    *
    * @param benchlingFolder
-   * @param entries
+   * @param depth number of subfolder levels to load, or null to load the entire tree
+   * @param authHeader
    * @return
    */
-  private NotebookFolder convertFolder(
-      BenchlingFolder benchlingFolder, List<BenchlingEntry> entries, String authHeader) {
-    NotebookFolder notebookFolder = convertBenchlingFolder(benchlingFolder);
-    if (entries != null) {
-      loadContents(benchlingFolder, notebookFolder, entries, authHeader);
+  private NotebookFolder loadFolderTree(
+      BenchlingFolder benchlingFolder, Integer depth, String authHeader) {
+    Map<String, List<BenchlingFolder>> children;
+    Map<String, List<BenchlingEntry>> entries;
+    if (depth == null) {
+      CompletableFuture<List<BenchlingEntry>> entriesFuture =
+          folderTreeLoader.loadProjectEntries(benchlingFolder.getProjectId(), authHeader);
+      children = folderTreeLoader.loadChildren(benchlingFolder, -1, authHeader);
+      entries =
+          BenchlingFolderTreeLoader.join(entriesFuture).stream()
+              .filter(entry -> entry.getFolderId() != null)
+              .collect(Collectors.groupingBy(BenchlingEntry::getFolderId));
+    } else {
+      children = folderTreeLoader.loadChildren(benchlingFolder, depth, authHeader);
+      List<String> folderIds = new ArrayList<>();
+      folderIds.add(benchlingFolder.getId());
+      children.values()
+          .forEach(folders -> folders.forEach(folder -> folderIds.add(folder.getId())));
+      entries = folderTreeLoader.loadFolderEntries(folderIds, authHeader);
     }
-    return notebookFolder;
+    return convertFolder(benchlingFolder, children, entries);
   }
 
   /**
-   * Loads the contents of {@link BenchlingFolder} folders and appends them to the referenced {@link
-   * NotebookFolder} object.
+   * Loads the folder with the given ID, provided it is nested beneath the root folder, walking up
+   * its parent folders to check. The path of the returned folder is built from the root folder's
+   * path and the names of the folders in between.
    *
-   * @param benchlingFolder
-   * @param notebookFolder
-   * @param entries
+   * @param rootFolderId reference ID of the study or assay folder
+   * @param rootPath path of the study or assay folder
+   * @param folderId reference ID of the folder to load
+   * @param depth number of subfolder levels to load, or null to load the entire tree
+   * @param authHeader
+   * @return
    */
-  private void loadContents(
-      BenchlingFolder benchlingFolder,
-      NotebookFolder notebookFolder,
-      List<BenchlingEntry> entries,
-      String authHeader) {
-    entries.stream()
-        .filter(entry -> entry.getFolderId().equals(benchlingFolder.getId()))
-        .forEach(entry -> notebookFolder.getEntries().add(convertBenchlingEntry(entry)));
-    List<BenchlingFolder> childrenFolders = new ArrayList<>();
-    boolean hasNext = true;
-    String nextToken = null;
-    while (hasNext) {
-      BenchlingFolderList folderList =
-          this.getClient().findFolderChildren(benchlingFolder.getId(), authHeader, nextToken);
-      childrenFolders.addAll(folderList.getFolders());
-      nextToken = folderList.getNextToken();
-      hasNext = StringUtils.hasText(nextToken);
+  private Optional<NotebookFolder> loadSubfolder(
+      String rootFolderId, String rootPath, String folderId, Integer depth, String authHeader) {
+    Optional<BenchlingFolder> optional = this.getClient().findFolderById(folderId, authHeader);
+    if (!optional.isPresent()) {
+      return Optional.empty();
+    }
+    BenchlingFolder benchlingFolder = optional.get();
+    LinkedList<String> names = new LinkedList<>();
+    String folderPath = rootPath;
+    if (!rootFolderId.equals(benchlingFolder.getId())) {
+      names.addFirst(benchlingFolder.getName());
+      String parentFolderId = benchlingFolder.getParentFolderId();
+      while (!rootFolderId.equals(parentFolderId)) {
+        if (parentFolderId == null || names.size() >= MAX_SUBFOLDER_DEPTH) {
+          LOGGER.warn(
+              String.format("Folder %s is not nested in folder %s", folderId, rootFolderId));
+          return Optional.empty();
+        }
+        Optional<BenchlingFolder> parent =
+            this.getClient().findFolderById(parentFolderId, authHeader);
+        if (!parent.isPresent()) {
+          return Optional.empty();
+        }
+        names.addFirst(parent.get().getName());
+        parentFolderId = parent.get().getParentFolderId();
+      }
+      folderPath = rootPath + "/" + String.join("/", names);
     }
-    childrenFolders.forEach(
-        folder -> notebookFolder.getSubFolders().add(convertFolder(folder, entries, authHeader)));
+    NotebookFolder notebookFolder = loadFolderTree(benchlingFolder, depth, authHeader);
+    notebookFolder.setPath(folderPath);
+    return Optional.of(notebookFolder);
   }
 
   /**
@@ -197,25 +251,12 @@ public final class BenchlingNotebookFolderService
    *
    * @param benchlingFolder
    * @param assay
+   * @param depth number of subfolder levels to load, or null to load the entire tree
    * @return
    */
   private NotebookFolder getContentFullNotebookFolder(
-      BenchlingFolder benchlingFolder, Assay assay, String authHeader) {
-
-    // Get notebook entries
-    List<BenchlingEntry> entries = new ArrayList<>();
-    String nextToken = null;
-    boolean hasNext = true;
-    while (hasNext) {
-      BenchlingEntryList entryList =
-          this.getClient().findProjectEntries(benchlingFolder.getProjectId(), authHeader, nextToken);
-      entries.addAll(entryList.getEntries());
-      nextToken = entryList.getNextToken();
-      hasNext = StringUtils.hasText(nextToken);
-    }
-
-    // Convert the folder object
-    NotebookFolder notebookFolder = convertFolder(benchlingFolder, entries, authHeader);
+      BenchlingFolder benchlingFolder, Assay assay, Integer depth, String authHeader) {
+    NotebookFolder notebookFolder = loadFolderTree(benchlingFolder, depth, authHeader);
     String path = getNotebookFolderPath(assay, authHeader);
     notebookFolder.setPath(path);
 
@@ -228,23 +269,12 @@ public final class BenchlingNotebookFolderService
    *
    * @param benchlingFolder
    * @param study
+   * @param depth number of subfolder levels to load, or null to load the entire tree
    * @return
    */
   private NotebookFolder getContentFullNotebookFolder(
-      BenchlingFolder benchlingFolder, Study study, String authHeader) {
-
-    List<BenchlingEntry> entries = new ArrayList<>();
-    String nextToken = null;
-    boolean hasNext = true;
-    while (hasNext) {
-      BenchlingEntryList entryList =
-          this.getClient().findProjectEntries(benchlingFolder.getProjectId(), authHeader, nextToken);
-      entries.addAll(entryList.getEntries());
-      nextToken = entryList.getNextToken();
-      hasNext = StringUtils.hasText(nextToken);
-    }
-
-    NotebookFolder notebookFolder = convertFolder(benchlingFolder, entries, authHeader);
+      BenchlingFolder benchlingFolder, Study study, Integer depth, String authHeader) {
+    NotebookFolder notebookFolder = loadFolderTree(benchlingFolder, depth, authHeader);
     String path = getNotebookFolderPath(study, authHeader);
     notebookFolder.setPath(path);
 
@@ -261,7 +291,7 @@ public final class BenchlingNotebookFolderService
       String authHeader = generateAuthorizationHeader();
       Optional<BenchlingFolder> optional =
           this.getClient().findFolderById(elnFolderOptional.get().getReferenceId(), authHeader);
-      return Optional.of(convertFolder(optional.get(), authHeader));
+      return Optional.of(convertBenchlingFolder(optional.get()));
     } else {
       LOGGER.warn(
           String.format("Program %s does not have a notebook folder set.", program.getName()));
@@ -271,10 +301,16 @@ public final class BenchlingNotebookFolderService
 
   @Override
   public Optional<NotebookFolder> findStudyFolder(Study study) {
-    return findStudyFolder(study, true);
+    return findStudyFolder(study, true, null);
   }
 
-  private Optional<NotebookFolder> findStudyFolder(Study study, boolean includeContents) {
+  @Override
+  public Optional<NotebookFolder> findStudyFolder(Study study, Integer depth) {
+    return findStudyFolder(study, true, depth);
+  }
+
+  private Optional<NotebookFolder> findStudyFolder(
+      Study study, boolean includeContents, Integer depth) {
 
     LOGGER.info("Fetching notebook folder for study: " + study.getCode());
     Optional<ELNFolder> elnFolderOptional = elnFolderRepository.findByStudyId(study.getId());
@@ -288,9 +324,9 @@ public final class BenchlingNotebookFolderService
       return optional.flatMap(
           folder -> {
             if (includeContents) {
-              return Optional.of(getContentFullNotebookFolder(folder, study, authHeader));
+              return Optional.of(getContentFullNotebookFolder(folder, study, depth, authHeader));
             } else {
-              return Optional.of(this.convertFolder(folder, authHeader));
+              return Optional.of(this.convertBenchlingFolder(folder));
             }
           });
     } else {
@@ -301,6 +337,11 @@ public final class BenchlingNotebookFolderService
 
   @Override
   public Optional<NotebookFolder> findAssayFolder(Assay assay) {
+    return findAssayFolder(assay, null);
+  }
+
+  @Override
+  public Optional<NotebookFolder> findAssayFolder(Assay assay, Integer depth) {
 
     LOGGER.info("Fetching notebook folder for assay: " + assay.getCode());
     Optional<ELNFolder> elnFolderOptional = elnFolderRepository.findByAssayId(assay.getId());
@@ -311,7 +352,47 @@ public final class BenchlingNotebookFolderService
       Optional<BenchlingFolder> optional =
           this.getClient().findFolderById(assayFolder.getReferenceId(), authHeader);
       return optional.flatMap(
-          folder -> Optional.of(getContentFullNotebookFolder(folder, assay, authHeader)));
+          folder -> Optional.of(getContentFullNotebookFolder(folder, assay, depth, authHeader)));
+    } else {
+      LOGGER.warn(String.format("Assay %s does not have a notebook folder set.", assay.getName()));
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public Optional<NotebookFolder> findStudySubfolder(
+      Study study, String folderId, Integer depth) {
+    LOGGER.info(
+        String.format("Fetching notebook folder %s for study: %s", folderId, study.getCode()));
+    Optional<ELNFolder> elnFolderOptional = elnFolderRepository.findByStudyId(study.getId());
+    if (elnFolderOptional.isPresent()) {
+      String authHeader = generateAuthorizationHeader();
+      return loadSubfolder(
+          elnFolderOptional.get().getReferenceId(),
+          getNotebookFolderPath(study, authHeader),
+          folderId,
+          depth,
+          authHeader);
+    } else {
+      LOGGER.warn(String.format("Study %s does not have a notebook folder set.", study.getName()));
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public Optional<NotebookFolder> findAssaySubfolder(
+      Assay assay, String folderId, Integer depth) {
+    LOGGER.info(
+        String.format("Fetching notebook folder %s for assay: %s", folderId, assay.getCode()));
+    Optional<ELNFolder> elnFolderOptional = elnFolderRepository.findByAssayId(assay.getId());
+    if (elnFolderOptional.isPresent()) {
+      String authHeader = generateAuthorizationHeader();
+      return loadSubfolder(
+          elnFolderOptional.get().getReferenceId(),
+          getNotebookFolderPath(assay, authHeader),
+          folderId,
+          depth,
+          authHeader);
     } else {
       LOGGER.warn(String.format("Assay %s does not have a notebook folder set.", assay.getName()));
       return Optional.empty();
@@ -329,7 +410,7 @@ public final class BenchlingNotebookFolderService
       try {
         BenchlingFolder folder =
             this.getClient().findFolderById(program.getNotebookFolder().getReferenceId(), authHeader).get();
-        return this.convertFolder(folder, authHeader);
+        return this.convertBenchlingFolder(folder);
       } catch (Exception e) {
         LOGGER.error("Failed to register new program: " + program.getName());
         throw new NotebookException(e);
@@ -359,7 +440,7 @@ public final class BenchlingNotebookFolderService
             namingService.getStudyNotebookFolderName(study),
             programFolder.getReferenceId(),
             authHeader);
-    NotebookFolder studyFolder = this.convertFolder(benchlingFolder, authHeader);
+    NotebookFolder studyFolder = this.convertBenchlingFolder(benchlingFolder);
     studyFolder.setParentFolder(programFolder);
     return studyFolder;
   }
@@ -368,7 +449,7 @@ public final class BenchlingNotebookFolderService
   public NotebookFolder createAssayFolder(Assay assay) {
     LOGGER.info("Creating Benchling folder for assay: " + assay.getCode());
 
-    Optional<NotebookFolder> studyFolderOptional = this.findStudyFolder(assay.getStudy(), false);
+    Optional<NotebookFolder> studyFolderOptional = this.findStudyFolder(assay.getStudy(), false, null);
     if (!studyFolderOptional.isPresent()) {
       throw new EntityNotFoundException(
           "Could not find folder for study: " + assay.getStudy().getCode());
@@ -381,7 +462,7 @@ public final class BenchlingNotebookFolderService
             namingService.getAssayNotebookFolderName(assay),
             studyFolder.getReferenceId(),
             authHeader);
-    NotebookFolder assayFolder = this.convertFolder(benchlingFolder, authHeader);
+    NotebookFolder assayFolder = this.convertBenchlingFolder(benchlingFolder);
     assayFolder.setParentFolder(studyFolder);
 
     return assayFolder;
@@ -22,11 +22,21 @@ import io.studytracker.eln.NotebookUser;
 import io.studytracker.eln.NotebookUserService;
 import io.studytracker.model.User;
 import io.studytracker.model.UserConfigurations;
+import io.studytracker.repository.UserRepository;
+import io.studytracker.util.BoundedLruMap;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.StringUtils;
 
 public final class BenchlingNotebookUserService
@@ -35,6 +45,16 @@ public final class BenchlingNotebookUserService
 
   private static final Logger LOGGER = LoggerFactory.getLogger(BenchlingNotebookUserService.class);
 
+  private static final long NOT_FOUND_TTL_MILLIS = 60 * 60 * 1000L;
+
+  private static final int MAX_NOT_FOUND_USERS = 1000;
+
+  /** Users that could not be found, mapped to the time until which they are not looked up again. */
+  private final Map<String, Long> notFoundUsers =
+      Collections.synchronizedMap(new BoundedLruMap<>(MAX_NOT_FOUND_USERS));
+
+  @Autowired
+  private UserRepository userRepository;
 
   @Override
   public List<NotebookUser> findNotebookUsers() {
@@ -54,58 +74,155 @@ public final class BenchlingNotebookUserService
 
   @Override
   public Optional<NotebookUser> findNotebookUser(User user) {
-    LOGGER.info("Looking up Benchling user: " + user.getDisplayName());
-    String authHeader = generateAuthorizationHeader();
+    return Optional.ofNullable(
+        this.findNotebookUsers(Collections.singletonList(user)).get(user.getEmail()));
+  }
 
-    // Lookup user by ID
-    if (user.getAttributes() != null
-        && user.getAttributes().containsKey(UserConfigurations.BENCHLING_USER_ID)) {
-      String benchlingUserId = user.getAttributes().get(UserConfigurations.BENCHLING_USER_ID);
-      Optional<BenchlingUser> optional = this.getClient().findUserById(benchlingUserId, authHeader);
-      if (optional.isPresent()) {
-        return Optional.of(this.convertUser(optional.get()));
+  /**
+   * Resolves Benchling users for all of the provided users in a single pass. Users with a stored
+   * Benchling ID are fetched together by ID, and the rest are looked up together by handle, with a
+   * full user listing used only for users that neither lookup finds. Newly-resolved IDs are saved
+   * to the user's attributes, and users that cannot be found are not looked up again for {@link
+   * #NOT_FOUND_TTL_MILLIS}.
+   *
+   * @param users Study Tracker users
+   * @return Benchling users, keyed by Study Tracker user email
+   */
+  @Override
+  public Map<String, NotebookUser> findNotebookUsers(Collection<User> users) {
+    Map<String, NotebookUser> resolved = new LinkedHashMap<>();
+    Map<String, User> pending = new LinkedHashMap<>();
+    long now = System.currentTimeMillis();
+    for (User user : users) {
+      Long notFoundUntil = notFoundUsers.get(user.getEmail());
+      if (notFoundUntil != null && notFoundUntil > now && !hasBenchlingUserId(user)) {
+        LOGGER.debug("Skipping lookup of user not found in Benchling: " + user.getEmail());
+      } else {
+        pending.put(user.getEmail(), user);
       }
     }
+    if (pending.isEmpty()) {
+      return resolved;
+    }
+    LOGGER.info("Looking up Benchling users: " + pending.keySet());
+    String authHeader = generateAuthorizationHeader();
 
-    // Look up user by username
-    List<BenchlingUser> users = new ArrayList<>();
-    String nextToken = null;
-    boolean hasNext = true;
-    while (hasNext) {
-      BenchlingUserList userList =
-          this.getClient().findUsersByUsername(user.getEmail().replaceAll("@.+", ""), authHeader, nextToken);
-      users.addAll(userList.getUsers());
-      nextToken = userList.getNextToken();
-      hasNext = StringUtils.hasText(nextToken);
+    // Look up users by stored ID
+    Map<String, User> usersById = new HashMap<>();
+    for (User user : pending.values()) {
+      if (hasBenchlingUserId(user)) {
+        usersById.put(user.getAttributes().get(UserConfigurations.BENCHLING_USER_ID), user);
+      }
     }
-    if (!users.isEmpty()) {
-      for (BenchlingUser benchlingUser : users) {
-        if (benchlingUser.getEmail().equals(user.getEmail())) {
-          return Optional.of(this.convertUser(benchlingUser));
+    if (!usersById.isEmpty()) {
+      String nextToken = null;
+      boolean hasNext = true;
+      while (hasNext) {
+        BenchlingUserList userList =
+            this.getClient().findUsersByIds(usersById.keySet(), authHeader, nextToken);
+        for (BenchlingUser benchlingUser : userList.getUsers()) {
+          User user = usersById.get(benchlingUser.getId());
+          if (user != null) {
+            resolved.put(user.getEmail(), this.convertUser(benchlingUser));
+          }
         }
+        nextToken = userList.getNextToken();
+        hasNext = StringUtils.hasText(nextToken);
       }
     }
 
+    // Look up the remaining users by username
+    List<User> unresolved = new ArrayList<>();
+    for (User user : pending.values()) {
+      if (!resolved.containsKey(user.getEmail())) {
+        unresolved.add(user);
+      }
+    }
+    if (!unresolved.isEmpty()) {
+      Set<String> handles = new LinkedHashSet<>();
+      for (User user : unresolved) {
+        handles.add(user.getEmail().replaceAll("@.+", ""));
+      }
+      List<BenchlingUser> benchlingUsers = new ArrayList<>();
+      String nextToken = null;
+      boolean hasNext = true;
+      while (hasNext) {
+        BenchlingUserList userList =
+            this.getClient().findUsersByUsername(String.join(",", handles), authHeader, nextToken);
+        benchlingUsers.addAll(userList.getUsers());
+        nextToken = userList.getNextToken();
+        hasNext = StringUtils.hasText(nextToken);
+      }
+      unresolved = matchByEmail(unresolved, benchlingUsers, resolved);
+    }
+
     // Otherwise, check all the users
-    else {
-      nextToken = null;
-      hasNext = true;
+    if (!unresolved.isEmpty()) {
+      List<BenchlingUser> benchlingUsers = new ArrayList<>();
+      String nextToken = null;
+      boolean hasNext = true;
       while (hasNext) {
         BenchlingUserList userList = this.getClient().findUsers(authHeader, nextToken);
-        users.addAll(userList.getUsers());
+        benchlingUsers.addAll(userList.getUsers());
         nextToken = userList.getNextToken();
         hasNext = StringUtils.hasText(nextToken);
       }
-      if (!users.isEmpty()) {
-        for (BenchlingUser benchlingUser : users) {
-          if (benchlingUser.getEmail().equals(user.getEmail())) {
-            return Optional.of(this.convertUser(benchlingUser));
+      unresolved = matchByEmail(unresolved, benchlingUsers, resolved);
+    }
+
+    for (User user : unresolved) {
+      LOGGER.warn("Could not find user registered in Benchling: " + user.getEmail());
+      notFoundUsers.put(user.getEmail(), now + NOT_FOUND_TTL_MILLIS);
+    }
+
+    // Save the Benchling IDs of newly-resolved users
+    for (User user : pending.values()) {
+      NotebookUser notebookUser = resolved.get(user.getEmail());
+      if (notebookUser != null) {
+        notFoundUsers.remove(user.getEmail());
+        String storedId =
+            hasBenchlingUserId(user)
+                ? user.getAttributes().get(UserConfigurations.BENCHLING_USER_ID)
+                : null;
+        if (!notebookUser.getReferenceId().equals(storedId)) {
+          if (user.getAttributes() == null) {
+            user.setAttributes(new HashMap<>());
+          }
+          user.addAttribute(UserConfigurations.BENCHLING_USER_ID, notebookUser.getReferenceId());
+          user.addAttribute(UserConfigurations.BENCHLING_USER_NAME, notebookUser.getUsername());
+          if (user.getId() != null) {
+            userRepository.save(user);
           }
         }
       }
     }
 
-    return Optional.empty();
+    return resolved;
+  }
+
+  private boolean hasBenchlingUserId(User user) {
+    return user.getAttributes() != null
+        && StringUtils.hasText(user.getAttributes().get(UserConfigurations.BENCHLING_USER_ID));
+  }
+
+  private List<User> matchByEmail(
+      List<User> users, List<BenchlingUser> benchlingUsers, Map<String, NotebookUser> resolved) {
+    Map<String, BenchlingUser> benchlingUsersByEmail = new HashMap<>();
+    for (BenchlingUser benchlingUser : benchlingUsers) {
+      if (benchlingUser.getEmail() != null) {
+        benchlingUsersByEmail.put(benchlingUser.getEmail(), benchlingUser);
+      }
+    }
+    List<User> unmatched = new ArrayList<>();
+    for (User user : users) {
+      BenchlingUser benchlingUser = benchlingUsersByEmail.get(user.getEmail());
+      if (benchlingUser != null) {
+        resolved.put(user.getEmail(), this.convertUser(benchlingUser));
+      } else {
+        unmatched.add(user);
+      }
+    }
+    return unmatched;
   }
 
   private NotebookUser convertUser(BenchlingUser benchlingUser) {
@@ -124,6 +241,4 @@ public final class BenchlingNotebookUserService
     }
     return notebookUsers;
   }
-
-
 }
@@ -17,11 +17,14 @@
 package io.studytracker.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.studytracker.benchling.api.BenchlingAuthenticationTokenCache;
 import io.studytracker.benchling.api.BenchlingElnRestClient;
+import io.studytracker.benchling.api.BenchlingFolderTreeLoader;
 import io.studytracker.benchling.api.BenchlingNotebookEntryService;
 import io.studytracker.benchling.api.BenchlingNotebookFolderService;
 import io.studytracker.benchling.api.BenchlingNotebookUserService;
 import io.studytracker.benchling.exception.BenchlingExceptionHandler;
+import io.studytracker.config.properties.BenchlingProperties;
 import io.studytracker.eln.NotebookEntryService;
 import io.studytracker.eln.NotebookFolderService;
 import io.studytracker.eln.NotebookUserService;
@@ -66,6 +69,19 @@ public class ELNServiceConfiguration {
       return new BenchlingElnRestClient();
     }
 
+    @Bean
+    public BenchlingAuthenticationTokenCache benchlingAuthenticationTokenCache(
+        BenchlingElnRestClient benchlingElnRestClient) {
+      return new BenchlingAuthenticationTokenCache(benchlingElnRestClient);
+    }
+
+    @Bean
+    public BenchlingFolderTreeLoader benchlingFolderTreeLoader(
+        BenchlingElnRestClient benchlingElnRestClient, BenchlingProperties benchlingProperties) {
+      return new BenchlingFolderTreeLoader(
+          benchlingElnRestClient, benchlingProperties.getFolderParallelism());
+    }
+
     @Bean
     public NotebookFolderService benchlingNotebookService() {
       return new BenchlingNotebookFolderService();
@@ -16,14 +16,20 @@
 
 package io.studytracker.config;
 
+import io.studytracker.aws.EventBridgePublisher;
 import io.studytracker.aws.EventBridgeService;
 import io.studytracker.config.properties.AWSProperties;
+import io.studytracker.config.properties.AWSProperties.EventBridgeProperties;
+import io.studytracker.config.properties.EventsProperties;
+import io.studytracker.events.EventOutboxRelay;
 import io.studytracker.events.EventsService;
 import io.studytracker.events.LocalEventsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
@@ -34,6 +40,22 @@ import software.amazon.awssdk.services.eventbridge.EventBridgeClientBuilder;
 @Configuration
 public class EventsServiceConfiguration {
 
+  @Configuration
+  @EnableScheduling
+  public static class EventOutboxConfiguration {
+
+    @Autowired
+    private EventsProperties properties;
+
+    @Bean
+    public EventOutboxRelay eventOutboxRelay(PlatformTransactionManager transactionManager) {
+      return new EventOutboxRelay(
+          transactionManager,
+          properties.getOutbox().getBatchSize(),
+          properties.getOutbox().getMaxAttempts());
+    }
+  }
+
   @Configuration
   @ConditionalOnProperty(name = "events.mode", havingValue = "local", matchIfMissing = true)
   public static class LocalEventsConfiguration {
@@ -65,12 +87,24 @@ public class EventsServiceConfiguration {
       return builder.build();
     }
 
+    @Bean(destroyMethod = "shutdown")
+    public EventBridgePublisher eventBridgePublisher() {
+      EventBridgeProperties eventBridgeProperties = properties.getEventbridge();
+      return new EventBridgePublisher(
+          eventBridgeClient(),
+          eventBridgeProperties.getBatchSize(),
+          eventBridgeProperties.getFlushInterval(),
+          eventBridgeProperties.getQueueCapacity(),
+          eventBridgeProperties.getMaxRetries());
+    }
+
     @Bean
     public EventBridgeService eventBridgeService() {
       Assert.isTrue(properties.getEventbridge() != null
               && StringUtils.hasText(properties.getEventbridge().getBusName()),
           "EventBridge bus name must be set with property: aws.eventbridge.bus-name");
-      return new EventBridgeService(eventBridgeClient(), properties.getEventbridge().getBusName());
+      return new EventBridgeService(
+          eventBridgePublisher(), properties.getEventbridge().getBusName());
     }
   }
 }
@@ -17,13 +17,16 @@
 package io.studytracker.config;
 
 import io.studytracker.config.properties.ElasticsearchProperties;
+import io.studytracker.exception.SearchIndexException;
 import io.studytracker.model.Assay;
 import io.studytracker.model.Study;
 import io.studytracker.repository.AssayRepository;
 import io.studytracker.repository.StudyRepository;
+import io.studytracker.search.IncrementalSearchIndexer;
 import io.studytracker.search.SearchService;
 import io.studytracker.search.elasticsearch.ElasticsearchSearchService;
 import java.util.Calendar;
+import java.util.List;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +41,7 @@ import org.springframework.data.elasticsearch.client.RestClients;
 import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @Configuration
 @ConditionalOnProperty("search.mode")
@@ -112,29 +116,42 @@ public class SearchServiceConfiguration {
 
     @Autowired private SearchService searchService;
 
+    @Bean
+    public IncrementalSearchIndexer incrementalSearchIndexer(
+        PlatformTransactionManager transactionManager) {
+      return new IncrementalSearchIndexer(transactionManager);
+    }
+
     /**
-     * Indexes all studies that have been updated within the past two hours. Runs on a schedule
-     * every other hour.
+     * Indexes all studies and assays that have been updated within the past day. Changes are
+     * normally indexed as they happen by {@link IncrementalSearchIndexer}, so this only serves to
+     * catch anything that was missed. Runs daily, by default.
      */
-    @Scheduled(cron = "0 0 */2 * * *")
+    @Scheduled(cron = "${search.reconciliation-cron:0 0 3 * * *}")
     public void scheduledDocumentIndex() {
-      LOGGER.info("Running scheduled study search indexing...");
+      LOGGER.info("Running scheduled search index reconciliation...");
 
       Calendar calendar = Calendar.getInstance();
-      calendar.add(Calendar.MINUTE, -130);
+      calendar.add(Calendar.HOUR, -26);
 
       // Index studies
-      int studyCount = 0;
-      for (Study study : studyRepository.findByUpdatedAtAfter(calendar.getTime())) {
-        searchService.indexStudy(study);
-        studyCount = studyCount + 1;
+      List<Study> studies = studyRepository.findByUpdatedAtAfter(calendar.getTime());
+      int studyCount = studies.size();
+      try {
+        searchService.indexStudies(studies);
+      } catch (SearchIndexException e) {
+        LOGGER.error("Failed to index studies: {}", e.getFailedIds());
+        studyCount = studyCount - e.getFailedIds().size();
       }
 
       // Index assays
-      int assayCount = 0;
-      for (Assay assay : assayRepository.findByUpdatedAtAfter(calendar.getTime())) {
-        searchService.indexAssay(assay);
-        assayCount = assayCount + 1;
+      List<Assay> assays = assayRepository.findByUpdatedAtAfter(calendar.getTime());
+      int assayCount = assays.size();
+      try {
+        searchService.indexAssays(assays);
+      } catch (SearchIndexException e) {
+        LOGGER.error("Failed to index assays: {}", e.getFailedIds());
+        assayCount = assayCount - e.getFailedIds().size();
       }
 
       LOGGER.info("Document indexing complete. Indexed {} studies and {} assays",
@@ -26,6 +26,7 @@ import io.studytracker.egnyte.EgnyteFolderNamingService;
 import io.studytracker.egnyte.EgnyteStudyStorageService;
 import io.studytracker.egnyte.entity.EgnyteObject;
 import io.studytracker.egnyte.rest.EgnyteObjectDeserializer;
+import io.studytracker.egnyte.rest.EgnyteRateLimiter;
 import io.studytracker.egnyte.rest.EgnyteRestApiClient;
 import io.studytracker.exception.InvalidConfigurationException;
 import io.studytracker.storage.LocalFileSystemStorageService;
@@ -101,10 +102,19 @@ public class StorageServiceConfiguration {
       return restTemplate;
     }
 
+    @Bean
+    public EgnyteRateLimiter egnyteRateLimiter(EgnyteProperties egnyteProperties) {
+      return new EgnyteRateLimiter(
+          egnyteProperties.getQps(),
+          egnyteProperties.getBurst(),
+          egnyteProperties.getMaxRetries());
+    }
+
     @Bean
     public EgnyteRestApiClient egnyteClient(EgnyteProperties egnyteProperties)
         throws Exception {
-      return new EgnyteRestApiClient(egnyteRestTemplate(egnyteProperties));
+      return new EgnyteRestApiClient(
+          egnyteRestTemplate(egnyteProperties), egnyteRateLimiter(egnyteProperties));
     }
 
     @Bean
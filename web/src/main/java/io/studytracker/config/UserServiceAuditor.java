@@ -17,6 +17,7 @@
 package io.studytracker.config;
 
 import io.studytracker.model.User;
+import io.studytracker.security.AuthenticatedUserContext;
 import io.studytracker.service.UserService;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,7 +45,9 @@ public class UserServiceAuditor implements AuditorAware<User> {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         username = userDetails.getUsername();
       }
-      user = userService.findByUsername(username).orElse(null);
+      user =
+          AuthenticatedUserContext.getUser(
+              username, name -> userService.findByUsername(name).orElse(null));
     }
     return Optional.ofNullable(user);
   }
@@ -65,7 +65,12 @@ public class WebAppConfiguration {
 
   @Bean
   public FileSystemStorageService fileSystemStorageService(StorageProperties storageProperties) {
-    return new FileSystemStorageService(Paths.get(storageProperties.getTempDir()));
+    StorageProperties.SpoolProperties spool = storageProperties.getSpool();
+    return new FileSystemStorageService(
+        Paths.get(storageProperties.getTempDir()),
+        spool.getQuota(),
+        spool.getWaitTimeout(),
+        spool.getMaxAge());
   }
 
   @Bean
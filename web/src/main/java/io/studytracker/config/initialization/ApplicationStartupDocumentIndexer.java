@@ -16,11 +16,8 @@
 
 package io.studytracker.config.initialization;
 
-import io.studytracker.model.Assay;
-import io.studytracker.model.Study;
-import io.studytracker.repository.AssayRepository;
-import io.studytracker.repository.StudyRepository;
-import io.studytracker.search.SearchService;
+import io.studytracker.config.properties.SearchProperties;
+import io.studytracker.search.SearchReindexService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,40 +25,28 @@ import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
 
+/**
+ * Starts a background rebuild of the search indexes on startup. If a previous reindex was
+ *   interrupted, it resumes from its last checkpoint. Application startup does not wait for
+ *   indexing to complete. Disabled by setting {@code search.reindex-on-startup=false}.
+ */
 @Component
 public class ApplicationStartupDocumentIndexer implements ApplicationRunner {
 
   private static final Logger LOGGER =
       LoggerFactory.getLogger(ApplicationStartupDocumentIndexer.class);
 
-  @Autowired private StudyRepository studyRepository;
-
-  @Autowired private AssayRepository assayRepository;
+  @Autowired private SearchReindexService searchReindexService;
 
-  @Autowired(required = false)
-  private SearchService searchService;
+  @Autowired private SearchProperties searchProperties;
 
   @Override
   public void run(ApplicationArguments args) throws Exception {
-    if (searchService != null) {
-      LOGGER.info("Running startup search document indexing...");
-
-      // Index studies
-      int studyCount = 0;
-      for (Study study : studyRepository.findAllWithDetails()) {
-        searchService.indexStudy(study);
-        studyCount = studyCount + 1;
-      }
-
-      // Index assays
-      int assayCount = 0;
-      for (Assay assay : assayRepository.findAllWithDetails()) {
-        searchService.indexAssay(assay);
-        assayCount = assayCount + 1;
-      }
-
-      LOGGER.info("Document indexing complete. Indexed {} studies and {} assays",
-          studyCount, assayCount);
+    if (!searchProperties.getReindexOnStartup()) {
+      LOGGER.info("Search reindex on startup is disabled.");
+    } else if (searchReindexService.isEnabled()) {
+      LOGGER.info("Starting background search document indexing...");
+      searchReindexService.startReindex(false);
     } else {
       LOGGER.warn("StudySearchService is not defined. No study search indexing will occur.");
     }
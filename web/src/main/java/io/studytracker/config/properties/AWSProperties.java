@@ -18,6 +18,8 @@ package io.studytracker.config.properties;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -62,6 +64,23 @@ public class AWSProperties {
 
     private String busName;
 
+    /** Maximum number of events sent in a single PutEvents request. */
+    @Min(1)
+    @Max(10)
+    private int batchSize = 10;
+
+    /** Maximum time, in milliseconds, that an event waits for a batch to fill before sending. */
+    @Min(1)
+    private long flushInterval = 1000L;
+
+    /** Maximum number of events buffered for publishing before new events are dropped. */
+    @Min(1)
+    private int queueCapacity = 10000;
+
+    /** Number of times an event that failed to publish is retried. */
+    @Min(0)
+    private int maxRetries = 5;
+
   }
 
   @Getter
@@ -18,6 +18,7 @@ package io.studytracker.config.properties;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -33,6 +34,14 @@ public class BenchlingProperties {
 
   private String tenantName;
 
+  /** Maximum number of concurrent requests made when loading notebook folder trees. */
+  @Min(1)
+  private int folderParallelism = 4;
+
+  /** Time, in milliseconds, after which cached notebook entry templates are reloaded. */
+  @Min(1000)
+  private long templateCacheTtl = 600000L;
+
   @Valid
   private final BenchlingApiProperties api = new BenchlingApiProperties();
 
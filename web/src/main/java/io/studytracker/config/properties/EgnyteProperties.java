@@ -17,6 +17,7 @@
 package io.studytracker.config.properties;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import javax.validation.constraints.Min;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -37,7 +38,14 @@ public class EgnyteProperties {
 
   private String rootPath;
 
-  private Integer qps;
+  @Min(1)
+  private Integer qps = 1;
+
+  @Min(1)
+  private Integer burst = 1;
+
+  @Min(0)
+  private Integer maxRetries = 3;
 
   @Override
   public String toString() {
@@ -47,6 +55,8 @@ public class EgnyteProperties {
         ", apiToken='*****'" +
         ", rootPath='" + rootPath + '\'' +
         ", qps=" + qps +
+        ", burst=" + burst +
+        ", maxRetries=" + maxRetries +
         '}';
   }
 }
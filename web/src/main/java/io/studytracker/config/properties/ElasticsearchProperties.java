@@ -17,8 +17,11 @@
 package io.studytracker.config.properties;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.ToString;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
@@ -39,6 +42,9 @@ public class ElasticsearchProperties {
   @JsonIgnore
   private String password;
 
+  @Valid
+  private final BulkIndexingProperties bulk = new BulkIndexingProperties();
+
   @Override
   public String toString() {
     return "ElasticsearchProperties{" +
@@ -47,6 +53,24 @@ public class ElasticsearchProperties {
         ", useSsl=" + useSsl +
         ", username='" + username + '\'' +
         ", password='*****'" +
+        ", bulk=" + bulk +
         '}';
   }
+
+  @Getter
+  @Setter
+  @ToString
+  public static class BulkIndexingProperties {
+
+    @Min(1)
+    private Integer maxDocuments = 500;
+
+    @Min(1024)
+    private Long maxBytes = 5L * 1024 * 1024;
+
+    @Min(1)
+    private Integer concurrency = 2;
+
+  }
+
 }
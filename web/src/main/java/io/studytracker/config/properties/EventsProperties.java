@@ -16,6 +16,8 @@
 
 package io.studytracker.config.properties;
 
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -32,4 +34,26 @@ public class EventsProperties {
   @ConfigurationModeConstraint(options = {"local", "eventbridge"})
   private String mode;
 
+  @Valid
+  private final OutboxProperties outbox = new OutboxProperties();
+
+  @Getter
+  @Setter
+  @ToString
+  public static class OutboxProperties {
+
+    /** Maximum number of outbox events claimed and dispatched in a single transaction. */
+    @Min(1)
+    private int batchSize = 100;
+
+    /** Time, in milliseconds, between polls of the outbox for events to dispatch. */
+    @Min(100)
+    private long pollInterval = 1000L;
+
+    /** Number of failed dispatch attempts after which an outbox event is parked. */
+    @Min(1)
+    private int maxAttempts = 10;
+
+  }
+
 }
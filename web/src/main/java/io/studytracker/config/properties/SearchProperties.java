@@ -16,6 +16,7 @@
 
 package io.studytracker.config.properties;
 
+import javax.validation.constraints.Min;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -32,4 +33,12 @@ public class SearchProperties {
   @ConfigurationModeConstraint(options = {"elasticsearch"})
   private String mode;
 
+  private Boolean reindexOnStartup = true;
+
+  @Min(1)
+  private Integer reindexChunkSize = 100;
+
+  @Min(100)
+  private Long eventIndexingDelay = 2000L;
+
 }
@@ -16,6 +16,7 @@
 
 package io.studytracker.config.properties;
 
+import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotEmpty;
@@ -47,4 +48,30 @@ public class StorageProperties {
 
   private String localDir;
 
+  @Valid
+  private final SpoolProperties spool = new SpoolProperties();
+
+  @Getter
+  @Setter
+  @ToString
+  public static class SpoolProperties {
+
+    /** Maximum total size, in bytes, of uploads held in the temp directory, or 0 for no limit. */
+    @Min(0)
+    private long quota = 10737418240L;
+
+    /** Time, in milliseconds, an upload will wait for spool space before it is rejected. */
+    @Min(0)
+    private long waitTimeout = 30000L;
+
+    /** Age, in milliseconds, after which unreleased uploads are removed by the reaper. */
+    @Min(60000)
+    private long maxAge = 3600000L;
+
+    /** Time, in milliseconds, between runs of the spool reaper. */
+    @Min(1000)
+    private long reaperInterval = 600000L;
+
+  }
+
 }
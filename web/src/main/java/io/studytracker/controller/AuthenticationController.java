@@ -27,6 +27,7 @@ import io.studytracker.model.UserType;
 import io.studytracker.security.ApiAuthorizationToken;
 import io.studytracker.security.AppUserDetails;
 import io.studytracker.security.AuthCredentials;
+import io.studytracker.security.AuthenticatedUserContext;
 import io.studytracker.security.TokenUtils;
 import io.studytracker.service.EmailService;
 import io.studytracker.service.UserService;
@@ -126,8 +127,11 @@ public class AuthenticationController {
         LOGGER.debug("Loaded user from userDetails: {}", userDetails.getUsername());
       } else {
         String username = principal.toString();
-        user = userService.findByUsername(username)
-            .orElseThrow(() -> new UnknownUserException(username));
+        user = AuthenticatedUserContext.getUser(
+            username, name -> userService.findByUsername(name).orElse(null));
+        if (user == null) {
+          throw new UnknownUserException(username);
+        }
         LOGGER.debug("Loaded user from username: {}", username);
       }
     } else {
@@ -17,18 +17,24 @@
 package io.studytracker.controller.api;
 
 import io.studytracker.events.EventsService;
+import io.studytracker.exception.InsufficientPrivilegesException;
 import io.studytracker.model.Activity;
 import io.studytracker.model.User;
-import io.studytracker.security.AppUserDetails;
 import io.studytracker.security.AppUserDetailsService;
+import io.studytracker.security.AuthenticatedUserContext;
+import io.studytracker.service.ActivityCursor;
 import io.studytracker.service.ActivityService;
+import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
 public abstract class AbstractApiController {
 
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
   private AppUserDetailsService userDetailsService;
 
   private ActivityService activityService;
@@ -37,28 +43,59 @@ public abstract class AbstractApiController {
 
   /**
    * Returns the currently logged in user, or throws a {@link UsernameNotFoundException} if no user
-   *   is logged in.
+   *   is logged in. The user is loaded once per request and reused by subsequent calls.
    *
    * @return the currently logged in user
    */
   protected User getAuthenticatedUser() {
     String username = SecurityContextHolder.getContext().getAuthentication().getName();
     try {
-      AppUserDetails userDetails = userDetailsService.loadUserByUsername(username);
-      return userDetails.getUser();
+      return AuthenticatedUserContext.getUser(
+          username, name -> userDetailsService.loadUserByUsername(name).getUser());
     } catch (Exception e) {
       throw new UsernameNotFoundException("User not found: " + username);
     }
   }
 
   /**
-   * Saves an activity record and dispatches the corresponding event.
+   * Throws an {@link InsufficientPrivilegesException} if the currently logged in user is not an
+   *   administrator.
+   */
+  protected void checkAdmin() {
+    User user = this.getAuthenticatedUser();
+    if (!user.isAdmin()) {
+      throw new InsufficientPrivilegesException(
+          "You do not have permission to perform this action.");
+    }
+  }
+
+  /**
+   * Saves an activity record and queues the corresponding event for dispatch.
    *
    * @param activity the activity record to save
    */
   protected void logActivity(Activity activity) {
     activityService.create(activity);
-    eventsService.dispatchEvent(activity);
+  }
+
+  /**
+   * Builds the response for one page of an activity feed. If the page is full, the cursor for the
+   *   next page is returned in the {@link #NEXT_CURSOR_HEADER} header.
+   *
+   * @param activities the activity records in the page
+   * @param limit the requested page size
+   * @param body the response body
+   * @return the response
+   */
+  protected <T> ResponseEntity<List<T>> activityFeedResponse(
+      List<Activity> activities, int limit, List<T> body) {
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+    if (!activities.isEmpty()
+        && activities.size() >= Math.min(limit, ActivityService.MAX_FEED_SIZE)) {
+      Activity last = activities.get(activities.size() - 1);
+      builder.header(NEXT_CURSOR_HEADER, ActivityCursor.after(last).toString());
+    }
+    return builder.body(body);
   }
 
   public UserDetailsService getUserDetailsService() {
@@ -19,6 +19,7 @@ package io.studytracker.controller.api.internal;
 import io.studytracker.controller.api.AbstractAssayController;
 import io.studytracker.eln.NotebookFolder;
 import io.studytracker.eln.NotebookFolderService;
+import io.studytracker.exception.InvalidRequestException;
 import io.studytracker.exception.RecordNotFoundException;
 import io.studytracker.model.Assay;
 import java.util.Optional;
@@ -32,6 +33,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RequestMapping("/api/internal/assay/{assayId}/notebook")
@@ -44,18 +46,38 @@ public class AssayNotebookPrivateController extends AbstractAssayController {
   private NotebookFolderService notebookFolderService;
 
   @GetMapping("")
-  public NotebookFolder getNotebookFolder(@PathVariable("assayId") String assayId)
+  public NotebookFolder getNotebookFolder(
+      @PathVariable("assayId") String assayId,
+      @RequestParam(required = false) Integer depth)
       throws RecordNotFoundException {
     LOGGER.info("Fetching notebook folder for assay: " + assayId);
+    validateDepth(depth);
     Assay assay = getAssayFromIdentifier(assayId);
 
     Optional<NotebookFolder> notebookFolder =
         Optional.ofNullable(notebookFolderService)
-            .flatMap(service -> service.findAssayFolder(assay));
+            .flatMap(service -> service.findAssayFolder(assay, depth));
     return notebookFolder.orElseThrow(
         () -> new RecordNotFoundException("Could not load assay folder"));
   }
 
+  @GetMapping("/folder/{folderId}")
+  public NotebookFolder getNotebookSubfolder(
+      @PathVariable("assayId") String assayId,
+      @PathVariable("folderId") String folderId,
+      @RequestParam(defaultValue = "1") Integer depth)
+      throws RecordNotFoundException {
+    LOGGER.info(String.format("Fetching notebook folder %s for assay: %s", folderId, assayId));
+    validateDepth(depth);
+    Assay assay = getAssayFromIdentifier(assayId);
+
+    Optional<NotebookFolder> notebookFolder =
+        Optional.ofNullable(notebookFolderService)
+            .flatMap(service -> service.findAssaySubfolder(assay, folderId, depth));
+    return notebookFolder.orElseThrow(
+        () -> new RecordNotFoundException("Could not load notebook folder: " + folderId));
+  }
+
   @PostMapping("")
   public HttpEntity<?> repairNotebookFolder(@PathVariable("assayId") Long assayId) {
 
@@ -70,4 +92,10 @@ public class AssayNotebookPrivateController extends AbstractAssayController {
     this.getAssayService().repairElnFolder(assay);
     return new ResponseEntity<>(HttpStatus.OK);
   }
+
+  private static void validateDepth(Integer depth) {
+    if (depth != null && depth < 0) {
+      throw new InvalidRequestException("Folder depth must not be negative: " + depth);
+    }
+  }
 }
@@ -24,9 +24,12 @@ import io.studytracker.mapstruct.dto.response.ActivitySummaryDto;
 import io.studytracker.mapstruct.dto.response.AssayDetailsDto;
 import io.studytracker.mapstruct.dto.response.AssayParentDto;
 import io.studytracker.mapstruct.mapper.ActivityMapper;
+import io.studytracker.model.Activity;
 import io.studytracker.model.Assay;
 import io.studytracker.model.Status;
 import io.studytracker.model.User;
+import io.studytracker.service.ActivityCursor;
+import io.studytracker.service.ActivityService;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -44,6 +47,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -104,8 +108,15 @@ public class AssayPrivateController extends AbstractAssayController {
   }
 
   @GetMapping("/{assayId}/activity")
-  public List<ActivitySummaryDto> getAssayActivity(@PathVariable("assayId") String assayId) {
+  public ResponseEntity<List<ActivitySummaryDto>> getAssayActivity(
+      @PathVariable("assayId") String assayId,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "limit", defaultValue = "" + ActivityService.DEFAULT_FEED_SIZE)
+          int limit) {
     Assay assay = this.getAssayFromIdentifier(assayId);
-    return activityMapper.toActivitySummaryList(getActivityService().findByAssay(assay));
+    List<Activity> activities =
+        getActivityService().findByAssay(assay, ActivityCursor.parse(cursor), limit);
+    return this.activityFeedResponse(
+        activities, limit, activityMapper.toActivitySummaryList(activities));
   }
 }
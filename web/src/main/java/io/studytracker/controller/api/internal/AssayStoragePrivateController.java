@@ -19,6 +19,7 @@ package io.studytracker.controller.api.internal;
 import io.studytracker.controller.api.AbstractAssayController;
 import io.studytracker.events.util.AssayActivityUtils;
 import io.studytracker.exception.FileStorageException;
+import io.studytracker.exception.SpoolQuotaExceededException;
 import io.studytracker.model.Activity;
 import io.studytracker.model.Assay;
 import io.studytracker.model.FileStorageLocation;
@@ -72,19 +73,25 @@ public class AssayStoragePrivateController extends AbstractAssayController {
     try {
       path = fileStorageService.store(file);
       LOGGER.info(path.toString());
+    } catch (SpoolQuotaExceededException e) {
+      throw e;
     } catch (FileStorageException e) {
       e.printStackTrace();
       return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
     }
-    FileStorageLocation location = storageLocationService.findByFileStoreFolder(assay.getPrimaryStorageFolder());
-    StudyStorageService studyStorageService = storageLocationService.lookupStudyStorageService(location);
-    StorageFile storageFile = studyStorageService.saveFile(location, path.toFile(), assay);
+    StorageFile storageFile;
+    try {
+      FileStorageLocation location = storageLocationService.findByFileStoreFolder(assay.getPrimaryStorageFolder());
+      StudyStorageService studyStorageService = storageLocationService.lookupStudyStorageService(location);
+      storageFile = studyStorageService.saveFile(location, path.toFile(), assay);
+    } finally {
+      fileStorageService.delete(path);
+    }
 
     // Publish events
     Activity activity =
         AssayActivityUtils.fromFileUpload(assay, this.getAuthenticatedUser(), storageFile);
     getActivityService().create(activity);
-    getEventsService().dispatchEvent(activity);
 
     return new ResponseEntity<>(storageFile, HttpStatus.CREATED);
   }
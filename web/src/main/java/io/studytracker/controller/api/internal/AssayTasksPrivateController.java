@@ -81,7 +81,6 @@ public class AssayTasksPrivateController extends AbstractAssayController {
 
     Activity activity = AssayActivityUtils.fromTaskDeleted(assay, user, task);
     this.getActivityService().create(activity);
-    this.getEventsService().dispatchEvent(activity);
 
     return new ResponseEntity<>(HttpStatus.OK);
   }
@@ -19,7 +19,9 @@ package io.studytracker.controller.api.internal;
 import io.studytracker.controller.api.AbstractApiController;
 import io.studytracker.exception.FileStorageException;
 import io.studytracker.exception.InsufficientPrivilegesException;
+import io.studytracker.exception.InvalidRequestException;
 import io.studytracker.exception.RecordNotFoundException;
+import io.studytracker.exception.SpoolQuotaExceededException;
 import io.studytracker.model.FileStorageLocation;
 import io.studytracker.service.FileSystemStorageService;
 import io.studytracker.service.StorageLocationService;
@@ -27,19 +29,23 @@ import io.studytracker.storage.DataFileStorageService;
 import io.studytracker.storage.DataFileStorageServiceLookup;
 import io.studytracker.storage.StorageFile;
 import io.studytracker.storage.StorageFolder;
+import io.studytracker.storage.StorageFolderPage;
 import io.studytracker.storage.StoragePermissions;
+import java.io.File;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletRequest;
 import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -48,6 +54,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 @RequestMapping("/api/internal/data-files")
@@ -56,6 +63,16 @@ public class DataFileStoragePrivateController extends AbstractApiController {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DataFileStoragePrivateController.class);
 
+  private static final int MAX_FOLDER_PAGE_SIZE = 1000;
+
+  private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+  private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+  private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+  private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
   @Autowired
   private DataFileStorageServiceLookup dataFileStorageServiceLookup;
 
@@ -91,6 +108,34 @@ public class DataFileStoragePrivateController extends AbstractApiController {
     }
   }
 
+  /**
+   * Returns a single page of a data storage folder's contents. Pass the {@code nextCursor} value
+   *   of a page as the {@code cursor} parameter to fetch the following page.
+   */
+  @GetMapping("/page")
+  public StorageFolderPage getDataStorageFolderPage(
+      @RequestParam(name = "path") String path,
+      @RequestParam(name = "locationId") Long locationId,
+      @RequestParam(name = "cursor", required = false) String cursor,
+      @RequestParam(name = "size", defaultValue = "1000") int size
+  ) throws FileStorageException {
+    LOGGER.debug("Getting data storage folder page: {}: {}: {}", locationId, path, cursor);
+    if (size < 1 || size > MAX_FOLDER_PAGE_SIZE) {
+      throw new InvalidRequestException(
+          "Page size must be between 1 and " + MAX_FOLDER_PAGE_SIZE);
+    }
+    FileStorageLocation location = storageLocationService.findById(locationId)
+        .orElseThrow(() -> new RecordNotFoundException("File storage location not found"));
+    DataFileStorageService storageService = dataFileStorageServiceLookup.lookup(location.getType())
+        .orElseThrow(() -> new FileStorageException("File storage service not found"));
+    try {
+      return storageService.findFolderPageByPath(location, path, cursor, size);
+    } catch (Exception e) {
+      e.printStackTrace();
+      throw new RecordNotFoundException("Data storage folder not found: " + path, e);
+    }
+  }
+
   @PostMapping("/upload")
   public HttpEntity<StorageFile> uploadFilesToFolder(
       @RequestParam(name = "path") String path,
@@ -107,25 +152,101 @@ public class DataFileStoragePrivateController extends AbstractApiController {
       throw new InsufficientPrivilegesException("Insufficient privileges to upload files.");
     }
 
-    // Save the file locally
-    Path localPath;
-    try {
-      localPath = fileSystemStorageService.store(file);
-      LOGGER.debug("Local file path: " + localPath.toString());
-    } catch (FileStorageException e) {
-      e.printStackTrace();
-      throw new FileStorageException("Failed to upload file: " + file.getOriginalFilename() ,e);
+    DataFileStorageService storageService = dataFileStorageServiceLookup.lookup(location.getType())
+        .orElseThrow(() -> new FileStorageException("File storage service not found"));
+
+    // Stream the file directly to the storage service, if it allows it
+    StorageFile storageFile;
+    if (storageService.supportsStreamingUploads()) {
+      if (file.isEmpty()) {
+        throw new FileStorageException("File is empty.");
+      }
+      String fileName = cleanClientFilename(file.getOriginalFilename());
+      try (InputStream inputStream = file.getInputStream()) {
+        storageFile = storageService.saveFile(location, path, fileName, inputStream);
+      }
+    } else {
+      Path localPath = this.storeLocally(file);
+      try {
+        storageFile = storageService.saveFile(location, path, localPath.toFile());
+      } finally {
+        fileSystemStorageService.delete(localPath);
+      }
+    }
+
+    LOGGER.debug("Uploaded file: " + storageFile.toString());
+    return new ResponseEntity<>(storageFile, HttpStatus.OK);
+
+  }
+
+  /**
+   * Uploads a file sent as the raw request body. The body is streamed to the storage service as it
+   *   is received, without being parsed as multipart content or written to disk, unless the
+   *   storage service requires a local file.
+   */
+  @PostMapping(value = "/upload/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+  public HttpEntity<StorageFile> streamFileToFolder(
+      @RequestParam(name = "path") String path,
+      @RequestParam(name = "locationId") Long locationId,
+      @RequestParam(name = "fileName") String fileName,
+      HttpServletRequest request
+  ) throws Exception {
+
+    LOGGER.info("Streaming file {} to data storage folder {}", fileName, path);
+
+    // Get the location and check permissions
+    FileStorageLocation location = storageLocationService.findById(locationId)
+        .orElseThrow(() -> new RecordNotFoundException("File storage location not found"));
+    if (!StoragePermissions.canWrite(location.getPermissions())) {
+      throw new InsufficientPrivilegesException("Insufficient privileges to upload files.");
     }
 
-    // Upload to the cloud service
     DataFileStorageService storageService = dataFileStorageServiceLookup.lookup(location.getType())
         .orElseThrow(() -> new FileStorageException("File storage service not found"));
-    StorageFile storageFile = storageService.saveFile(location, path, localPath.toFile());
+    String cleanFileName = cleanClientFilename(fileName);
+
+    StorageFile storageFile;
+    try (InputStream inputStream = request.getInputStream()) {
+      if (storageService.supportsStreamingUploads()) {
+        storageFile = storageService.saveFile(location, path, cleanFileName, inputStream);
+      } else {
+        Path localPath = fileSystemStorageService.store(
+            cleanFileName, inputStream, request.getContentLengthLong());
+        try {
+          storageFile = storageService.saveFile(location, path, localPath.toFile());
+        } finally {
+          fileSystemStorageService.delete(localPath);
+        }
+      }
+    }
+
     LOGGER.debug("Uploaded file: " + storageFile.toString());
     return new ResponseEntity<>(storageFile, HttpStatus.OK);
 
   }
 
+  /** Cleans a file name supplied by the client, rejecting names that are empty or unsafe. */
+  private static String cleanClientFilename(String fileName) {
+    try {
+      return FileSystemStorageService.cleanFilename(fileName);
+    } catch (FileStorageException e) {
+      throw new InvalidRequestException(e.getMessage(), e);
+    }
+  }
+
+  private Path storeLocally(MultipartFile file) throws FileStorageException {
+    try {
+      Path localPath = fileSystemStorageService.store(file);
+      LOGGER.debug("Local file path: " + localPath.toString());
+      return localPath;
+    } catch (SpoolQuotaExceededException e) {
+      throw e;
+    } catch (FileStorageException e) {
+      e.printStackTrace();
+      throw new FileStorageException("Failed to upload file: " + file.getOriginalFilename() ,e);
+    }
+  }
+
   @PostMapping("/create-folder")
   public HttpEntity<StorageFolder> createNewFolder(
       @RequestParam(name = "path") String path,
@@ -145,24 +266,64 @@ public class DataFileStoragePrivateController extends AbstractApiController {
     return new ResponseEntity<>(storageFolder, HttpStatus.OK);
   }
 
+  /**
+   * Streams the requested file to the client. Responses to requests with a {@code Range} header
+   *   contain only the requested byte ranges. Files on a local or mounted file system carry a weak
+   *   ETag and a last-modified date, so that conditional requests can be answered with a 304, and
+   *   complete downloads are handed to the servlet container's sendfile support when available.
+   */
   @GetMapping("/download")
   public HttpEntity<Resource> downloadFile(
       @RequestParam(name = "path") String path,
-      @RequestParam(name = "locationId") Long locationId
+      @RequestParam(name = "locationId") Long locationId,
+      ServletWebRequest webRequest
   ) throws Exception {
     LOGGER.info("Downloading file from data storage folder {}", path);
     FileStorageLocation location = storageLocationService.findById(locationId)
         .orElseThrow(() -> new RecordNotFoundException("File storage location not found"));
     DataFileStorageService storageService = dataFileStorageServiceLookup.lookup(location.getType())
-        .orElseThrow(() -> new FileStorageException("File storage service not found"));;
-    ByteArrayResource resource = (ByteArrayResource) storageService.fetchFile(location, path);
+        .orElseThrow(() -> new FileStorageException("File storage service not found"));
+    Resource resource = storageService.fetchFile(location, path);
     HttpHeaders headers = new HttpHeaders();
     headers.setContentDisposition(ContentDisposition.builder("attachment")
         .filename(FilenameUtils.getName(path))
         .build());
+    if (!resource.isFile()) {
+      return ResponseEntity.ok()
+          .headers(headers)
+          .contentType(MediaType.APPLICATION_OCTET_STREAM)
+          .body(resource);
+    }
+
+    File file = resource.getFile();
+    long length = file.length();
+    long lastModified = file.lastModified();
+    String eTag = "W/\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+    if (webRequest.checkNotModified(eTag, lastModified)) {
+      return null;
+    }
+    headers.setETag(eTag);
+    headers.setLastModified(lastModified);
+    headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+    // Let the container write the whole file with sendfile, rather than copying it through the
+    //   response stream. Range requests are still handled by Spring.
+    HttpServletRequest request = webRequest.getRequest();
+    if (HttpMethod.GET.matches(request.getMethod())
+        && request.getHeader(HttpHeaders.RANGE) == null
+        && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+      request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.getAbsolutePath());
+      request.setAttribute(SENDFILE_START_ATTRIBUTE, 0L);
+      request.setAttribute(SENDFILE_END_ATTRIBUTE, length);
+      return ResponseEntity.ok()
+          .headers(headers)
+          .contentType(MediaType.APPLICATION_OCTET_STREAM)
+          .contentLength(length)
+          .build();
+    }
+
     return ResponseEntity.ok()
         .headers(headers)
-        .contentLength(resource.contentLength())
         .contentType(MediaType.APPLICATION_OCTET_STREAM)
         .body(resource);
   }
@@ -16,6 +16,7 @@
 
 package io.studytracker.controller.api.internal;
 
+import io.studytracker.controller.api.AbstractApiController;
 import io.studytracker.eln.NotebookEntryService;
 import io.studytracker.eln.NotebookFolderService;
 import io.studytracker.eln.NotebookTemplate;
@@ -29,12 +30,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping("/api/internal/eln")
-public class NotebookPrivateController {
+public class NotebookPrivateController extends AbstractApiController {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(NotebookPrivateController.class);
 
@@ -67,6 +69,16 @@ public class NotebookPrivateController {
     }
   }
 
+  @PostMapping("/entrytemplate/refresh")
+  public HttpEntity<?> refreshNotebookEntryTemplates() {
+    this.checkAdmin();
+    if (notebookEntryService == null) {
+      return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+    notebookEntryService.invalidateEntryTemplates();
+    return new ResponseEntity<>(HttpStatus.OK);
+  }
+
   @GetMapping("/project-folders")
   public HttpEntity<?> findNotebookProjects() {
     if (notebookFolderService == null) {
@@ -19,7 +19,6 @@ package io.studytracker.controller.api.internal;
 import io.studytracker.controller.api.AbstractProgramController;
 import io.studytracker.eln.NotebookFolder;
 import io.studytracker.eln.NotebookFolderService;
-import io.studytracker.events.EventsService;
 import io.studytracker.events.util.ProgramActivityUtils;
 import io.studytracker.exception.InsufficientPrivilegesException;
 import io.studytracker.exception.RecordNotFoundException;
@@ -32,6 +31,7 @@ import io.studytracker.model.FileStorageLocation;
 import io.studytracker.model.Program;
 import io.studytracker.model.ProgramOptions;
 import io.studytracker.model.User;
+import io.studytracker.service.ActivityCursor;
 import io.studytracker.service.ActivityService;
 import io.studytracker.service.StorageLocationService;
 import io.studytracker.storage.StorageFolder;
@@ -66,8 +66,6 @@ public class ProgramPrivateController extends AbstractProgramController {
 
   @Autowired private ActivityService activityService;
 
-  @Autowired private EventsService eventsService;
-
   @Autowired private ActivityMapper activityMapper;
 
   @Autowired private StorageLocationService storageLocationService;
@@ -146,21 +144,25 @@ public class ProgramPrivateController extends AbstractProgramController {
     // Publish events
     Activity activity = ProgramActivityUtils.fromUpdatedProgram(program, user);
     activityService.create(activity);
-    eventsService.dispatchEvent(activity);
 
     return new ResponseEntity<>(HttpStatus.OK);
   }
 
   @GetMapping("/{id}/activity")
   public HttpEntity<List<ActivityDetailsDto>> getProgramActivity(
-      @PathVariable("id") Long programId) {
+      @PathVariable("id") Long programId,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "limit", defaultValue = "" + ActivityService.DEFAULT_FEED_SIZE)
+          int limit) {
     Optional<Program> optional = this.getProgramService().findById(programId);
     if (!optional.isPresent()) {
       throw new RecordNotFoundException("Program not found: " + programId);
     }
     Program program = optional.get();
-    List<Activity> activities = activityService.findByProgram(program);
-    return new ResponseEntity<>(activityMapper.toActivityDetailsList(activities), HttpStatus.OK);
+    List<Activity> activities =
+        activityService.findByProgram(program, ActivityCursor.parse(cursor), limit);
+    return this.activityFeedResponse(
+        activities, limit, activityMapper.toActivityDetailsList(activities));
   }
 
   /**
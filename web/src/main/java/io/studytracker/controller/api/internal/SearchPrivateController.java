@@ -16,25 +16,33 @@
 
 package io.studytracker.controller.api.internal;
 
+import io.studytracker.controller.api.AbstractApiController;
 import io.studytracker.search.GenericSearchHits;
+import io.studytracker.search.SearchIndexProgress;
+import io.studytracker.search.SearchReindexService;
 import io.studytracker.search.SearchService;
+import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping("/api/internal/search")
-public class SearchPrivateController {
+public class SearchPrivateController extends AbstractApiController {
 
   @Autowired(required = false)
   private SearchService searchService;
 
+  @Autowired
+  private SearchReindexService searchReindexService;
+
   @GetMapping("")
   public HttpEntity<GenericSearchHits<?>> search(
       @RequestParam("keyword") String keyword,
@@ -51,4 +59,26 @@ public class SearchPrivateController {
       return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
     }
   }
+
+  @GetMapping("/index")
+  public HttpEntity<List<SearchIndexProgress>> getIndexProgress() {
+    this.checkAdmin();
+    if (!searchReindexService.isEnabled()) {
+      return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+    }
+    return new ResponseEntity<>(searchReindexService.getProgress(), HttpStatus.OK);
+  }
+
+  @PostMapping("/index")
+  public HttpEntity<List<SearchIndexProgress>> reindex(
+      @RequestParam(value = "restart", defaultValue = "false") boolean restart) {
+    this.checkAdmin();
+    if (!searchReindexService.isEnabled()) {
+      return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+    }
+    boolean started = searchReindexService.startReindex(restart);
+    return new ResponseEntity<>(searchReindexService.getProgress(),
+        started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT);
+  }
+
 }
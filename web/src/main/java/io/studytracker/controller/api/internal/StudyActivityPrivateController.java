@@ -19,13 +19,17 @@ package io.studytracker.controller.api.internal;
 import io.studytracker.controller.api.AbstractStudyController;
 import io.studytracker.mapstruct.dto.response.ActivitySummaryDto;
 import io.studytracker.mapstruct.mapper.ActivityMapper;
+import io.studytracker.model.Activity;
 import io.studytracker.model.Study;
+import io.studytracker.service.ActivityCursor;
 import io.studytracker.service.ActivityService;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RequestMapping("/api/internal/study/{studyId}/activity")
@@ -37,8 +41,15 @@ public class StudyActivityPrivateController extends AbstractStudyController {
   @Autowired private ActivityMapper activityMapper;
 
   @GetMapping("")
-  public List<ActivitySummaryDto> getStudyActivity(@PathVariable("studyId") String studyId) {
+  public ResponseEntity<List<ActivitySummaryDto>> getStudyActivity(
+      @PathVariable("studyId") String studyId,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "limit", defaultValue = "" + ActivityService.DEFAULT_FEED_SIZE)
+          int limit) {
     Study study = this.getStudyFromIdentifier(studyId);
-    return activityMapper.toActivitySummaryList(activityService.findByStudy(study));
+    List<Activity> activities =
+        activityService.findByStudy(study, ActivityCursor.parse(cursor), limit);
+    return this.activityFeedResponse(
+        activities, limit, activityMapper.toActivitySummaryList(activities));
   }
 }
@@ -17,6 +17,7 @@
 package io.studytracker.controller.api.internal;
 
 import io.studytracker.controller.api.AbstractStudyController;
+import io.studytracker.exception.InvalidRequestException;
 import io.studytracker.exception.RecordNotFoundException;
 import io.studytracker.exception.StudyTrackerException;
 import io.studytracker.mapstruct.dto.form.StudyFormDto;
@@ -27,6 +28,8 @@ import io.studytracker.model.Status;
 import io.studytracker.model.Study;
 import io.studytracker.model.StudyOptions;
 import io.studytracker.model.User;
+import io.studytracker.repository.StudyKeyset;
+import io.studytracker.repository.StudySpecifications;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -34,11 +37,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import javax.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
@@ -58,8 +63,18 @@ public class StudyBasePrivateController extends AbstractStudyController {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(StudyBasePrivateController.class);
 
+  private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  private static final int MAX_PAGE_SIZE = 1000;
+
+  /**
+   * Returns studies matching the requested filter. The owner, active, legacy, external and default
+   *   filters are applied in the database and support keyset paging: if {@code size} is set, at
+   *   most that many studies are returned, ordered by {@code sort} and {@code direction}, and the
+   *   cursor for the following page is returned in the {@code X-Next-Cursor} header.
+   */
   @GetMapping("")
-  public List<StudySummaryDto> getAllStudies(
+  public HttpEntity<List<StudySummaryDto>> getAllStudies(
       @RequestParam(value = "code", required = false) String code,
       @RequestParam(value = "owner", required = false) Long owner,
       @RequestParam(value = "user", required = false) Long userId,
@@ -68,9 +83,14 @@ public class StudyBasePrivateController extends AbstractStudyController {
       @RequestParam(value = "external", defaultValue = "false") boolean external,
       @RequestParam(value = "my", defaultValue = "false") boolean my,
       @RequestParam(value = "search", required = false) String search,
-      @RequestParam(value = "program", required = false) Long programId) {
+      @RequestParam(value = "program", required = false) Long programId,
+      @RequestParam(value = "size", required = false) Integer size,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "sort", defaultValue = "id") String sort,
+      @RequestParam(value = "direction", defaultValue = "ASC") Direction direction) {
 
-    List<Study> studies;
+    List<Study> studies = null;
+    Specification<Study> specification = null;
 
     // Search
     if (StringUtils.hasText(search)) {
@@ -92,10 +112,7 @@ public class StudyBasePrivateController extends AbstractStudyController {
       if (optional.isEmpty()) {
         throw new RecordNotFoundException("Cannot find user record: " + owner);
       }
-      studies =
-          getStudyService().findAll().stream()
-              .filter(study -> study.getOwner().getId().equals(owner) && study.isActive())
-              .collect(Collectors.toList());
+      specification = StudySpecifications.hasOwner(owner).and(StudySpecifications.isActive());
     }
 
     // Find by user
@@ -119,27 +136,15 @@ public class StudyBasePrivateController extends AbstractStudyController {
 
     // Active
     else if (active) {
-      studies =
-          getStudyService().findAll().stream()
-              .filter(
-                  study ->
-                      study.isActive()
-                          && Arrays.asList(Status.IN_PLANNING, Status.ACTIVE)
-                              .contains(study.getStatus()))
-              .collect(Collectors.toList());
+      specification = StudySpecifications.isActive()
+          .and(StudySpecifications.hasStatusIn(Arrays.asList(Status.IN_PLANNING, Status.ACTIVE)));
     }
 
     // Legacy
     else if (legacy) {
-      studies =
-          getStudyService().findAll().stream()
-              .filter(s -> s.isLegacy() && s.isActive())
-              .collect(Collectors.toList());
+      specification = StudySpecifications.isLegacy().and(StudySpecifications.isActive());
     } else if (external) {
-      studies =
-          getStudyService().findAll().stream()
-              .filter(s -> s.getCollaborator() != null)
-              .collect(Collectors.toList());
+      specification = StudySpecifications.hasCollaborator();
     }
 
     // Find by code
@@ -151,11 +156,33 @@ public class StudyBasePrivateController extends AbstractStudyController {
 
     // Find all
     else {
-      studies =
-          getStudyService().findAll().stream().filter(Study::isActive).collect(Collectors.toList());
+      specification = StudySpecifications.isActive();
+    }
+
+    // Run database-filtered queries, paging them if requested
+    HttpHeaders headers = new HttpHeaders();
+    if (specification != null) {
+      if (size != null) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+          throw new InvalidRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        StudyKeyset keyset;
+        try {
+          keyset = StudyKeyset.of(sort, direction, cursor);
+        } catch (IllegalArgumentException e) {
+          throw new InvalidRequestException(e.getMessage());
+        }
+        studies = getStudyService().findAll(specification, keyset, size);
+        if (studies.size() == size) {
+          headers.set(NEXT_CURSOR_HEADER, keyset.cursorAfter(studies.get(studies.size() - 1)));
+        }
+      } else {
+        studies = getStudyService().findAll(specification);
+      }
     }
 
-    return this.getStudyMapper().toStudySummaryList(studies);
+    return new ResponseEntity<>(
+        this.getStudyMapper().toStudySummaryList(studies), headers, HttpStatus.OK);
   }
 
   @GetMapping("/{id}")
@@ -70,7 +70,6 @@ public class StudyCommentsPrivateController extends AbstractStudyController {
     // Publish events
     Activity activity = StudyActivityUtils.fromNewComment(study, this.getAuthenticatedUser(), comment);
     getActivityService().create(activity);
-    getEventsService().dispatchEvent(activity);
 
     return new ResponseEntity<>(this.getCommentMapper().toDetailsDto(comment), HttpStatus.CREATED);
   }
@@ -95,7 +94,6 @@ public class StudyCommentsPrivateController extends AbstractStudyController {
     // Publish events
     Activity activity = StudyActivityUtils.fromEditiedComment(study, user, updated);
     getActivityService().create(activity);
-    getEventsService().dispatchEvent(activity);
 
     return new ResponseEntity<>(this.getCommentMapper().toDetailsDto(updated), HttpStatus.OK);
   }
@@ -121,7 +119,6 @@ public class StudyCommentsPrivateController extends AbstractStudyController {
     // Publish events
     Activity activity = StudyActivityUtils.fromDeletedComment(study, this.getAuthenticatedUser());
     getActivityService().create(activity);
-    getEventsService().dispatchEvent(activity);
 
     return new ResponseEntity<>(HttpStatus.OK);
   }
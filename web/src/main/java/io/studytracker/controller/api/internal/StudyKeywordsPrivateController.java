@@ -71,7 +71,6 @@ public class StudyKeywordsPrivateController extends AbstractStudyController {
     // Publish events
     Activity activity = StudyActivityUtils.fromUpdatedStudyKeywords(study, this.getAuthenticatedUser());
     getActivityService().create(activity);
-    getEventsService().dispatchEvent(activity);
 
     return new ResponseEntity<>(HttpStatus.OK);
   }
@@ -19,6 +19,7 @@ package io.studytracker.controller.api.internal;
 import io.studytracker.controller.api.AbstractStudyController;
 import io.studytracker.eln.NotebookFolder;
 import io.studytracker.eln.NotebookFolderService;
+import io.studytracker.exception.InvalidRequestException;
 import io.studytracker.exception.RecordNotFoundException;
 import io.studytracker.model.Study;
 import java.util.Optional;
@@ -32,6 +33,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -44,18 +46,38 @@ public class StudyNotebookPrivateController extends AbstractStudyController {
   private NotebookFolderService notebookFolderService;
 
   @GetMapping("")
-  public NotebookFolder getStudyNotebookFolder(@PathVariable("studyId") String studyId)
+  public NotebookFolder getStudyNotebookFolder(
+      @PathVariable("studyId") String studyId,
+      @RequestParam(required = false) Integer depth)
       throws RecordNotFoundException {
     LOGGER.info("Fetching notebook folder for study: " + studyId);
+    validateDepth(depth);
     Study study = getStudyFromIdentifier(studyId);
 
     Optional<NotebookFolder> notebookFolder =
         Optional.ofNullable(notebookFolderService)
-            .flatMap(service -> service.findStudyFolder(study));
+            .flatMap(service -> service.findStudyFolder(study, depth));
     return notebookFolder.orElseThrow(
         () -> new RecordNotFoundException("Could not load notebook folder"));
   }
 
+  @GetMapping("/folder/{folderId}")
+  public NotebookFolder getNotebookSubfolder(
+      @PathVariable("studyId") String studyId,
+      @PathVariable("folderId") String folderId,
+      @RequestParam(defaultValue = "1") Integer depth)
+      throws RecordNotFoundException {
+    LOGGER.info(String.format("Fetching notebook folder %s for study: %s", folderId, studyId));
+    validateDepth(depth);
+    Study study = getStudyFromIdentifier(studyId);
+
+    Optional<NotebookFolder> notebookFolder =
+        Optional.ofNullable(notebookFolderService)
+            .flatMap(service -> service.findStudySubfolder(study, folderId, depth));
+    return notebookFolder.orElseThrow(
+        () -> new RecordNotFoundException("Could not load notebook folder: " + folderId));
+  }
+
   @PostMapping("/{id}/notebook")
   public HttpEntity<?> repairNotebookFolder(@PathVariable("id") Long studyId) {
 
@@ -70,4 +92,10 @@ public class StudyNotebookPrivateController extends AbstractStudyController {
     this.getStudyService().repairElnFolder(study);
     return new ResponseEntity<>(HttpStatus.OK);
   }
+
+  private static void validateDepth(Integer depth) {
+    if (depth != null && depth < 0) {
+      throw new InvalidRequestException("Folder depth must not be negative: " + depth);
+    }
+  }
 }
@@ -19,6 +19,7 @@ package io.studytracker.controller.api.internal;
 import io.studytracker.controller.api.AbstractStudyController;
 import io.studytracker.events.util.StudyActivityUtils;
 import io.studytracker.exception.FileStorageException;
+import io.studytracker.exception.SpoolQuotaExceededException;
 import io.studytracker.model.Activity;
 import io.studytracker.model.FileStorageLocation;
 import io.studytracker.model.Study;
@@ -73,19 +74,25 @@ public class StudyStoragePrivateController extends AbstractStudyController {
     try {
       path = fileStorageService.store(file);
       LOGGER.info(path.toString());
+    } catch (SpoolQuotaExceededException e) {
+      throw e;
     } catch (FileStorageException e) {
       e.printStackTrace();
       return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
     }
-    FileStorageLocation location = storageLocationService.findByFileStoreFolder(study.getPrimaryStorageFolder());
-    StudyStorageService studyStorageService = storageLocationService.lookupStudyStorageService(location);
-    StorageFile storageFile = studyStorageService.saveFile(location, path.toFile(), study);
+    StorageFile storageFile;
+    try {
+      FileStorageLocation location = storageLocationService.findByFileStoreFolder(study.getPrimaryStorageFolder());
+      StudyStorageService studyStorageService = storageLocationService.lookupStudyStorageService(location);
+      storageFile = studyStorageService.saveFile(location, path.toFile(), study);
+    } finally {
+      fileStorageService.delete(path);
+    }
 
     // Publish events
     Activity activity =
         StudyActivityUtils.fromFileUpload(study, this.getAuthenticatedUser(), storageFile);
     getActivityService().create(activity);
-    getEventsService().dispatchEvent(activity);
 
     return new ResponseEntity<>(storageFile, HttpStatus.CREATED);
   }
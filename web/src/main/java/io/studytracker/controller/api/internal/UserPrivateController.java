@@ -25,9 +25,11 @@ import io.studytracker.mapstruct.dto.response.ActivityDetailsDto;
 import io.studytracker.mapstruct.dto.response.UserDetailsDto;
 import io.studytracker.mapstruct.dto.response.UserSummaryDto;
 import io.studytracker.mapstruct.mapper.ActivityMapper;
+import io.studytracker.model.Activity;
 import io.studytracker.model.PasswordResetToken;
 import io.studytracker.model.User;
 import io.studytracker.model.UserType;
+import io.studytracker.service.ActivityCursor;
 import io.studytracker.service.ActivityService;
 import java.util.List;
 import java.util.Map;
@@ -145,13 +147,20 @@ public class UserPrivateController extends AbstractUserController {
   }
 
   @GetMapping("/{id}/activity")
-  public List<ActivityDetailsDto> getUserActivity(@PathVariable("id") Long userId) {
+  public ResponseEntity<List<ActivityDetailsDto>> getUserActivity(
+      @PathVariable("id") Long userId,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "limit", defaultValue = "" + ActivityService.DEFAULT_FEED_SIZE)
+          int limit) {
     Optional<User> optional = this.getUserService().findById(userId);
     if (!optional.isPresent()) {
       throw new RecordNotFoundException("User not found: " + userId);
     }
     User user = optional.get();
-    return activityMapper.toActivityDetailsList(activityService.findByUser(user));
+    List<Activity> activities =
+        activityService.findByUser(user, ActivityCursor.parse(cursor), limit);
+    return this.activityFeedResponse(
+        activities, limit, activityMapper.toActivityDetailsList(activities));
   }
 
   @PostMapping("")
@@ -19,6 +19,7 @@ package io.studytracker.controller.api.v1;
 import io.studytracker.controller.api.AbstractApiController;
 import io.studytracker.exception.FileStorageException;
 import io.studytracker.exception.RecordNotFoundException;
+import io.studytracker.exception.SpoolQuotaExceededException;
 import io.studytracker.mapstruct.dto.api.FileStoreFolderDto;
 import io.studytracker.mapstruct.mapper.FileStoreFolderMapper;
 import io.studytracker.model.FileStorageLocation;
@@ -81,7 +82,8 @@ public class StorageFolderPublicController extends AbstractApiController {
   }
 
   @PostMapping("/{id}/upload")
-  public HttpEntity<?> uploadFile(@PathVariable Long id, @RequestParam("file") MultipartFile file) {
+  public HttpEntity<?> uploadFile(@PathVariable Long id, @RequestParam("file") MultipartFile file)
+      throws SpoolQuotaExceededException {
     LOGGER.info("Uploading file: " + file.getOriginalFilename());
     FileStoreFolder folder =
         fileStoreFolderRepository
@@ -95,6 +97,8 @@ public class StorageFolderPublicController extends AbstractApiController {
     try {
       path = fileStorageService.store(file);
       LOGGER.info(path.toString());
+    } catch (SpoolQuotaExceededException e) {
+      throw e;
     } catch (FileStorageException e) {
       e.printStackTrace();
       return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -108,6 +112,8 @@ public class StorageFolderPublicController extends AbstractApiController {
       return new ResponseEntity<>(HttpStatus.OK);
     } catch (StudyStorageException e) {
       return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+    } finally {
+      fileStorageService.delete(path);
     }
   }
 
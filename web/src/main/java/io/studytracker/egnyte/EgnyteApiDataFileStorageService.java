@@ -22,13 +22,12 @@ import io.studytracker.egnyte.entity.EgnyteObject;
 import io.studytracker.egnyte.exception.EgnyteException;
 import io.studytracker.egnyte.exception.ObjectNotFoundException;
 import io.studytracker.egnyte.integration.EgnyteIntegrationOptions;
-import io.studytracker.egnyte.integration.EgnyteIntegrationOptionsFactory;
 import io.studytracker.egnyte.rest.EgnyteRestApiClient;
+import io.studytracker.exception.FileStorageException;
 import io.studytracker.exception.InsufficientPrivilegesException;
-import io.studytracker.exception.RecordNotFoundException;
+import io.studytracker.integration.IntegrationOptionsCache;
 import io.studytracker.model.FileStorageLocation;
-import io.studytracker.model.IntegrationInstance;
-import io.studytracker.repository.IntegrationInstanceRepository;
+import io.studytracker.service.FileSystemStorageService;
 import io.studytracker.storage.DataFileStorageService;
 import io.studytracker.storage.StorageFile;
 import io.studytracker.storage.StorageFolder;
@@ -36,7 +35,10 @@ import io.studytracker.storage.StoragePermissions;
 import io.studytracker.storage.StorageUtils;
 import io.studytracker.storage.exception.StudyStorageException;
 import io.studytracker.storage.exception.StudyStorageNotFoundException;
+import io.studytracker.storage.exception.StudyStorageWriteException;
 import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Path;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -50,14 +52,13 @@ public class EgnyteApiDataFileStorageService implements DataFileStorageService {
   private EgnyteRestApiClient client;
 
   @Autowired
-  private IntegrationInstanceRepository integrationInstanceRepository;
+  private IntegrationOptionsCache integrationOptionsCache;
+
+  @Autowired
+  private FileSystemStorageService fileSystemStorageService;
 
   private EgnyteIntegrationOptions getOptionsFromLocation(FileStorageLocation location) {
-    IntegrationInstance instance = integrationInstanceRepository
-        .findById(location.getIntegrationInstance().getId())
-        .orElseThrow(() -> new RecordNotFoundException("Integration instance not found: "
-            + location.getIntegrationInstance().getId()));
-    return EgnyteIntegrationOptionsFactory.create(instance);
+    return integrationOptionsCache.getEgnyteOptions(location);
   }
 
   @Override
@@ -141,6 +142,26 @@ public class EgnyteApiDataFileStorageService implements DataFileStorageService {
     }
   }
 
+  /**
+   * Egnyte uploads are made from a local file, so the stream is written to the application file
+   *   store first, and removed once it has been uploaded.
+   */
+  @Override
+  public StorageFile saveFile(FileStorageLocation location, String path, String fileName,
+      InputStream inputStream) throws StudyStorageException {
+    Path localPath;
+    try {
+      localPath = fileSystemStorageService.store(fileName, inputStream);
+    } catch (FileStorageException e) {
+      throw new StudyStorageWriteException("Failed to store file for upload: " + fileName, e);
+    }
+    try {
+      return this.saveFile(location, path, localPath.toFile());
+    } finally {
+      fileSystemStorageService.delete(localPath);
+    }
+  }
+
   @Override
   public Resource fetchFile(FileStorageLocation location, String path)
       throws StudyStorageException {
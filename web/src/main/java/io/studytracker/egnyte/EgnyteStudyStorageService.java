@@ -22,15 +22,12 @@ import io.studytracker.egnyte.entity.EgnyteObject;
 import io.studytracker.egnyte.exception.DuplicateFolderException;
 import io.studytracker.egnyte.exception.EgnyteException;
 import io.studytracker.egnyte.integration.EgnyteIntegrationOptions;
-import io.studytracker.egnyte.integration.EgnyteIntegrationOptionsFactory;
-import io.studytracker.exception.RecordNotFoundException;
 import io.studytracker.exception.StudyTrackerException;
+import io.studytracker.integration.IntegrationOptionsCache;
 import io.studytracker.model.Assay;
 import io.studytracker.model.FileStorageLocation;
-import io.studytracker.model.IntegrationInstance;
 import io.studytracker.model.Program;
 import io.studytracker.model.Study;
-import io.studytracker.repository.IntegrationInstanceRepository;
 import io.studytracker.storage.StorageFile;
 import io.studytracker.storage.StorageFolder;
 import io.studytracker.storage.StudyStorageService;
@@ -54,14 +51,10 @@ public class EgnyteStudyStorageService implements StudyStorageService {
   private EgnyteFolderNamingService egnyteFolderNamingService;
 
   @Autowired
-  private IntegrationInstanceRepository integrationInstanceRepository;
+  private IntegrationOptionsCache integrationOptionsCache;
 
   private EgnyteIntegrationOptions getOptionsFromLocation(FileStorageLocation location) {
-    IntegrationInstance instance = integrationInstanceRepository
-        .findById(location.getIntegrationInstance().getId())
-        .orElseThrow(() -> new RecordNotFoundException("Integration instance not found: "
-            + location.getIntegrationInstance().getId()));
-    return EgnyteIntegrationOptionsFactory.create(instance);
+    return integrationOptionsCache.getEgnyteOptions(location);
   }
 
   public String getProgramFolderPath(Program program, String rootPath) {
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.egnyte.rest;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thread-safe token bucket that limits the rate of requests made to the Egnyte API. Tokens are
+ *   refilled at {@code qps} per second, up to a maximum of {@code burst} tokens. When Egnyte
+ *   responds that a request was throttled, all callers are paused for the duration given by the
+ *   {@code Retry-After} header, or an exponentially increasing delay if it is absent.
+ */
+public class EgnyteRateLimiter implements MeterBinder {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EgnyteRateLimiter.class);
+
+  private static final long INITIAL_BACKOFF_MILLIS = 1000L;
+
+  private static final long MAX_BACKOFF_MILLIS = 60000L;
+
+  private final double permitsPerNano;
+
+  private final double burst;
+
+  private final int maxRetries;
+
+  private double tokens;
+
+  private long lastRefillNanos;
+
+  private long pausedUntilNanos = 0L;
+
+  private final LongAdder requests = new LongAdder();
+
+  private final LongAdder waitNanos = new LongAdder();
+
+  private final LongAdder throttled = new LongAdder();
+
+  private final LongAdder retries = new LongAdder();
+
+  public EgnyteRateLimiter(double qps, int burst, int maxRetries) {
+    if (qps <= 0) {
+      throw new IllegalArgumentException("qps must be greater than zero");
+    }
+    if (burst < 1) {
+      throw new IllegalArgumentException("burst must be at least one");
+    }
+    this.permitsPerNano = qps / TimeUnit.SECONDS.toNanos(1);
+    this.burst = burst;
+    this.maxRetries = maxRetries;
+    this.tokens = burst;
+    this.lastRefillNanos = System.nanoTime();
+  }
+
+  /**
+   * Blocks until a request may be made.
+   */
+  public void acquire() {
+    long wait = reserve();
+    requests.increment();
+    if (wait > 0) {
+      waitNanos.add(wait);
+      try {
+        TimeUnit.NANOSECONDS.sleep(wait);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Takes a token from the bucket, going into debt if none are available, and returns the
+   *   number of nanoseconds the caller must wait before using it.
+   */
+  private synchronized long reserve() {
+    long now = System.nanoTime();
+    tokens = Math.min(burst, tokens + (now - lastRefillNanos) * permitsPerNano);
+    lastRefillNanos = now;
+    tokens = tokens - 1;
+    long wait = tokens >= 0 ? 0L : (long) Math.ceil(-tokens / permitsPerNano);
+    return Math.max(wait, pausedUntilNanos - now);
+  }
+
+  /**
+   * Returns true if the response status indicates that the request was throttled and may be
+   *   retried.
+   *
+   * @param status the response status
+   * @return true if the request was throttled
+   */
+  public boolean isThrottled(HttpStatus status) {
+    return status == HttpStatus.TOO_MANY_REQUESTS || status == HttpStatus.SERVICE_UNAVAILABLE;
+  }
+
+  /**
+   * Records a throttled response and pauses all requests for the amount of time requested by the
+   *   server, if any, or an exponentially increasing delay otherwise.
+   *
+   * @param attempt the number of times the request has already been retried
+   * @param headers the response headers
+   * @return true if the request should be retried, false if the retry limit has been reached
+   */
+  public boolean backoff(int attempt, HttpHeaders headers) {
+    throttled.increment();
+    if (attempt >= maxRetries) {
+      return false;
+    }
+    long delayMillis = parseRetryAfter(headers);
+    if (delayMillis < 0) {
+      long exponential = INITIAL_BACKOFF_MILLIS * (1L << Math.min(attempt, 16));
+      delayMillis = Math.min(MAX_BACKOFF_MILLIS, exponential)
+          + ThreadLocalRandom.current().nextLong(INITIAL_BACKOFF_MILLIS);
+    }
+    LOGGER.warn("Egnyte API request was throttled. Retrying in {} ms (attempt {} of {})",
+        delayMillis, attempt + 1, maxRetries);
+    synchronized (this) {
+      pausedUntilNanos = Math.max(pausedUntilNanos,
+          System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+    }
+    retries.increment();
+    return true;
+  }
+
+  /**
+   * Reads the {@code Retry-After} header, which may be given either in seconds or as an HTTP date.
+   *   Delays longer than one minute are capped.
+   *
+   * @param headers the response headers
+   * @return the requested delay in milliseconds, or -1 if no valid value is present
+   */
+  public static long parseRetryAfter(HttpHeaders headers) {
+    String value = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+    if (value == null || value.isBlank()) {
+      return -1L;
+    }
+    try {
+      return Math.min(MAX_BACKOFF_MILLIS, TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim())));
+    } catch (NumberFormatException e) {
+      try {
+        ZonedDateTime date = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+        long millis = Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis();
+        return Math.min(MAX_BACKOFF_MILLIS, Math.max(0L, millis));
+      } catch (DateTimeParseException ex) {
+        LOGGER.warn("Unable to parse Retry-After header value: {}", value);
+        return -1L;
+      }
+    }
+  }
+
+  public long getRequestCount() {
+    return requests.sum();
+  }
+
+  public long getThrottledCount() {
+    return throttled.sum();
+  }
+
+  public long getRetryCount() {
+    return retries.sum();
+  }
+
+  public double getTotalWaitSeconds() {
+    return waitNanos.sum() / (double) TimeUnit.SECONDS.toNanos(1);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("egnyte.api.requests", this, EgnyteRateLimiter::getRequestCount)
+        .description("Requests made to the Egnyte API")
+        .register(registry);
+    FunctionCounter.builder("egnyte.api.rate.limit.wait", this,
+            EgnyteRateLimiter::getTotalWaitSeconds)
+        .description("Time spent waiting for the Egnyte API rate limiter")
+        .baseUnit("seconds")
+        .register(registry);
+    FunctionCounter.builder("egnyte.api.throttled", this, EgnyteRateLimiter::getThrottledCount)
+        .description("Egnyte API requests rejected with a 429 or 503 response")
+        .register(registry);
+    FunctionCounter.builder("egnyte.api.retries", this, EgnyteRateLimiter::getRetryCount)
+        .description("Egnyte API requests retried after being throttled")
+        .register(registry);
+  }
+
+}
@@ -33,7 +33,6 @@ import java.net.URL;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.FileSystemResource;
@@ -54,15 +53,31 @@ public class EgnyteRestApiClient implements EgnyteClientOperations {
 
   private final RestTemplate restTemplate;
 
-  public EgnyteRestApiClient(RestTemplate restTemplate) {
+  private final EgnyteRateLimiter rateLimiter;
+
+  public EgnyteRestApiClient(RestTemplate restTemplate, EgnyteRateLimiter rateLimiter) {
     this.restTemplate = restTemplate;
+    this.rateLimiter = rateLimiter;
   }
 
-  private void doBefore() {
-    try {
-      TimeUnit.MILLISECONDS.sleep(500);
-    } catch (InterruptedException ex) {
-      Thread.currentThread().interrupt();
+  /**
+   * Executes a request once the rate limiter allows it, retrying requests that are throttled by
+   *   the Egnyte API.
+   */
+  private <T> ResponseEntity<T> exchange(
+      String url, HttpMethod method, HttpEntity<?> request, Class<T> responseType) {
+    int attempt = 0;
+    while (true) {
+      rateLimiter.acquire();
+      try {
+        return restTemplate.exchange(url, method, request, responseType);
+      } catch (HttpStatusCodeException e) {
+        if (!rateLimiter.isThrottled(e.getStatusCode())
+            || !rateLimiter.backoff(attempt, e.getResponseHeaders())) {
+          throw e;
+        }
+        attempt = attempt + 1;
+      }
     }
   }
 
@@ -72,7 +87,6 @@ public class EgnyteRestApiClient implements EgnyteClientOperations {
       throw new IllegalArgumentException("folderPath cannot be null");
     }
     LOGGER.info("Making request to Egnyte API to create directory: " + folderPath);
-    doBefore();
     URL url = joinUrls(rootUrl, "/pubapi/v1/fs/" + folderPath);
     HttpHeaders headers = new HttpHeaders();
     headers.set("Authorization", "Bearer " + token);
@@ -82,7 +96,7 @@ public class EgnyteRestApiClient implements EgnyteClientOperations {
     HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
     try {
       ResponseEntity<EgnyteFolder> response =
-          restTemplate.exchange(url.toString(), HttpMethod.POST, request, EgnyteFolder.class);
+          this.exchange(url.toString(), HttpMethod.POST, request, EgnyteFolder.class);
       EgnyteFolder egnyteFolder = response.getBody();
       LOGGER.debug("New Egnyte folder: " + egnyteFolder.toString());
       return egnyteFolder;
@@ -120,8 +134,6 @@ public class EgnyteRestApiClient implements EgnyteClientOperations {
     }
     LOGGER.info("Making request to Egnyte API for object at path: " + path);
 
-    doBefore();
-
     URL url = joinUrls(rootUrl, "/pubapi/v1/fs/" + path);
     LOGGER.debug("Request URL: " + url);
 
@@ -130,7 +142,7 @@ public class EgnyteRestApiClient implements EgnyteClientOperations {
     HttpEntity<MultiValueMap<String, Object>> request = new HttpEntity<>(null, headers);
     ResponseEntity<EgnyteObject> response = null;
     try {
-      response = restTemplate.exchange(url.toString(), HttpMethod.GET, request, EgnyteObject.class);
+      response = this.exchange(url.toString(), HttpMethod.GET, request, EgnyteObject.class);
     } catch (HttpStatusCodeException e) {
       if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
         throw new ObjectNotFoundException("Requested resource was not found.");
@@ -151,14 +163,13 @@ public class EgnyteRestApiClient implements EgnyteClientOperations {
       throw new IllegalArgumentException("folderId cannot be null");
     }
     LOGGER.info("Making request to Egnyte API for folder with ID: " + folderId);
-    doBefore();
     URL url = joinUrls(rootUrl, "/pubapi/v1/fs/ids/folder/" + folderId);
     HttpHeaders headers = new HttpHeaders();
     headers.set("Authorization", "Bearer " + token);
     HttpEntity<MultiValueMap<String, Object>> request = new HttpEntity<>(null, headers);
     try {
       ResponseEntity<EgnyteFolder> response =
-          restTemplate.exchange(url.toString(), HttpMethod.GET, request, EgnyteFolder.class);
+          this.exchange(url.toString(), HttpMethod.GET, request, EgnyteFolder.class);
       LOGGER.debug("Successfully completed Egnyte API request.");
       EgnyteFolder egnyteFolder = response.getBody();
       LOGGER.debug(egnyteFolder.toString());
@@ -177,7 +188,6 @@ public class EgnyteRestApiClient implements EgnyteClientOperations {
   @Override
   public EgnyteFile findFileById(URL rootUrl, String fileId, String token) throws EgnyteException {
     LOGGER.info("Making request to Egnyte API for file with ID: " + fileId);
-    doBefore();
     URL url = joinUrls(rootUrl, "/pubapi/v1/fs/ids/file/" + fileId);
     HttpHeaders headers = new HttpHeaders();
     headers.set("Authorization", "Bearer " + token);
@@ -185,7 +195,7 @@ public class EgnyteRestApiClient implements EgnyteClientOperations {
 
     try {
       ResponseEntity<EgnyteFile> response =
-          restTemplate.exchange(url.toString(), HttpMethod.GET, request, EgnyteFile.class);
+          this.exchange(url.toString(), HttpMethod.GET, request, EgnyteFile.class);
       LOGGER.debug("Successfully completed Egnyte API request.");
       return response.getBody();
     } catch (HttpStatusCodeException e) {
@@ -205,7 +215,6 @@ public class EgnyteRestApiClient implements EgnyteClientOperations {
         String.format(
             "Making request to Egnyte API to upload file %s to directory %s",
             file.getName(), path));
-    doBefore();
     URL url =
         joinUrls(rootUrl, "/pubapi/v1/fs-content/" + path + "/" + file.getName());
     HttpHeaders headers = new HttpHeaders();
@@ -216,7 +225,7 @@ public class EgnyteRestApiClient implements EgnyteClientOperations {
     HttpEntity<MultiValueMap<String, Object>> request = new HttpEntity<>(body, headers);
     try {
       ResponseEntity<EgnyteFile> response =
-          restTemplate.exchange(url.toString(), HttpMethod.POST, request, EgnyteFile.class);
+          this.exchange(url.toString(), HttpMethod.POST, request, EgnyteFile.class);
       return response.getBody();
     } catch (HttpStatusCodeException e) {
       if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
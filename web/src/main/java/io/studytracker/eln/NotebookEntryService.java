@@ -46,6 +46,13 @@ public interface NotebookEntryService {
    */
   Optional<NotebookTemplate> findEntryTemplateById(String id);
 
+  /**
+   * Discards any cached notebook entry templates, so that they are reloaded from the ELN on the
+   * next request.
+   */
+  default void invalidateEntryTemplates() {
+  }
+
   /**
    * Creates a blank notebook entry for a study in the ELN and returns a {@link NotebookEntry}.
    *
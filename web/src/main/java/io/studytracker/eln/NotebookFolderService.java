@@ -41,6 +41,18 @@ public interface NotebookFolderService {
    */
   Optional<NotebookFolder> findStudyFolder(Study study);
 
+  /**
+   * Returns a study's {@link NotebookFolder}, if one exists, loading at most {@code depth} levels of
+   * subfolders. Implementations that cannot limit the depth return the complete folder.
+   *
+   * @param study
+   * @param depth number of subfolder levels to load, or null to load all
+   * @return
+   */
+  default Optional<NotebookFolder> findStudyFolder(Study study, Integer depth) {
+    return findStudyFolder(study);
+  }
+
   /**
    * Returns an assay's {@link NotebookFolder}, if one exists.
    *
@@ -49,6 +61,46 @@ public interface NotebookFolderService {
    */
   Optional<NotebookFolder> findAssayFolder(Assay assay);
 
+  /**
+   * Returns an assay's {@link NotebookFolder}, if one exists, loading at most {@code depth} levels
+   * of subfolders. Implementations that cannot limit the depth return the complete folder.
+   *
+   * @param assay
+   * @param depth number of subfolder levels to load, or null to load all
+   * @return
+   */
+  default Optional<NotebookFolder> findAssayFolder(Assay assay, Integer depth) {
+    return findAssayFolder(assay);
+  }
+
+  /**
+   * Returns a folder nested beneath a study's {@link NotebookFolder}, identified by its reference
+   * ID, loading at most {@code depth} levels of its own subfolders. Used to expand a folder tree
+   * one level at a time. Folders outside the study's folder are not returned.
+   *
+   * @param study
+   * @param folderId reference ID of the subfolder
+   * @param depth number of subfolder levels to load, or null to load all
+   * @return
+   */
+  default Optional<NotebookFolder> findStudySubfolder(Study study, String folderId, Integer depth) {
+    return Optional.empty();
+  }
+
+  /**
+   * Returns a folder nested beneath an assay's {@link NotebookFolder}, identified by its reference
+   * ID, loading at most {@code depth} levels of its own subfolders. Used to expand a folder tree
+   * one level at a time. Folders outside the assay's folder are not returned.
+   *
+   * @param assay
+   * @param folderId reference ID of the subfolder
+   * @param depth number of subfolder levels to load, or null to load all
+   * @return
+   */
+  default Optional<NotebookFolder> findAssaySubfolder(Assay assay, String folderId, Integer depth) {
+    return Optional.empty();
+  }
+
   /**
    * Creates a folder for a program in the ELN and returns a {@link NotebookFolder}.
    *
@@ -17,7 +17,10 @@
 package io.studytracker.eln;
 
 import io.studytracker.model.User;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface NotebookUserService {
@@ -36,4 +39,19 @@ public interface NotebookUserService {
    * @return
    */
   Optional<NotebookUser> findNotebookUser(User user);
+
+  /**
+   * Attempts to find each of the provided Study Tracker users in the ELN. Users that cannot be
+   * found are omitted from the result.
+   *
+   * @param users
+   * @return ELN users, keyed by Study Tracker user email
+   */
+  default Map<String, NotebookUser> findNotebookUsers(Collection<User> users) {
+    Map<String, NotebookUser> notebookUsers = new LinkedHashMap<>();
+    for (User user : users) {
+      findNotebookUser(user).ifPresent(u -> notebookUsers.put(user.getEmail(), u));
+    }
+    return notebookUsers;
+  }
 }
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.events;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.studytracker.model.Activity;
+import io.studytracker.model.EventOutboxEntry;
+import io.studytracker.repository.ActivityRepository;
+import io.studytracker.repository.EventOutboxRepository;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Drains the event outbox, dispatching queued {@link Activity} records to the configured {@link
+ *   EventsService}. Each batch is claimed in its own transaction, which pushes back the next attempt
+ *   time of its entries so that no other relay picks them up while they are in flight. The events
+ *   are then dispatched, waiting for the events service to report the outcome of each one, and
+ *   only the entries that were delivered are removed. Entries that failed are retried with
+ *   exponential backoff, so delivery is at-least-once, until they have failed {@code maxAttempts}
+ *   times, after which they are parked in the outbox with their last error. Entries claimed by a
+ *   relay that stopped before completing the batch become due again once the claim expires.
+ */
+public class EventOutboxRelay implements MeterBinder {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventOutboxRelay.class);
+
+  private static final long INITIAL_BACKOFF = 1000L;
+
+  private static final long MAX_BACKOFF = 600000L;
+
+  /** How long a claimed batch is hidden from other relays before it becomes due again. */
+  private static final long CLAIM_TIMEOUT = 300000L;
+
+  private static final int MAX_ERROR_LENGTH = 1024;
+
+  @Autowired private EventOutboxRepository eventOutboxRepository;
+
+  @Autowired private ActivityRepository activityRepository;
+
+  @Autowired private EventsService eventsService;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final int batchSize;
+
+  private final int maxAttempts;
+
+  private final LongAdder dispatched = new LongAdder();
+
+  private final LongAdder failed = new LongAdder();
+
+  private final LongAdder parked = new LongAdder();
+
+  private Timer batchTimer;
+
+  public EventOutboxRelay(
+      PlatformTransactionManager transactionManager, int batchSize, int maxAttempts) {
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+    this.maxAttempts = maxAttempts;
+  }
+
+  /**
+   * Dispatches all outbox entries that are due, one batch at a time, until a batch comes back
+   *   less than full.
+   */
+  @Scheduled(
+      fixedDelayString = "${events.outbox.poll-interval:1000}",
+      initialDelayString = "${events.outbox.poll-interval:1000}")
+  public void relay() {
+    int count;
+    do {
+      try {
+        Timer.Sample sample = Timer.start();
+        List<EventOutboxEntry> entries = transactionTemplate.execute(status -> claimBatch());
+        count = entries.size();
+        if (count > 0) {
+          Map<Long, String> errors = dispatchBatch(entries);
+          transactionTemplate.executeWithoutResult(status -> completeBatch(entries, errors));
+          if (batchTimer != null) {
+            sample.stop(batchTimer);
+          }
+        }
+      } catch (Exception e) {
+        LOGGER.error("Failed to relay batch of outbox events", e);
+        return;
+      }
+    } while (count >= batchSize);
+  }
+
+  /**
+   * Locks the next batch of due entries and moves their next attempt time past the claim timeout,
+   *   so that they are not picked up again while they are being dispatched.
+   */
+  private List<EventOutboxEntry> claimBatch() {
+    Date now = new Date();
+    List<EventOutboxEntry> entries = eventOutboxRepository.lockReadyEntries(now, batchSize);
+    Date claimedUntil = new Date(now.getTime() + CLAIM_TIMEOUT);
+    for (EventOutboxEntry entry : entries) {
+      entry.setNextAttemptAt(claimedUntil);
+    }
+    return entries;
+  }
+
+  /**
+   * Dispatches the events for the claimed entries and returns the error for each activity that
+   *   could not be delivered. Activities are loaded and dispatched in a transaction of their own,
+   *   so that a failure while dispatching cannot roll back the outbox bookkeeping.
+   */
+  private Map<Long, String> dispatchBatch(List<EventOutboxEntry> entries) {
+    List<Long> activityIds =
+        entries.stream().map(EventOutboxEntry::getActivityId).collect(Collectors.toList());
+    try {
+      return transactionTemplate.execute(status -> {
+        List<Activity> activities = activityRepository.findByIdIn(activityIds);
+        if (activities.size() < activityIds.size()) {
+          Set<Long> found = activities.stream().map(Activity::getId).collect(Collectors.toSet());
+          for (Long activityId : activityIds) {
+            if (!found.contains(activityId)) {
+              LOGGER.warn("Discarding outbox entry, activity {} no longer exists", activityId);
+            }
+          }
+        }
+        Map<Long, String> errors = eventsService.dispatchEventsAndWait(activities);
+        dispatched.add(activities.size() - errors.size());
+        return errors;
+      });
+    } catch (Exception e) {
+      LOGGER.warn("Failed to dispatch batch of {} outbox events", entries.size(), e);
+      Map<Long, String> errors = new HashMap<>();
+      for (Long activityId : activityIds) {
+        errors.put(activityId, e.toString());
+      }
+      return errors;
+    }
+  }
+
+  /**
+   * Removes the entries that were delivered, and reschedules or parks those that failed.
+   */
+  private void completeBatch(List<EventOutboxEntry> entries, Map<Long, String> errors) {
+    List<EventOutboxEntry> completed = new ArrayList<>();
+    List<Long> failedIds = new ArrayList<>();
+    for (EventOutboxEntry entry : entries) {
+      if (errors.containsKey(entry.getActivityId())) {
+        failedIds.add(entry.getId());
+      } else {
+        completed.add(entry);
+      }
+    }
+    if (!completed.isEmpty()) {
+      eventOutboxRepository.deleteAllInBatch(completed);
+    }
+    for (EventOutboxEntry entry : eventOutboxRepository.findAllById(failedIds)) {
+      String error = errors.get(entry.getActivityId());
+      int attempts = entry.getAttempts() + 1;
+      entry.setAttempts(attempts);
+      entry.setLastError(truncate(error));
+      failed.increment();
+      if (attempts >= maxAttempts) {
+        entry.setParkedAt(new Date());
+        parked.increment();
+        LOGGER.error("Failed to dispatch event for activity {} after {} attempts, parking it: {}",
+            entry.getActivityId(), attempts, error);
+      } else {
+        long backoff = Math.min(MAX_BACKOFF, INITIAL_BACKOFF << Math.min(attempts - 1, 20));
+        entry.setNextAttemptAt(new Date(System.currentTimeMillis() + backoff));
+        LOGGER.warn("Failed to dispatch event for activity {} (attempt {}), retrying in {} ms: {}",
+            entry.getActivityId(), attempts, backoff, error);
+      }
+    }
+  }
+
+  private static String truncate(String message) {
+    return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("events.outbox.dispatched", dispatched, LongAdder::doubleValue)
+        .description("Outbox events dispatched successfully")
+        .register(registry);
+    FunctionCounter.builder("events.outbox.failures", failed, LongAdder::doubleValue)
+        .description("Outbox event dispatch attempts that failed")
+        .register(registry);
+    FunctionCounter.builder("events.outbox.parked", parked, LongAdder::doubleValue)
+        .description("Outbox events parked after reaching the maximum number of attempts")
+        .register(registry);
+    batchTimer = Timer.builder("events.outbox.batch")
+        .description("Duration of each outbox relay batch")
+        .register(registry);
+  }
+}
@@ -17,6 +17,9 @@
 package io.studytracker.events;
 
 import io.studytracker.model.Activity;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Simple service for dispatching events to external message brokers. Events are defined as {@link
@@ -27,4 +30,24 @@ public interface EventsService {
   void dispatchEvent(Activity activity);
 
   void dispatchEvent(StudyTrackerEvent event);
+
+  /**
+   * Dispatches events for the given activities and waits until each has either been delivered or
+   * has failed. Returns the error for each activity that could not be delivered, keyed by activity
+   * ID; activities without an entry in the map were delivered.
+   *
+   * @param activities the activities to dispatch
+   * @return errors for undelivered activities, keyed by activity ID
+   */
+  default Map<Long, String> dispatchEventsAndWait(List<Activity> activities) {
+    Map<Long, String> errors = new HashMap<>();
+    for (Activity activity : activities) {
+      try {
+        this.dispatchEvent(activity);
+      } catch (Exception e) {
+        errors.put(activity.getId(), e.toString());
+      }
+    }
+    return errors;
+  }
 }
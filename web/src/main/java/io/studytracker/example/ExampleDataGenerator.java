@@ -48,6 +48,7 @@ import io.studytracker.repository.AssayTaskRepository;
 import io.studytracker.repository.AssayTypeFieldRepository;
 import io.studytracker.repository.AssayTypeRepository;
 import io.studytracker.repository.AssayTypeTaskRepository;
+import io.studytracker.repository.CodeCounterRepository;
 import io.studytracker.repository.CollaboratorRepository;
 import io.studytracker.repository.CommentRepository;
 import io.studytracker.repository.ExternalLinkRepository;
@@ -137,6 +138,8 @@ public class ExampleDataGenerator {
 
   @Autowired private StudyCollectionRepository studyCollectionRepository;
 
+  @Autowired private CodeCounterRepository codeCounterRepository;
+
   @Autowired private StorageLocationService storageLocationService;
 
   public List<Program> generateExamplePrograms(List<User> users) {
@@ -815,6 +818,7 @@ public class ExampleDataGenerator {
     keywordCategoryRepository.deleteAll();
     programRepository.deleteAll();
     userRepository.deleteAll();
+    codeCounterRepository.deleteAll();
   }
 
   public void populateDatabase() {
@@ -91,12 +91,24 @@ public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
 
   @ExceptionHandler(InvalidRequestException.class)
   public final ResponseEntity<ApiError> invalidRequest(
-      DuplicateRecordException ex, WebRequest request) {
+      InvalidRequestException ex, WebRequest request) {
     ex.printStackTrace();
     ApiError apiError = new ApiError(ex.getMessage(), request.getDescription(false));
     return new ResponseEntity<>(apiError, HttpStatus.BAD_REQUEST);
   }
 
+  @ExceptionHandler(SpoolQuotaExceededException.class)
+  public final ResponseEntity<ApiError> spoolQuotaExceeded(
+      SpoolQuotaExceededException ex, WebRequest request) {
+    ApiError apiError = new ApiError(ex.getMessage(), request.getDescription(false));
+    if (ex.getRetryAfter() != null) {
+      HttpHeaders headers = new HttpHeaders();
+      headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter()));
+      return new ResponseEntity<>(apiError, headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    return new ResponseEntity<>(apiError, HttpStatus.INSUFFICIENT_STORAGE);
+  }
+
   @ExceptionHandler(FileStorageException.class)
   public final ResponseEntity<ApiError> fileStorageError(
       FileStorageException ex, WebRequest request) {
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.exception;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Thrown when some records could not be added to a search index. The IDs of the records that
+ *   failed are available, so that callers can retry just those records.
+ */
+public class SearchIndexException extends StudyTrackerException {
+
+  private final Set<Long> failedIds;
+
+  public SearchIndexException(String message, Collection<Long> failedIds) {
+    super(message);
+    this.failedIds = Collections.unmodifiableSet(new LinkedHashSet<>(failedIds));
+  }
+
+  public Set<Long> getFailedIds() {
+    return failedIds;
+  }
+}
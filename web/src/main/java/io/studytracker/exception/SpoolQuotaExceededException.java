@@ -0,0 +1,36 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.exception;
+
+/**
+ * Thrown when an upload cannot be spooled because the upload spool quota is exhausted. If the
+ *   upload may succeed once other uploads have been released, {@link #getRetryAfter()} gives the
+ *   number of seconds the client should wait before trying again; otherwise it is null.
+ */
+public class SpoolQuotaExceededException extends FileStorageException {
+
+  private final Long retryAfter;
+
+  public SpoolQuotaExceededException(String message, Long retryAfter, Throwable cause) {
+    super(message, cause);
+    this.retryAfter = retryAfter;
+  }
+
+  public Long getRetryAfter() {
+    return retryAfter;
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.integration;
+
+import io.studytracker.aws.integration.S3IntegrationOptions;
+import io.studytracker.aws.integration.S3IntegrationOptionsFactory;
+import io.studytracker.egnyte.integration.EgnyteIntegrationOptions;
+import io.studytracker.egnyte.integration.EgnyteIntegrationOptionsFactory;
+import io.studytracker.exception.RecordNotFoundException;
+import io.studytracker.model.FileStorageLocation;
+import io.studytracker.model.IntegrationInstance;
+import io.studytracker.repository.IntegrationInstanceRepository;
+import io.studytracker.storage.integration.LocalFileSystemOptions;
+import io.studytracker.storage.integration.LocalFileSystemOptionsFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the parsed integration options for each {@link IntegrationInstance}, so that storage
+ *   services do not need to reload the instance and rebuild its options on every call. Entries
+ *   must be invalidated whenever an instance's configuration changes. Every invalidation advances
+ *   a generation counter, and options are only cached if no invalidation happened while they were
+ *   being loaded, so a load that read the old configuration cannot overwrite an invalidation.
+ */
+@Component
+public class IntegrationOptionsCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(IntegrationOptionsCache.class);
+
+  @Autowired
+  private IntegrationInstanceRepository integrationInstanceRepository;
+
+  private final Map<Long, Object> options = new ConcurrentHashMap<>();
+
+  private final AtomicLong generation = new AtomicLong();
+
+  public LocalFileSystemOptions getLocalFileSystemOptions(FileStorageLocation location) {
+    return getOptions(location, LocalFileSystemOptions.class, LocalFileSystemOptionsFactory::create);
+  }
+
+  public EgnyteIntegrationOptions getEgnyteOptions(FileStorageLocation location) {
+    return getOptions(location, EgnyteIntegrationOptions.class,
+        EgnyteIntegrationOptionsFactory::create);
+  }
+
+  public S3IntegrationOptions getS3Options(FileStorageLocation location) {
+    return getOptions(location, S3IntegrationOptions.class, S3IntegrationOptionsFactory::create);
+  }
+
+  /**
+   * Removes the cached options for the given integration instance.
+   *
+   * @param instanceId PKID of the integration instance
+   */
+  public synchronized void invalidate(Long instanceId) {
+    if (instanceId == null) {
+      invalidateAll();
+    } else {
+      LOGGER.debug("Invalidating cached options for integration instance {}", instanceId);
+      generation.incrementAndGet();
+      options.remove(instanceId);
+    }
+  }
+
+  /**
+   * Removes all cached integration options.
+   */
+  public synchronized void invalidateAll() {
+    generation.incrementAndGet();
+    options.clear();
+  }
+
+  private <T> T getOptions(FileStorageLocation location, Class<T> type,
+      Function<IntegrationInstance, T> factory) {
+    Long instanceId = location.getIntegrationInstance().getId();
+    Object cached = options.get(instanceId);
+    if (type.isInstance(cached)) {
+      return type.cast(cached);
+    }
+    long loadedGeneration = generation.get();
+    IntegrationInstance instance = integrationInstanceRepository.findById(instanceId)
+        .orElseThrow(() -> new RecordNotFoundException("Integration instance not found: "
+            + instanceId));
+    T created = factory.apply(instance);
+    putIfCurrent(instanceId, created, loadedGeneration);
+    return created;
+  }
+
+  private synchronized void putIfCurrent(Long instanceId, Object value, long loadedGeneration) {
+    if (generation.get() == loadedGeneration) {
+      options.put(instanceId, value);
+    } else {
+      LOGGER.debug("Not caching options for integration instance {}, invalidated while loading",
+          instanceId);
+    }
+  }
+}
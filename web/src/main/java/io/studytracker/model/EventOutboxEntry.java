@@ -0,0 +1,128 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.model;
+
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * An {@link Activity} waiting to be dispatched as an event. Entries are written in the same
+ *   transaction as the activity itself and removed once the event has been handed off to the
+ *   configured {@link io.studytracker.events.EventsService}. Entries that repeatedly fail to
+ *   dispatch are parked, keeping their last error, and are no longer retried.
+ */
+@Entity
+@Table(name = "event_outbox")
+public class EventOutboxEntry implements Model {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.AUTO)
+  private Long id;
+
+  @Column(name = "activity_id", nullable = false, updatable = false)
+  private Long activityId;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  @Temporal(TemporalType.TIMESTAMP)
+  private Date createdAt;
+
+  @Column(name = "next_attempt_at", nullable = false)
+  @Temporal(TemporalType.TIMESTAMP)
+  private Date nextAttemptAt;
+
+  @Column(name = "attempts", nullable = false)
+  private Integer attempts = 0;
+
+  @Column(name = "last_error", length = 1024)
+  private String lastError;
+
+  @Column(name = "parked_at")
+  @Temporal(TemporalType.TIMESTAMP)
+  private Date parkedAt;
+
+  public EventOutboxEntry() {}
+
+  public EventOutboxEntry(Activity activity) {
+    Date now = new Date();
+    this.activityId = activity.getId();
+    this.createdAt = now;
+    this.nextAttemptAt = now;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Long getActivityId() {
+    return activityId;
+  }
+
+  public void setActivityId(Long activityId) {
+    this.activityId = activityId;
+  }
+
+  public Date getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Date createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public Date getNextAttemptAt() {
+    return nextAttemptAt;
+  }
+
+  public void setNextAttemptAt(Date nextAttemptAt) {
+    this.nextAttemptAt = nextAttemptAt;
+  }
+
+  public Integer getAttempts() {
+    return attempts;
+  }
+
+  public void setAttempts(Integer attempts) {
+    this.attempts = attempts;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  public void setLastError(String lastError) {
+    this.lastError = lastError;
+  }
+
+  public Date getParkedAt() {
+    return parkedAt;
+  }
+
+  public void setParkedAt(Date parkedAt) {
+    this.parkedAt = parkedAt;
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.model;
+
+import io.studytracker.search.DocumentType;
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * Records the progress of a full search reindex for a single document type, so that an
+ *   interrupted reindex can resume from the last record indexed.
+ */
+@Entity
+@Table(name = "search_index_checkpoints")
+public class SearchIndexCheckpoint implements Model {
+
+  public enum Status {
+    IN_PROGRESS,
+    COMPLETE,
+    FAILED
+  }
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.AUTO)
+  private Long id;
+
+  @Column(name = "document_type", nullable = false, unique = true)
+  @Enumerated(EnumType.STRING)
+  private DocumentType documentType;
+
+  @Column(name = "status", nullable = false)
+  @Enumerated(EnumType.STRING)
+  private Status status;
+
+  @Column(name = "last_record_id", nullable = false)
+  private Long lastRecordId = 0L;
+
+  @Column(name = "indexed_count", nullable = false)
+  private Long indexedCount = 0L;
+
+  @Column(name = "started_at")
+  @Temporal(TemporalType.TIMESTAMP)
+  private Date startedAt;
+
+  @Column(name = "updated_at")
+  @Temporal(TemporalType.TIMESTAMP)
+  private Date updatedAt;
+
+  @Column(name = "completed_at")
+  @Temporal(TemporalType.TIMESTAMP)
+  private Date completedAt;
+
+  public SearchIndexCheckpoint() {}
+
+  public SearchIndexCheckpoint(DocumentType documentType) {
+    this.documentType = documentType;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public DocumentType getDocumentType() {
+    return documentType;
+  }
+
+  public void setDocumentType(DocumentType documentType) {
+    this.documentType = documentType;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public void setStatus(Status status) {
+    this.status = status;
+  }
+
+  public Long getLastRecordId() {
+    return lastRecordId;
+  }
+
+  public void setLastRecordId(Long lastRecordId) {
+    this.lastRecordId = lastRecordId;
+  }
+
+  public Long getIndexedCount() {
+    return indexedCount;
+  }
+
+  public void setIndexedCount(Long indexedCount) {
+    this.indexedCount = indexedCount;
+  }
+
+  public Date getStartedAt() {
+    return startedAt;
+  }
+
+  public void setStartedAt(Date startedAt) {
+    this.startedAt = startedAt;
+  }
+
+  public Date getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(Date updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+
+  public Date getCompletedAt() {
+    return completedAt;
+  }
+
+  public void setCompletedAt(Date completedAt) {
+    this.completedAt = completedAt;
+  }
+}
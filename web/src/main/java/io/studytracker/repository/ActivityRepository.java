@@ -18,6 +18,7 @@ package io.studytracker.repository;
 
 import io.studytracker.events.EventType;
 import io.studytracker.model.Activity;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -41,6 +42,9 @@ public interface ActivityRepository extends JpaRepository<Activity, Long> {
   @EntityGraph("activity-details")
   Optional<Activity> findById(Long id);
 
+  @EntityGraph("activity-details")
+  List<Activity> findByIdIn(Collection<Long> ids);
+
   @EntityGraph("activity-details")
   List<Activity> findByEventType(EventType eventType);
 
@@ -48,24 +52,48 @@ public interface ActivityRepository extends JpaRepository<Activity, Long> {
   @Query("select a from Activity a where a.study.id = ?1 ")
   List<Activity> findByStudyId(Long studyId);
 
+  @EntityGraph("activity-details")
+  @Query("select a from Activity a where a.study.id = ?1 "
+      + "and (a.date < ?2 or (a.date = ?2 and a.id < ?3)) order by a.date desc, a.id desc")
+  List<Activity> findByStudyIdBefore(Long studyId, Date date, Long id, Pageable pageable);
+
   @EntityGraph("activity-details")
   @Query("select a from Activity a where a.assay.id = ?1 ")
   List<Activity> findByAssayId(Long assayId);
 
+  @EntityGraph("activity-details")
+  @Query("select a from Activity a where a.assay.id = ?1 "
+      + "and (a.date < ?2 or (a.date = ?2 and a.id < ?3)) order by a.date desc, a.id desc")
+  List<Activity> findByAssayIdBefore(Long assayId, Date date, Long id, Pageable pageable);
+
   @EntityGraph("activity-details")
   @Query("select a from Activity a where a.program.id = ?1 ")
   List<Activity> findByProgramId(Long programId);
 
+  @EntityGraph("activity-details")
+  @Query("select a from Activity a where a.program.id = ?1 "
+      + "and (a.date < ?2 or (a.date = ?2 and a.id < ?3)) order by a.date desc, a.id desc")
+  List<Activity> findByProgramIdBefore(Long programId, Date date, Long id, Pageable pageable);
+
   @EntityGraph("activity-details")
   @Query("select a from Activity a where a.user.id = ?1 ")
   List<Activity> findByUserId(Long userId);
 
+  @EntityGraph("activity-details")
+  @Query("select a from Activity a where a.user.id = ?1 "
+      + "and (a.date < ?2 or (a.date = ?2 and a.id < ?3)) order by a.date desc, a.id desc")
+  List<Activity> findByUserIdBefore(Long userId, Date date, Long id, Pageable pageable);
+
   long countByDateAfter(Date date);
 
   long countByDateBefore(Date date);
 
   long countByDateBetween(Date startDate, Date endDate);
 
-  @Query("select a from Activity a where a.eventType = 'STUDY_STATUS_CHANGED' and a.date >= ?1")
-  List<Activity> findStatusChangeStudiesAfterDate(Date date);
+  @Query(
+      value =
+          "select count(*) from activity a where a.event_type = 'STUDY_STATUS_CHANGED' "
+              + "and (a.data ->> 'newStatus') = 'COMPLETE' and a.date >= ?1",
+      nativeQuery = true)
+  long countCompletedStudiesAfterDate(Date date);
 }
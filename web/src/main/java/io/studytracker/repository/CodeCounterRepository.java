@@ -0,0 +1,90 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.repository;
+
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Atomic counters used to allocate study, external study, and assay codes. Each counter is a row
+ * in the {@code code_counters} table, keyed by counter type and prefix, and is incremented with a
+ * single locking update so that concurrent requests never receive the same value.
+ */
+@Repository
+public class CodeCounterRepository {
+
+  public enum CounterType {
+    STUDY,
+    EXTERNAL_STUDY,
+    ASSAY
+  }
+
+  @PersistenceContext private EntityManager entityManager;
+
+  /**
+   * Increments the counter and returns its new value. Runs in its own transaction so that the row
+   * lock is released immediately, rather than held for the duration of the calling transaction. A
+   * value consumed by a transaction that later rolls back is not reused.
+   *
+   * @param type counter type
+   * @param key counter prefix
+   * @return the incremented value, or empty if the counter has not been initialized
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public Optional<Long> increment(CounterType type, String key) {
+    List<?> result =
+        entityManager
+            .createNativeQuery(
+                "update code_counters set value = value + 1 "
+                    + "where counter_type = :type and counter_key = :key returning value")
+            .setParameter("type", type.name())
+            .setParameter("key", key)
+            .getResultList();
+    return result.isEmpty()
+        ? Optional.empty()
+        : Optional.of(((Number) result.get(0)).longValue());
+  }
+
+  /**
+   * Creates the counter with the provided starting value, if it does not already exist.
+   *
+   * @param type counter type
+   * @param key counter prefix
+   * @param value current value of the counter
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void initialize(CounterType type, String key, long value) {
+    entityManager
+        .createNativeQuery(
+            "insert into code_counters (counter_type, counter_key, value) "
+                + "values (:type, :key, :value) on conflict do nothing")
+        .setParameter("type", type.name())
+        .setParameter("key", key)
+        .setParameter("value", value)
+        .executeUpdate();
+  }
+
+  @Transactional
+  public void deleteAll() {
+    entityManager.createNativeQuery("delete from code_counters").executeUpdate();
+  }
+}
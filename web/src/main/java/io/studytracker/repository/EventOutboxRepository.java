@@ -0,0 +1,38 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.repository;
+
+import io.studytracker.model.EventOutboxEntry;
+import java.util.Date;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface EventOutboxRepository extends JpaRepository<EventOutboxEntry, Long> {
+
+  /**
+   * Locks and returns up to {@code limit} entries that are due for dispatch, oldest first. Rows
+   *   already locked by another transaction are skipped, so concurrent relays never claim the same
+   *   entry. Parked entries are never returned.
+   */
+  @Query(
+      value =
+          "select * from event_outbox where parked_at is null and next_attempt_at <= ?1 "
+              + "order by id limit ?2 for update skip locked",
+      nativeQuery = true)
+  List<EventOutboxEntry> lockReadyEntries(Date now, int limit);
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.repository;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
+import javax.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Aggregate queries backing the summary statistics. Each method issues a single statement,
+ * regardless of how many programs or records exist, so the cost of building a summary does not
+ * grow with the number of programs.
+ */
+@Repository
+public class StatisticsRepository {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  /**
+   * Counts programs, studies, assays, users and activity created within the given window, along
+   * with the number of currently-active users. Either bound may be null: a null start counts
+   * everything created before the end date (exclusive), a null end counts everything created after
+   * the start date (exclusive), and when both are provided the range is inclusive.
+   *
+   * @param start lower bound, or null
+   * @param end upper bound, or null
+   * @return the counts
+   */
+  public EntityCounts countEntities(Date start, Date end) {
+    String sql =
+        "select "
+            + "(select count(*) from programs" + dateFilter("created_at", start, end) + "), "
+            + "(select count(*) from studies" + dateFilter("created_at", start, end) + "), "
+            + "(select count(*) from assays" + dateFilter("created_at", start, end) + "), "
+            + "(select count(*) from users" + dateFilter("created_at", start, end) + "), "
+            + "(select count(*) from activity" + dateFilter("date", start, end) + "), "
+            + "(select count(*) from users where active = true)";
+    Query query = entityManager.createNativeQuery(sql);
+    if (start != null) {
+      query.setParameter("start", start, TemporalType.TIMESTAMP);
+    }
+    if (end != null) {
+      query.setParameter("end", end, TemporalType.TIMESTAMP);
+    }
+    Object[] row = (Object[]) query.getSingleResult();
+    EntityCounts counts = new EntityCounts();
+    counts.setProgramCount(((Number) row[0]).longValue());
+    counts.setStudyCount(((Number) row[1]).longValue());
+    counts.setAssayCount(((Number) row[2]).longValue());
+    counts.setUserCount(((Number) row[3]).longValue());
+    counts.setActivityCount(((Number) row[4]).longValue());
+    counts.setActiveUserCount(((Number) row[5]).longValue());
+    return counts;
+  }
+
+  /**
+   * Counts the studies in each active program, keyed by program name. Programs without any
+   * matching studies are included with a count of zero.
+   *
+   * @param createdAfter if not null, only studies created after this date are counted
+   * @return study counts by program name
+   */
+  public Map<String, Long> countStudiesByActiveProgram(Date createdAfter) {
+    String jpql =
+        "select p.name, count(s.id) from Program p left join Study s on s.program = p"
+            + (createdAfter != null ? " and s.createdAt > :createdAfter" : "")
+            + " where p.active = true group by p.id, p.name";
+    TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+    if (createdAfter != null) {
+      query.setParameter("createdAfter", createdAfter, TemporalType.TIMESTAMP);
+    }
+    List<Object[]> rows = query.getResultList();
+    Map<String, Long> counts = new LinkedHashMap<>();
+    for (Object[] row : rows) {
+      counts.put((String) row[0], ((Number) row[1]).longValue());
+    }
+    return counts;
+  }
+
+  private static String dateFilter(String column, Date start, Date end) {
+    if (start != null && end != null) {
+      return " where " + column + " between :start and :end";
+    } else if (start != null) {
+      return " where " + column + " > :start";
+    } else if (end != null) {
+      return " where " + column + " < :end";
+    } else {
+      return "";
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.repository;
+
+import io.studytracker.model.Study;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+
+/**
+ * Sort order and position for keyset (seek) paging of {@link Study} records. Results are ordered
+ *   by the sort field, then by ID, so that the position of the last record of a page can be
+ *   encoded as an opaque cursor and used to fetch the following page without an offset.
+ */
+public class StudyKeyset {
+
+  public enum Field {
+    ID("id"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    CODE("code"),
+    NAME("name");
+
+    private final String property;
+
+    Field(String property) {
+      this.property = property;
+    }
+
+    public String getProperty() {
+      return property;
+    }
+
+    public static Field fromProperty(String property) {
+      for (Field field : values()) {
+        if (field.property.equalsIgnoreCase(property)) {
+          return field;
+        }
+      }
+      throw new IllegalArgumentException("Unsupported sort field: " + property);
+    }
+  }
+
+  private final Field field;
+
+  private final Direction direction;
+
+  private final Comparable<?> lastValue;
+
+  private final Long lastId;
+
+  private StudyKeyset(Field field, Direction direction, Comparable<?> lastValue, Long lastId) {
+    this.field = field;
+    this.direction = direction;
+    this.lastValue = lastValue;
+    this.lastId = lastId;
+  }
+
+  /**
+   * Creates a keyset for the given sort order, positioned after the record encoded in the cursor,
+   *   or at the start if the cursor is null.
+   *
+   * @param sort the sort field property name
+   * @param direction the sort direction
+   * @param cursor the cursor returned with the previous page, or null
+   * @return the keyset
+   * @throws IllegalArgumentException if the sort field or cursor is invalid
+   */
+  public static StudyKeyset of(String sort, Direction direction, String cursor) {
+    Field field = Field.fromProperty(sort);
+    if (cursor == null || cursor.isBlank()) {
+      return new StudyKeyset(field, direction, null, null);
+    }
+    String decoded;
+    try {
+      decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+    }
+    int separator = decoded.lastIndexOf('|');
+    if (separator < 0) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+    try {
+      Long id = Long.parseLong(decoded.substring(separator + 1));
+      String value = decoded.substring(0, separator);
+      return new StudyKeyset(field, direction, parseValue(field, value), id);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+    }
+  }
+
+  private static Comparable<?> parseValue(Field field, String value) {
+    switch (field) {
+      case CREATED_AT:
+      case UPDATED_AT:
+        return new Date(Long.parseLong(value));
+      case CODE:
+      case NAME:
+        return value;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Encodes the position of the given study, for use as the cursor of the following page.
+   *
+   * @param study the last study in a page
+   * @return the cursor
+   */
+  public String cursorAfter(Study study) {
+    String value;
+    switch (field) {
+      case CREATED_AT:
+        value = String.valueOf(study.getCreatedAt().getTime());
+        break;
+      case UPDATED_AT:
+        value = String.valueOf(study.getUpdatedAt().getTime());
+        break;
+      case CODE:
+        value = study.getCode();
+        break;
+      case NAME:
+        value = study.getName();
+        break;
+      default:
+        value = "";
+    }
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString((value + "|" + study.getId()).getBytes(StandardCharsets.UTF_8));
+  }
+
+  public Sort toSort() {
+    if (field == Field.ID) {
+      return Sort.by(direction, "id");
+    }
+    return Sort.by(direction, field.getProperty(), "id");
+  }
+
+  public boolean hasCursor() {
+    return lastId != null;
+  }
+
+  public boolean isAscending() {
+    return direction.isAscending();
+  }
+
+  public Field getField() {
+    return field;
+  }
+
+  public Direction getDirection() {
+    return direction;
+  }
+
+  public Comparable<?> getLastValue() {
+    return lastValue;
+  }
+
+  public Long getLastId() {
+    return lastId;
+  }
+}
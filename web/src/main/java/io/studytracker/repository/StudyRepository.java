@@ -18,23 +18,40 @@ package io.studytracker.repository;
 
 import io.studytracker.model.Program;
 import io.studytracker.model.Study;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 
-public interface StudyRepository extends JpaRepository<Study, Long> {
+public interface StudyRepository
+    extends JpaRepository<Study, Long>, JpaSpecificationExecutor<Study>, StudyRepositoryCustom {
 
   @Override
   @EntityGraph("study-summary")
   List<Study> findAll();
 
+  @Override
+  @EntityGraph("study-summary")
+  List<Study> findAll(Specification<Study> specification, Sort sort);
+
   @EntityGraph("study-with-attributes")
   @Query("select s from Study s")
   List<Study> findAllWithDetails();
 
+  @Query("select s.id from Study s where s.id > ?1 order by s.id")
+  List<Long> findIdsAfter(Long id, Pageable pageable);
+
+  @EntityGraph("study-with-attributes")
+  @Query("select s from Study s where s.id in ?1 order by s.id")
+  List<Study> findAllWithDetailsByIdIn(Collection<Long> ids);
+
   @Override
   @EntityGraph("study-with-attributes")
   Optional<Study> findById(Long id);
@@ -54,6 +71,9 @@ public interface StudyRepository extends JpaRepository<Study, Long> {
   @Query("select s from Study s where s.program.id = ?1 and s.legacy = false")
   List<Study> findActiveProgramStudies(Long programId);
 
+  @Query("select count(s) from Study s where s.program.code = ?1 and s.legacy = false")
+  long countActiveStudiesByProgramCode(String programCode);
+
   @Query("select s from Assay a join a.study s where a.id = ?1")
   Optional<Study> findByAssayId(Long assayId);
 
@@ -70,6 +90,9 @@ public interface StudyRepository extends JpaRepository<Study, Long> {
   @Query("select s from Study s where lower(s.externalCode) like lower(concat(?1, '%'))")
   List<Study> findByExternalCodePrefix(String prefix);
 
+  @Query("select count(s) from Study s where lower(s.externalCode) like lower(concat(?1, '%'))")
+  long countByExternalCodePrefix(String prefix);
+
   @Query(
       "select s from Study s where lower(s.name) like lower(concat('%', ?1, '%')) or lower(s.code) like lower(concat('%', ?1, '%'))")
   List<Study> findByNameOrCodeLike(String keyword);
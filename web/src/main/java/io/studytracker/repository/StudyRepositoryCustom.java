@@ -0,0 +1,39 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.repository;
+
+import io.studytracker.model.Study;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface StudyRepositoryCustom {
+
+  /**
+   * Returns up to {@code limit} studies matching the specification, in the given order, with the
+   *   {@code study-summary} entity graph loaded. Unlike the paged methods of
+   *   {@link org.springframework.data.jpa.repository.JpaSpecificationExecutor}, no count query is
+   *   run.
+   *
+   * @param specification the study filter
+   * @param sort the sort order
+   * @param limit the maximum number of studies to return
+   * @return the matching studies
+   */
+  List<Study> findSummaries(Specification<Study> specification, Sort sort, int limit);
+
+}
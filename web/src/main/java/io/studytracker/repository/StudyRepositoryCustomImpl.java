@@ -0,0 +1,51 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.repository;
+
+import io.studytracker.model.Study;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+public class StudyRepositoryCustomImpl implements StudyRepositoryCustom {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public List<Study> findSummaries(Specification<Study> specification, Sort sort, int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Study> query = cb.createQuery(Study.class);
+    Root<Study> root = query.from(Study.class);
+    query.select(root);
+    if (specification != null) {
+      query.where(specification.toPredicate(root, query, cb));
+    }
+    query.orderBy(QueryUtils.toOrders(sort, root, cb));
+    TypedQuery<Study> typedQuery = entityManager.createQuery(query);
+    typedQuery.setHint("javax.persistence.fetchgraph", entityManager.getEntityGraph("study-summary"));
+    typedQuery.setMaxResults(limit);
+    return typedQuery.getResultList();
+  }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.repository;
+
+import io.studytracker.model.Status;
+import io.studytracker.model.Study;
+import java.util.Collection;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * {@link Specification} factories for filtering {@link Study} queries in the database.
+ */
+public final class StudySpecifications {
+
+  private StudySpecifications() {}
+
+  public static Specification<Study> isActive() {
+    return (root, query, cb) -> cb.isTrue(root.get("active"));
+  }
+
+  public static Specification<Study> isLegacy() {
+    return (root, query, cb) -> cb.isTrue(root.get("legacy"));
+  }
+
+  public static Specification<Study> hasStatusIn(Collection<Status> statuses) {
+    return (root, query, cb) -> root.get("status").in(statuses);
+  }
+
+  public static Specification<Study> hasCollaborator() {
+    return (root, query, cb) -> cb.isNotNull(root.get("collaborator"));
+  }
+
+  public static Specification<Study> hasOwner(Long ownerId) {
+    return (root, query, cb) -> cb.equal(root.get("owner").get("id"), ownerId);
+  }
+
+  /**
+   * Selects the studies that come after the keyset's cursor position, in the keyset's sort order.
+   *   Returns a specification that matches everything if no cursor is set.
+   *
+   * @param keyset the keyset position and sort order
+   * @return the seek specification
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public static Specification<Study> seek(StudyKeyset keyset) {
+    return (root, query, cb) -> {
+      if (!keyset.hasCursor()) {
+        return cb.conjunction();
+      }
+      Long lastId = keyset.getLastId();
+      if (keyset.getField() == StudyKeyset.Field.ID) {
+        return keyset.isAscending()
+            ? cb.greaterThan(root.get("id"), lastId)
+            : cb.lessThan(root.get("id"), lastId);
+      }
+      Comparable lastValue = keyset.getLastValue();
+      Path<Comparable> field = root.get(keyset.getField().getProperty());
+      Predicate sameValue = cb.equal(field, lastValue);
+      if (keyset.isAscending()) {
+        return cb.or(cb.greaterThan(field, lastValue),
+            cb.and(sameValue, cb.greaterThan(root.get("id"), lastId)));
+      } else {
+        return cb.or(cb.lessThan(field, lastValue),
+            cb.and(sameValue, cb.lessThan(root.get("id"), lastId)));
+      }
+    };
+  }
+
+}
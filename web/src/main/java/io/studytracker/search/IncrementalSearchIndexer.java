@@ -0,0 +1,215 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.search;
+
+import io.studytracker.config.properties.SearchProperties;
+import io.studytracker.events.StudyTrackerApplicationEvent;
+import io.studytracker.exception.SearchIndexException;
+import io.studytracker.model.Activity;
+import io.studytracker.repository.AssayRepository;
+import io.studytracker.repository.StudyRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the search indexes up to date as records change. Studies and assays referenced by
+ *   {@link StudyTrackerApplicationEvent} activities are queued, with repeated changes to the same
+ *   record coalesced into a single entry. Records are flushed to the {@link SearchService} in
+ *   batches once they have not changed for {@code search.event-indexing-delay} milliseconds, or
+ *   once they have been waiting for ten times that long. Records that fail to index are retried
+ *   with exponential backoff, and dropped after {@link #MAX_ATTEMPTS} failures, leaving them to
+ *   the scheduled reconciliation. When only some records in a batch fail, only those records are
+ *   retried.
+ */
+public class IncrementalSearchIndexer {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(IncrementalSearchIndexer.class);
+
+  private static final int MAX_DELAY_MULTIPLIER = 10;
+
+  public static final int MAX_ATTEMPTS = 8;
+
+  private static final long MAX_RETRY_DELAY = 600000L;
+
+  @Autowired private StudyRepository studyRepository;
+
+  @Autowired private AssayRepository assayRepository;
+
+  @Autowired private SearchService searchService;
+
+  @Autowired private SearchProperties searchProperties;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final Map<Long, PendingDocument> pendingStudies = new ConcurrentHashMap<>();
+
+  private final Map<Long, PendingDocument> pendingAssays = new ConcurrentHashMap<>();
+
+  public IncrementalSearchIndexer(PlatformTransactionManager transactionManager) {
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+  }
+
+  @EventListener
+  public void onApplicationEvent(StudyTrackerApplicationEvent event) {
+    Activity activity = event.getActivity();
+    long now = System.currentTimeMillis();
+    if (activity.getStudy() != null && activity.getStudy().getId() != null) {
+      enqueue(pendingStudies, activity.getStudy().getId(), now);
+    }
+    if (activity.getAssay() != null && activity.getAssay().getId() != null) {
+      enqueue(pendingAssays, activity.getAssay().getId(), now);
+    }
+  }
+
+  /**
+   * Indexes all queued records that are ready to be flushed.
+   */
+  @Scheduled(
+      fixedDelayString = "${search.event-indexing-delay:2000}",
+      initialDelayString = "${search.event-indexing-delay:2000}")
+  public void flush() {
+    flush(System.currentTimeMillis());
+  }
+
+  /**
+   * Indexes all queued records that are ready to be flushed at the given time.
+   *
+   * @param now the current time, in epoch milliseconds
+   */
+  public void flush(long now) {
+    flush(DocumentType.STUDY, pendingStudies, now,
+        ids -> searchService.indexStudies(studyRepository.findAllWithDetailsByIdIn(ids)));
+    flush(DocumentType.ASSAY, pendingAssays, now,
+        ids -> searchService.indexAssays(assayRepository.findAllWithDetailsByIdIn(ids)));
+  }
+
+  /**
+   * Returns the number of records waiting to be indexed.
+   *
+   * @return the number of queued records
+   */
+  public int getPendingCount() {
+    return pendingStudies.size() + pendingAssays.size();
+  }
+
+  private static void enqueue(Map<Long, PendingDocument> pending, Long id, long now) {
+    pending.compute(id, (key, existing) -> {
+      if (existing == null) {
+        return new PendingDocument(now);
+      }
+      existing.lastChanged = now;
+      return existing;
+    });
+  }
+
+  private void flush(
+      DocumentType documentType,
+      Map<Long, PendingDocument> pending,
+      long now,
+      Consumer<List<Long>> indexer
+  ) {
+
+    long delay = searchProperties.getEventIndexingDelay();
+    long maxDelay = delay * MAX_DELAY_MULTIPLIER;
+    int batchSize = searchProperties.getReindexChunkSize();
+
+    List<Long> ready = new ArrayList<>();
+    Map<Long, Integer> attempts = new HashMap<>();
+    for (Map.Entry<Long, PendingDocument> entry : pending.entrySet()) {
+      PendingDocument document = entry.getValue();
+      if (now < document.retryAt) {
+        continue;
+      }
+      if (now - document.lastChanged >= delay || now - document.firstQueued >= maxDelay) {
+        // Records changed after this point are queued again by their next event
+        if (pending.remove(entry.getKey(), document)) {
+          ready.add(entry.getKey());
+          attempts.put(entry.getKey(), document.attempts);
+        }
+      }
+    }
+    if (ready.isEmpty()) {
+      return;
+    }
+
+    LOGGER.debug("Indexing {} changed {} documents", ready.size(), documentType);
+    for (int i = 0; i < ready.size(); i += batchSize) {
+      List<Long> batch = ready.subList(i, Math.min(i + batchSize, ready.size()));
+      Collection<Long> failedIds;
+      try {
+        transactionTemplate.executeWithoutResult(status -> indexer.accept(batch));
+        continue;
+      } catch (SearchIndexException e) {
+        LOGGER.error("Failed to index {} of {} {} documents: {}",
+            e.getFailedIds().size(), batch.size(), documentType, e.getFailedIds());
+        failedIds = e.getFailedIds();
+      } catch (Exception e) {
+        LOGGER.error("Failed to index {} {} documents", batch.size(), documentType, e);
+        failedIds = batch;
+      }
+      for (Long id : failedIds) {
+        Integer previous = attempts.get(id);
+        if (previous == null) {
+          continue;
+        }
+        int failures = previous + 1;
+        if (failures >= MAX_ATTEMPTS) {
+          LOGGER.warn("Giving up on indexing {} document {} after {} attempts. It will be "
+              + "indexed by the next reconciliation.", documentType, id, failures);
+        } else {
+          long retryDelay = Math.min(delay << failures, MAX_RETRY_DELAY);
+          pending.putIfAbsent(id, new PendingDocument(now, failures, now + retryDelay));
+        }
+      }
+    }
+
+  }
+
+  private static class PendingDocument {
+
+    private final long firstQueued;
+    private volatile long lastChanged;
+    private final int attempts;
+    private final long retryAt;
+
+    private PendingDocument(long time) {
+      this(time, 0, 0L);
+    }
+
+    private PendingDocument(long time, int attempts, long retryAt) {
+      this.firstQueued = time;
+      this.lastChanged = time;
+      this.attempts = attempts;
+      this.retryAt = retryAt;
+    }
+
+  }
+
+}
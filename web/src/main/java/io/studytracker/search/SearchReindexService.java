@@ -0,0 +1,254 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.search;
+
+import io.studytracker.config.properties.SearchProperties;
+import io.studytracker.exception.SearchIndexException;
+import io.studytracker.model.SearchIndexCheckpoint;
+import io.studytracker.model.SearchIndexCheckpoint.Status;
+import io.studytracker.repository.AssayRepository;
+import io.studytracker.repository.SearchIndexCheckpointRepository;
+import io.studytracker.repository.StudyRepository;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs full search index rebuilds in the background. Records are read in fixed-size chunks by
+ *   ascending ID, and each chunk is loaded, indexed and detached from the persistence context
+ *   in its own read-only transaction. Progress is checkpointed after every chunk, so a reindex
+ *   that is interrupted by an application restart picks up from the last indexed record.
+ */
+@Service
+public class SearchReindexService {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SearchReindexService.class);
+
+  @Autowired private StudyRepository studyRepository;
+
+  @Autowired private AssayRepository assayRepository;
+
+  @Autowired private SearchIndexCheckpointRepository checkpointRepository;
+
+  @Autowired private SearchProperties searchProperties;
+
+  @Autowired(required = false)
+  private SearchService searchService;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "search-reindex");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final AtomicBoolean running = new AtomicBoolean(false);
+
+  public SearchReindexService(PlatformTransactionManager transactionManager) {
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+  }
+
+  public boolean isEnabled() {
+    return searchService != null;
+  }
+
+  public boolean isRunning() {
+    return running.get();
+  }
+
+  /**
+   * Starts a reindex of all studies and assays in the background. Unless {@code restart} is set,
+   *   a reindex that did not complete previously is resumed from its last checkpoint.
+   *
+   * @param restart if true, discards any existing checkpoints and reindexes everything
+   * @return true if a new reindex was started, false if one is already running
+   */
+  public boolean startReindex(boolean restart) {
+    if (searchService == null) {
+      throw new IllegalStateException("No search service is configured.");
+    }
+    if (!running.compareAndSet(false, true)) {
+      LOGGER.info("Search reindex is already running.");
+      return false;
+    }
+    executor.execute(() -> {
+      try {
+        this.reindex(DocumentType.STUDY, restart, studyRepository::findIdsAfter,
+            ids -> searchService.indexStudies(studyRepository.findAllWithDetailsByIdIn(ids)));
+        this.reindex(DocumentType.ASSAY, restart, assayRepository::findIdsAfter,
+            ids -> searchService.indexAssays(assayRepository.findAllWithDetailsByIdIn(ids)));
+      } catch (Exception e) {
+        LOGGER.error("Search reindex failed", e);
+      } finally {
+        running.set(false);
+      }
+    });
+    return true;
+  }
+
+  /**
+   * Returns the progress of the current, or most recent, reindex for each document type.
+   *
+   * @return progress for each document type
+   */
+  public List<SearchIndexProgress> getProgress() {
+    List<SearchIndexProgress> progress = new ArrayList<>();
+    progress.add(this.getProgress(DocumentType.STUDY, studyRepository::count));
+    progress.add(this.getProgress(DocumentType.ASSAY, assayRepository::count));
+    return progress;
+  }
+
+  private SearchIndexProgress getProgress(DocumentType documentType, Supplier<Long> total) {
+    SearchIndexProgress progress = new SearchIndexProgress();
+    progress.setDocumentType(documentType);
+    progress.setTotal(total.get());
+    checkpointRepository.findByDocumentType(documentType).ifPresent(checkpoint -> {
+      progress.setStatus(checkpoint.getStatus());
+      progress.setIndexed(checkpoint.getIndexedCount());
+      progress.setLastRecordId(checkpoint.getLastRecordId());
+      progress.setStartedAt(checkpoint.getStartedAt());
+      progress.setUpdatedAt(checkpoint.getUpdatedAt());
+      progress.setCompletedAt(checkpoint.getCompletedAt());
+    });
+    return progress;
+  }
+
+  private void reindex(
+      DocumentType documentType,
+      boolean restart,
+      BiFunction<Long, Pageable, List<Long>> idFinder,
+      Consumer<List<Long>> chunkIndexer
+  ) {
+
+    SearchIndexCheckpoint checkpoint = checkpointRepository.findByDocumentType(documentType)
+        .orElseGet(() -> new SearchIndexCheckpoint(documentType));
+    if (restart || checkpoint.getStatus() == null || checkpoint.getStatus() == Status.COMPLETE) {
+      LOGGER.info("Starting search reindex of {} documents", documentType);
+      checkpoint.setLastRecordId(0L);
+      checkpoint.setIndexedCount(0L);
+      checkpoint.setStartedAt(new Date());
+      checkpoint.setCompletedAt(null);
+    } else {
+      LOGGER.info("Resuming search reindex of {} documents after record {} ({} already indexed)",
+          documentType, checkpoint.getLastRecordId(), checkpoint.getIndexedCount());
+    }
+    checkpoint.setStatus(Status.IN_PROGRESS);
+    checkpoint.setUpdatedAt(new Date());
+    checkpoint = checkpointRepository.save(checkpoint);
+
+    Pageable chunk = PageRequest.of(0, searchProperties.getReindexChunkSize());
+
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+
+        List<Long> ids = idFinder.apply(checkpoint.getLastRecordId(), chunk);
+        if (ids.isEmpty()) {
+          break;
+        }
+
+        int failed = transactionTemplate.execute(
+            status -> this.indexChunk(documentType, ids, chunkIndexer));
+
+        checkpoint.setLastRecordId(ids.get(ids.size() - 1));
+        checkpoint.setIndexedCount(checkpoint.getIndexedCount() + ids.size() - failed);
+        checkpoint.setUpdatedAt(new Date());
+        checkpoint = checkpointRepository.save(checkpoint);
+        LOGGER.debug("Indexed {} {} documents, up to record {}",
+            checkpoint.getIndexedCount(), documentType, checkpoint.getLastRecordId());
+
+      }
+    } catch (RuntimeException e) {
+      checkpoint.setStatus(Status.FAILED);
+      checkpoint.setUpdatedAt(new Date());
+      checkpointRepository.save(checkpoint);
+      throw e;
+    }
+
+    if (Thread.currentThread().isInterrupted()) {
+      LOGGER.warn("Search reindex of {} documents was interrupted after record {}",
+          documentType, checkpoint.getLastRecordId());
+      return;
+    }
+
+    checkpoint.setStatus(Status.COMPLETE);
+    checkpoint.setCompletedAt(new Date());
+    checkpoint.setUpdatedAt(new Date());
+    checkpointRepository.save(checkpoint);
+    LOGGER.info("Search reindex of {} documents complete. Indexed {} documents.",
+        documentType, checkpoint.getIndexedCount());
+
+  }
+
+  /**
+   * Indexes a chunk of records, retrying once any records that fail. Records that still cannot be
+   *   indexed are logged and skipped, so that a single bad record does not stall the reindex.
+   *
+   * @return the number of records that could not be indexed
+   */
+  private int indexChunk(
+      DocumentType documentType,
+      List<Long> ids,
+      Consumer<List<Long>> chunkIndexer
+  ) {
+    try {
+      chunkIndexer.accept(ids);
+      return 0;
+    } catch (SearchIndexException e) {
+      List<Long> failedIds = new ArrayList<>(e.getFailedIds());
+      LOGGER.warn("Failed to index {} {} documents, retrying: {}",
+          failedIds.size(), documentType, failedIds);
+      entityManager.clear();
+      try {
+        chunkIndexer.accept(failedIds);
+        return 0;
+      } catch (SearchIndexException retryException) {
+        LOGGER.error("Skipping {} {} documents that could not be indexed: {}",
+            retryException.getFailedIds().size(), documentType, retryException.getFailedIds());
+        return retryException.getFailedIds().size();
+      }
+    } finally {
+      entityManager.clear();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+}
@@ -16,6 +16,7 @@
 
 package io.studytracker.search;
 
+import io.studytracker.exception.SearchIndexException;
 import io.studytracker.model.Assay;
 import io.studytracker.model.Study;
 import java.util.Collection;
@@ -34,9 +35,25 @@ public interface SearchService {
 
   void indexStudy(Study study);
 
+  /**
+   * Indexes the provided studies. Studies that fail to index do not prevent the others from being
+   * indexed.
+   *
+   * @param studies the studies to index
+   * @throws SearchIndexException if any of the studies could not be indexed, with the IDs of
+   *     those studies
+   */
   void indexStudies(Collection<Study> studies);
 
   void indexAssay(Assay assay);
 
+  /**
+   * Indexes the provided assays. Assays that fail to index do not prevent the others from being
+   * indexed.
+   *
+   * @param assays the assays to index
+   * @throws SearchIndexException if any of the assays could not be indexed, with the IDs of
+   *     those assays
+   */
   void indexAssays(Collection<Assay> assays);
 }
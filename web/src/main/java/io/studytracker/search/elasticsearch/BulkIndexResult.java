@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.search.elasticsearch;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Summary of a bulk indexing run, with the reason for each document that could not be indexed,
+ *   keyed by document ID.
+ */
+@Getter
+@ToString
+public class BulkIndexResult {
+
+  private final String index;
+  private int requests = 0;
+  private long indexed = 0;
+  private long bytes = 0;
+  private long elapsedMillis = 0;
+  private final Map<String, String> failures = new LinkedHashMap<>();
+
+  public BulkIndexResult(String index) {
+    this.index = index;
+  }
+
+  synchronized void addBatch(int documents, long batchBytes, Map<String, String> batchFailures) {
+    this.requests = this.requests + 1;
+    this.bytes = this.bytes + batchBytes;
+    this.indexed = this.indexed + (documents - batchFailures.size());
+    this.failures.putAll(batchFailures);
+  }
+
+  void setElapsedMillis(long elapsedMillis) {
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  public synchronized Map<String, String> getFailures() {
+    return Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+  }
+
+  /**
+   * Returns the IDs of the records whose documents could not be indexed.
+   */
+  public synchronized Set<Long> getFailedIds() {
+    Set<Long> ids = new LinkedHashSet<>();
+    for (String id : failures.keySet()) {
+      ids.add(Long.valueOf(id));
+    }
+    return ids;
+  }
+
+  public boolean hasFailures() {
+    return !failures.isEmpty();
+  }
+
+  public double getDocumentsPerSecond() {
+    return elapsedMillis > 0 ? indexed * 1000.0 / elapsedMillis : indexed;
+  }
+
+}
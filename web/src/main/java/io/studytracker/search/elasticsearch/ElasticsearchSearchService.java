@@ -16,6 +16,9 @@
 
 package io.studytracker.search.elasticsearch;
 
+import io.studytracker.config.properties.ElasticsearchProperties;
+import io.studytracker.config.properties.ElasticsearchProperties.BulkIndexingProperties;
+import io.studytracker.exception.SearchIndexException;
 import io.studytracker.mapstruct.dto.elasticsearch.ElasticsearchAssayDocument;
 import io.studytracker.mapstruct.dto.elasticsearch.ElasticsearchPowerSearchDocument;
 import io.studytracker.mapstruct.dto.elasticsearch.ElasticsearchStudyDocument;
@@ -27,21 +30,35 @@ import io.studytracker.search.DocumentType;
 import io.studytracker.search.GenericSearchHit;
 import io.studytracker.search.GenericSearchHits;
 import io.studytracker.search.SearchService;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import javax.annotation.PreDestroy;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.fetch.subphase.highlight.HighlightBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.BulkFailureException;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
 import org.springframework.data.elasticsearch.core.document.Document;
 import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
 import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
 import org.springframework.data.elasticsearch.core.query.Query;
 
@@ -62,6 +79,30 @@ public class ElasticsearchSearchService implements SearchService {
   @Autowired
   private ElasticsearchOperations elasticsearchOperations;
 
+  @Autowired
+  private ElasticsearchProperties properties;
+
+  /**
+   * Runs bulk index requests for every indexing run. The number of requests in flight for a
+   *   single run is bounded by {@code elasticsearch.bulk.concurrency}, so the pool only creates
+   *   threads as they are needed, and releases them once they have been idle for a minute.
+   */
+  private final ExecutorService bulkExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "elasticsearch-bulk-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
+  @PreDestroy
+  public void shutdown() {
+    bulkExecutor.shutdownNow();
+  }
+
   private GenericSearchHits<ElasticsearchPowerSearchDocument> searchAllIndexes(Query query) {
 
     LOGGER.debug("Searching all indexes for query: {}", query);
@@ -178,9 +219,20 @@ public class ElasticsearchSearchService implements SearchService {
 
   @Override
   public void indexStudies(Collection<Study> studies) {
-    studies.forEach(this::indexStudy);
+    throwIfFailed(this.bulkIndexStudies(studies));
   }
 
+  /**
+   * Indexes the provided studies using batched bulk requests, rather than one request per
+   *   document.
+   *
+   * @param studies the studies to index
+   * @return summary of the indexing run
+   */
+  public BulkIndexResult bulkIndexStudies(Collection<Study> studies) {
+    return bulkIndex(studies, documentMapper::fromStudy, ElasticsearchStudyDocument::getId,
+        ElasticsearchStudyDocument.class);
+  }
 
   @Override
   public void indexAssay(Assay assay) {
@@ -190,7 +242,164 @@ public class ElasticsearchSearchService implements SearchService {
 
   @Override
   public void indexAssays(Collection<Assay> assays) {
-    assays.forEach(this::indexAssay);
+    throwIfFailed(this.bulkIndexAssays(assays));
+  }
+
+  private static void throwIfFailed(BulkIndexResult result) {
+    if (result.hasFailures()) {
+      throw new SearchIndexException("Failed to index " + result.getFailures().size()
+          + " documents into index " + result.getIndex(), result.getFailedIds());
+    }
+  }
+
+  /**
+   * Indexes the provided assays using batched bulk requests, rather than one request per
+   *   document.
+   *
+   * @param assays the assays to index
+   * @return summary of the indexing run
+   */
+  public BulkIndexResult bulkIndexAssays(Collection<Assay> assays) {
+    return bulkIndex(assays, documentMapper::fromAssay, ElasticsearchAssayDocument::getId,
+        ElasticsearchAssayDocument.class);
+  }
+
+  /**
+   * Maps the provided records to index documents and sends them to Elasticsearch in bulk
+   *   requests that are bounded by both document count and payload size. Up to
+   *   {@code elasticsearch.bulk.concurrency} requests are in flight at any one time. Documents
+   *   are mapped on the calling thread, so lazy-loaded entity associations remain accessible.
+   *
+   * @param records the records to index
+   * @param mapper maps a record to its index document
+   * @param idFunction returns the ID of an index document
+   * @param documentClass the index document type
+   * @return summary of the indexing run
+   */
+  private <S, D> BulkIndexResult bulkIndex(Collection<S> records, Function<S, D> mapper,
+      Function<D, Long> idFunction, Class<D> documentClass) {
+
+    IndexCoordinates index = elasticsearchOperations.getIndexCoordinatesFor(documentClass);
+    BulkIndexResult result = new BulkIndexResult(index.getIndexName());
+    if (records == null || records.isEmpty()) {
+      return result;
+    }
+
+    BulkIndexingProperties bulk = properties.getBulk();
+    int maxDocuments = bulk.getMaxDocuments();
+    long maxBytes = bulk.getMaxBytes();
+    int concurrency = bulk.getConcurrency();
+    ElasticsearchConverter converter = elasticsearchOperations.getElasticsearchConverter();
+
+    LOGGER.info("Bulk indexing {} documents into index {} (max documents per request: {}, "
+        + "max bytes per request: {}, concurrency: {})",
+        records.size(), index.getIndexName(), maxDocuments, maxBytes, concurrency);
+
+    long start = System.currentTimeMillis();
+    Semaphore permits = new Semaphore(concurrency);
+
+    try {
+
+      List<IndexQuery> batch = new ArrayList<>();
+      long batchBytes = 0;
+
+      for (S record : records) {
+
+        D document = mapper.apply(record);
+        String id = String.valueOf(idFunction.apply(document));
+        String json = converter.mapObject(document).toJson();
+        long documentBytes = json.getBytes(StandardCharsets.UTF_8).length;
+
+        // Flush the current batch if this document would push it over the size limit
+        if (!batch.isEmpty() && batchBytes + documentBytes > maxBytes) {
+          submitBatch(permits, batch, batchBytes, index, result);
+          batch = new ArrayList<>();
+          batchBytes = 0;
+        }
+
+        batch.add(new IndexQueryBuilder().withId(id).withSource(json).build());
+        batchBytes = batchBytes + documentBytes;
+
+        if (batch.size() >= maxDocuments) {
+          submitBatch(permits, batch, batchBytes, index, result);
+          batch = new ArrayList<>();
+          batchBytes = 0;
+        }
+
+      }
+
+      if (!batch.isEmpty()) {
+        submitBatch(permits, batch, batchBytes, index, result);
+      }
+
+      // Wait for all in-flight requests to complete
+      permits.acquire(concurrency);
+      permits.release(concurrency);
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Bulk indexing was interrupted", e);
+    }
+
+    elasticsearchOperations.indexOps(index).refresh();
+    result.setElapsedMillis(System.currentTimeMillis() - start);
+
+    LOGGER.info("Bulk indexed {} of {} documents into index {} in {} requests ({} bytes) "
+            + "in {} ms ({} docs/sec)",
+        result.getIndexed(), records.size(), index.getIndexName(), result.getRequests(),
+        result.getBytes(), result.getElapsedMillis(),
+        String.format("%.1f", result.getDocumentsPerSecond()));
+    if (result.hasFailures()) {
+      LOGGER.warn("Failed to index {} documents into index {}: {}",
+          result.getFailures().size(), index.getIndexName(), result.getFailures());
+    }
+
+    return result;
+
+  }
+
+  /**
+   * Submits a single bulk request for execution, blocking until a request slot is available.
+   */
+  private void submitBatch(Semaphore permits, List<IndexQuery> batch,
+      long batchBytes, IndexCoordinates index, BulkIndexResult result)
+      throws InterruptedException {
+    permits.acquire();
+    try {
+      bulkExecutor.execute(() -> {
+        try {
+          result.addBatch(batch.size(), batchBytes, executeBatch(batch, index));
+        } finally {
+          permits.release();
+        }
+      });
+    } catch (RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Executes a bulk index request and returns the failure reason for each document that could
+   *   not be indexed, keyed by document ID.
+   */
+  private Map<String, String> executeBatch(List<IndexQuery> batch, IndexCoordinates index) {
+    try {
+      elasticsearchOperations.bulkIndex(batch, index);
+      return Collections.emptyMap();
+    } catch (BulkFailureException e) {
+      LOGGER.warn("Bulk request to index {} completed with {} failed documents",
+          index.getIndexName(), e.getFailedDocuments().size());
+      return e.getFailedDocuments();
+    } catch (Exception e) {
+      LOGGER.error("Bulk request of {} documents to index {} failed",
+          batch.size(), index.getIndexName(), e);
+      Map<String, String> failures = new HashMap<>();
+      for (IndexQuery query : batch) {
+        failures.put(query.getId(), e.getMessage());
+      }
+      return failures;
+    }
   }
 
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.security;
+
+import io.studytracker.model.User;
+import java.util.function.Function;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Memoizes the authenticated {@link User} for the duration of the current web request, so that
+ * controllers and auditing resolve the user from the database at most once per request. Outside
+ * of a request, the user is loaded on every call.
+ */
+public final class AuthenticatedUserContext {
+
+  private static final String ATTRIBUTE = AuthenticatedUserContext.class.getName() + ".USER";
+
+  private AuthenticatedUserContext() {}
+
+  /**
+   * Returns the request's authenticated user, loading it if it has not yet been resolved during the
+   * current request.
+   *
+   * @param username the authenticated username
+   * @param loader loads the user record for the username
+   * @return the user, or null if the loader returns null
+   */
+  public static User getUser(String username, Function<String, User> loader) {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes != null) {
+      Object cached = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+      if (cached instanceof User && username.equals(((User) cached).getUsername())) {
+        return (User) cached;
+      }
+    }
+    User user = loader.apply(username);
+    if (attributes != null && user != null) {
+      attributes.setAttribute(ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+    }
+    return user;
+  }
+}
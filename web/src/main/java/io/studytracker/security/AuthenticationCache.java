@@ -0,0 +1,157 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.security;
+
+import io.studytracker.util.BoundedLruMap;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, in-memory cache of verified API tokens and the user details they resolve to, so that
+ * repeated requests with the same token do not each require signature verification and a
+ * database lookup. Tokens are keyed by their SHA-256 hash and are kept until the token expires.
+ * User details are kept for {@link #USER_DETAILS_TTL_MILLIS}, and are evicted immediately when
+ * the user is modified through {@link io.studytracker.service.UserService}.
+ */
+@Component
+public class AuthenticationCache {
+
+  private static final int MAX_ENTRIES = 10000;
+
+  private static final long USER_DETAILS_TTL_MILLIS = 60 * 1000L;
+
+  private final Map<String, VerifiedToken> tokens = new BoundedLruMap<>(MAX_ENTRIES);
+
+  private final Map<String, CachedUserDetails> userDetails = new BoundedLruMap<>(MAX_ENTRIES);
+
+  /**
+   * Returns the username of a previously-verified, unexpired token.
+   *
+   * @param token JWT
+   * @return username, if the token has been verified
+   */
+  public Optional<String> getVerifiedUsername(String token) {
+    String key = hash(token);
+    VerifiedToken verified;
+    synchronized (tokens) {
+      verified = tokens.get(key);
+      if (verified != null && verified.expiresAt <= System.currentTimeMillis()) {
+        tokens.remove(key);
+        verified = null;
+      }
+    }
+    return Optional.ofNullable(verified).map(v -> v.username);
+  }
+
+  /**
+   * Records that the token has been verified. Tokens without an expiration date are not cached.
+   *
+   * @param token JWT
+   * @param username username claim of the token
+   * @param expiresAt expiration date of the token
+   */
+  public void putVerifiedToken(String token, String username, Date expiresAt) {
+    if (expiresAt == null) {
+      return;
+    }
+    VerifiedToken verified = new VerifiedToken(username, expiresAt.getTime());
+    String key = hash(token);
+    synchronized (tokens) {
+      tokens.put(key, verified);
+    }
+  }
+
+  /**
+   * Returns the cached details for the user, loading them if they are absent or stale.
+   *
+   * @param username username
+   * @param loader loads the user details on a cache miss
+   * @return user details
+   */
+  public AppUserDetails getUserDetails(
+      String username, Function<String, AppUserDetails> loader) {
+    long now = System.currentTimeMillis();
+    CachedUserDetails cached;
+    synchronized (userDetails) {
+      cached = userDetails.get(username);
+    }
+    if (cached != null && cached.expiresAt > now) {
+      return cached.details;
+    }
+    AppUserDetails details = loader.apply(username);
+    synchronized (userDetails) {
+      userDetails.put(username, new CachedUserDetails(details, now + USER_DETAILS_TTL_MILLIS));
+    }
+    return details;
+  }
+
+  /**
+   * Discards the cached details of the user, so that changes to their account take effect on their
+   * next request.
+   *
+   * @param username username
+   */
+  public void evictUser(String username) {
+    if (username == null) {
+      return;
+    }
+    synchronized (userDetails) {
+      userDetails.remove(username);
+    }
+  }
+
+  private static String hash(String token) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return Base64.getEncoder()
+          .encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static class VerifiedToken {
+
+    private final String username;
+
+    private final long expiresAt;
+
+    private VerifiedToken(String username, long expiresAt) {
+      this.username = username;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  private static class CachedUserDetails {
+
+    private final AppUserDetails details;
+
+    private final long expiresAt;
+
+    private CachedUserDetails(AppUserDetails details, long expiresAt) {
+      this.details = details;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
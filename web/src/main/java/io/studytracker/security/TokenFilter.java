@@ -17,6 +17,7 @@
 package io.studytracker.security;
 
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import java.io.IOException;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -39,6 +40,9 @@ public class TokenFilter extends OncePerRequestFilter {
   @Autowired
   private TokenUtils tokenUtils;
 
+  @Autowired
+  private AuthenticationCache authenticationCache;
+
   @Override
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
       FilterChain filterChain) throws ServletException, IOException {
@@ -52,8 +56,14 @@ public class TokenFilter extends OncePerRequestFilter {
             "Invalid token in Authorization header.");
       } else {
         try {
-          String username = tokenUtils.validateToken(token);
-          AppUserDetails userDetails = userDetailsService.loadUserByUsername(username);
+          String username = authenticationCache.getVerifiedUsername(token).orElse(null);
+          if (username == null) {
+            DecodedJWT jwt = tokenUtils.verifyToken(token);
+            username = jwt.getClaim("username").asString();
+            authenticationCache.putVerifiedToken(token, username, jwt.getExpiresAt());
+          }
+          AppUserDetails userDetails = authenticationCache.getUserDetails(
+              username, userDetailsService::loadUserByUsername);
           UsernamePasswordAuthenticationToken authToken =
               new UsernamePasswordAuthenticationToken(userDetails.getUsername(),
                   userDetails.getPassword(), userDetails.getAuthorities());
@@ -23,6 +23,7 @@ import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import java.util.Calendar;
 import java.util.Date;
+import javax.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 
 public class TokenUtils {
@@ -36,6 +37,19 @@ public class TokenUtils {
   @Value("${jwt.expiration:1440}")
   private String tokenExpiration;
 
+  private Algorithm algorithm;
+
+  private JWTVerifier verifier;
+
+  @PostConstruct
+  public void init() {
+    algorithm = Algorithm.HMAC256(tokenSecret);
+    verifier = JWT.require(algorithm)
+        .withSubject(SUBJECT)
+        .withIssuer(ISSUER)
+        .build();
+  }
+
   public ApiAuthorizationToken generateToken(String username) {
     Date now = new Date();
     Calendar calendar = Calendar.getInstance();
@@ -49,7 +63,7 @@ public class TokenUtils {
         .withClaim("username", username)
         .withIssuedAt(now)
         .withExpiresAt(expiresAt)
-        .sign(Algorithm.HMAC256(tokenSecret));
+        .sign(algorithm);
     ApiAuthorizationToken authToken = new ApiAuthorizationToken();
     authToken.setToken(token);
     authToken.setCreatedAt(now.getTime());
@@ -58,12 +72,11 @@ public class TokenUtils {
   }
 
   public String validateToken(String token) throws JWTVerificationException {
-    JWTVerifier verifier = JWT.require(Algorithm.HMAC256(tokenSecret))
-        .withSubject(SUBJECT)
-        .withIssuer(ISSUER)
-        .build();
-    DecodedJWT jwt = verifier.verify(token);
-    return jwt.getClaim("username").asString();
+    return verifyToken(token).getClaim("username").asString();
+  }
+
+  public DecodedJWT verifyToken(String token) throws JWTVerificationException {
+    return verifier.verify(token);
   }
 
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.service;
+
+import io.studytracker.exception.InvalidRequestException;
+import io.studytracker.model.Activity;
+import java.util.Date;
+import org.springframework.util.StringUtils;
+
+/**
+ * Position in an activity feed, ordered newest first by date and then by ID. Feeds are read by
+ *   keyset pagination: each page contains the activities that come strictly after the cursor. The
+ *   cursor is exchanged with clients as an opaque string of the form {@code <epochMillis>_<id>}.
+ */
+public class ActivityCursor {
+
+  /** Cursor positioned before the newest possible activity, for reading the first page. */
+  public static final ActivityCursor FIRST =
+      new ActivityCursor(new Date(253402300799000L), Long.MAX_VALUE);
+
+  private final Date date;
+
+  private final Long id;
+
+  public ActivityCursor(Date date, Long id) {
+    this.date = date;
+    this.id = id;
+  }
+
+  /**
+   * Returns a cursor positioned at the given activity, so that the next page starts with the
+   *   activity that follows it.
+   *
+   * @param activity the last activity read
+   * @return the cursor
+   */
+  public static ActivityCursor after(Activity activity) {
+    return new ActivityCursor(activity.getDate(), activity.getId());
+  }
+
+  /**
+   * Parses a cursor string provided by a client. An empty value returns {@link #FIRST}.
+   *
+   * @param value the cursor string
+   * @return the cursor
+   * @throws InvalidRequestException if the value is malformed
+   */
+  public static ActivityCursor parse(String value) {
+    if (!StringUtils.hasText(value)) {
+      return FIRST;
+    }
+    String[] parts = value.split("_");
+    if (parts.length != 2) {
+      throw new InvalidRequestException("Invalid activity cursor: " + value);
+    }
+    try {
+      return new ActivityCursor(new Date(Long.parseLong(parts[0])), Long.parseLong(parts[1]));
+    } catch (NumberFormatException e) {
+      throw new InvalidRequestException("Invalid activity cursor: " + value, e);
+    }
+  }
+
+  public Date getDate() {
+    return date;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  @Override
+  public String toString() {
+    return date.getTime() + "_" + id;
+  }
+}
@@ -20,10 +20,12 @@ import io.studytracker.events.EventType;
 import io.studytracker.exception.RecordNotFoundException;
 import io.studytracker.model.Activity;
 import io.studytracker.model.Assay;
+import io.studytracker.model.EventOutboxEntry;
 import io.studytracker.model.Program;
 import io.studytracker.model.Study;
 import io.studytracker.model.User;
 import io.studytracker.repository.ActivityRepository;
+import io.studytracker.repository.EventOutboxRepository;
 import io.studytracker.repository.ProgramRepository;
 import io.studytracker.repository.StudyRepository;
 import java.util.Date;
@@ -31,6 +33,7 @@ import java.util.List;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
@@ -39,12 +42,18 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class ActivityService {
 
+  public static final int DEFAULT_FEED_SIZE = 100;
+
+  public static final int MAX_FEED_SIZE = 1000;
+
   @Autowired private ActivityRepository activityRepository;
 
   @Autowired private StudyRepository studyRepository;
 
   @Autowired private ProgramRepository programRepository;
 
+  @Autowired private EventOutboxRepository eventOutboxRepository;
+
   public List<Activity> findAll() {
     return activityRepository.findAll();
   }
@@ -65,14 +74,29 @@ public class ActivityService {
     return activityRepository.findByStudyId(study.getId());
   }
 
+  public List<Activity> findByStudy(Study study, ActivityCursor cursor, int limit) {
+    return activityRepository.findByStudyIdBefore(
+        study.getId(), cursor.getDate(), cursor.getId(), feedPage(limit));
+  }
+
   public List<Activity> findByAssay(Assay assay) {
     return activityRepository.findByAssayId(assay.getId());
   }
 
+  public List<Activity> findByAssay(Assay assay, ActivityCursor cursor, int limit) {
+    return activityRepository.findByAssayIdBefore(
+        assay.getId(), cursor.getDate(), cursor.getId(), feedPage(limit));
+  }
+
   public List<Activity> findByProgram(Program program) {
     return activityRepository.findByProgramId(program.getId());
   }
 
+  public List<Activity> findByProgram(Program program, ActivityCursor cursor, int limit) {
+    return activityRepository.findByProgramIdBefore(
+        program.getId(), cursor.getDate(), cursor.getId(), feedPage(limit));
+  }
+
   public List<Activity> findByEventType(EventType type) {
     return activityRepository.findByEventType(type);
   }
@@ -81,6 +105,18 @@ public class ActivityService {
     return activityRepository.findByUserId(user.getId());
   }
 
+  public List<Activity> findByUser(User user, ActivityCursor cursor, int limit) {
+    return activityRepository.findByUserIdBefore(
+        user.getId(), cursor.getDate(), cursor.getId(), feedPage(limit));
+  }
+
+  /**
+   * Saves a new activity record and queues it for event dispatch. The outbox entry is written in
+   *   the same transaction, so the event is dispatched if, and only if, the activity is committed.
+   *
+   * @param activity the activity to save
+   * @return the saved activity
+   */
   @Transactional
   public Activity create(Activity activity) {
     if (activity.getAssay() != null && activity.getStudy() == null) {
@@ -103,7 +139,13 @@ public class ActivityService {
                           "Could not find program: " + activity.getStudy().getId()));
       activity.setProgram(program);
     }
-    return activityRepository.save(activity);
+    Activity created = activityRepository.save(activity);
+    eventOutboxRepository.save(new EventOutboxEntry(created));
+    return created;
+  }
+
+  private static PageRequest feedPage(int limit) {
+    return PageRequest.of(0, Math.max(1, Math.min(limit, MAX_FEED_SIZE)));
   }
 
   @Transactional
@@ -138,11 +180,6 @@ public class ActivityService {
   }
 
   public long countCompletedStudiesFromDate(Date date) {
-    return activityRepository.findStatusChangeStudiesAfterDate(date).stream()
-        .filter(
-            a ->
-                a.getData().containsKey("newStatus")
-                    && a.getData().get("newStatus").equals("COMPLETE"))
-        .count();
+    return activityRepository.countCompletedStudiesAfterDate(date);
   }
 }
@@ -16,28 +16,87 @@
 
 package io.studytracker.service;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import io.studytracker.exception.FileStorageException;
+import io.studytracker.exception.SpoolQuotaExceededException;
+import io.studytracker.storage.LocalFileIngestor;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.MalformedURLException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-public final class FileSystemStorageService {
+/**
+ * Spools uploaded files to the local temp directory before they are handed off to a storage
+ *   service. Each upload is written to its own directory, so concurrent uploads of files with the
+ *   same name never collide. The total size of spooled files is capped by a quota: uploads of a
+ *   known size reserve their space before anything is written, while uploads of unknown size
+ *   reserve it as they are read. Uploads that would exceed the quota wait for space to be freed,
+ *   and fail if none becomes available in time. Callers should {@link #delete(Path)} a spooled
+ *   file once it has been handed off; files that are never released are removed by a scheduled
+ *   reaper once they exceed the maximum age.
+ */
+public final class FileSystemStorageService implements MeterBinder {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemStorageService.class);
 
+  private static final String UPLOAD_DIR_PREFIX = "st-upload-";
+
   private final Path tempDir;
 
+  private final long quota;
+
+  private final long waitTimeout;
+
+  private final long maxAge;
+
+  private final Map<Path, SpooledFile> spooledFiles = new ConcurrentHashMap<>();
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Condition spaceAvailable = lock.newCondition();
+
+  private long reservedBytes = 0L;
+
+  private final LongAdder rejected = new LongAdder();
+
+  private final LongAdder reaped = new LongAdder();
+
   public FileSystemStorageService(Path tempDir) {
+    this(tempDir, 0L, 0L, 3600000L);
+  }
+
+  /**
+   * Creates a new spool in the given directory.
+   *
+   * @param tempDir the spool directory
+   * @param quota the maximum total size of spooled files in bytes, or 0 for no limit
+   * @param waitTimeout the time in milliseconds an upload will wait for spool space to be freed
+   * @param maxAge the time in milliseconds after which unreleased spool files are removed
+   */
+  public FileSystemStorageService(Path tempDir, long quota, long waitTimeout, long maxAge) {
     this.tempDir = tempDir;
+    this.quota = quota;
+    this.waitTimeout = waitTimeout;
+    this.maxAge = maxAge;
   }
 
   /**
@@ -48,56 +107,363 @@ public final class FileSystemStorageService {
    */
   public Path store(MultipartFile file) throws FileStorageException {
     LOGGER.debug("Storing file: {}", file.getName());
-    String filename = StringUtils.cleanPath(file.getOriginalFilename());
-    LOGGER.debug("File to upload: " + filename);
-    if (!StringUtils.hasText(filename)) {
-      throw new FileStorageException("File name is empty");
-    }
     if (file.isEmpty()) {
       throw new FileStorageException("File is empty.");
     }
-    if (filename.contains("..")) {
-      throw new FileStorageException("Cannot store file with relative path.");
-    }
     try (InputStream inputStream = file.getInputStream()) {
-      Path filePath = tempDir.resolve(filename);
-      LOGGER.debug("Local file path for upload: " + filePath.toString());
-      Files.copy(inputStream, filePath, StandardCopyOption.REPLACE_EXISTING);
+      return store(file.getOriginalFilename(), inputStream, file.getSize());
     } catch (IOException e) {
       e.printStackTrace();
       throw new FileStorageException(e);
     }
-    return load(filename);
   }
 
   /**
-   * Returns reference to the requested file by name.
+   * Stores the contents of the provided stream in the application file store, using the given
+   *   file name. Returns reference to the file. The file is written to a new directory unique to
+   *   this upload, and counts against the spool quota until it is released with {@link
+   *   #delete(Path)} or removed by the reaper.
    *
-   * @param filename
-   * @return
+   * @param originalFilename the name of the file
+   * @param inputStream the file contents
+   * @return reference to the stored file
    */
-  public Path load(String filename) {
-    return tempDir.resolve(filename);
+  public Path store(String originalFilename, InputStream inputStream) throws FileStorageException {
+    return store(originalFilename, inputStream, -1L);
   }
 
   /**
-   * Returns the requested file as a {@link Resource}.
+   * Stores the contents of the provided stream in the application file store, as {@link
+   *   #store(String, InputStream)}. If the expected size of the upload is known, its full size is
+   *   reserved in the spool quota before anything is written, so concurrent uploads cannot each
+   *   hold part of the quota while waiting for the rest. Any bytes read beyond the expected size
+   *   are reserved as they are read.
    *
-   * @param filename
-   * @return
+   * @param originalFilename the name of the file
+   * @param inputStream the file contents
+   * @param expectedSize the size of the upload in bytes, or a negative value if it is not known
+   * @return reference to the stored file
    */
-  public Resource loadAsResource(String filename) throws FileStorageException {
+  public Path store(String originalFilename, InputStream inputStream, long expectedSize)
+      throws FileStorageException {
+    String filename = Paths.get(cleanFilename(originalFilename)).getFileName().toString();
+    Path uploadDir = null;
+    QuotaInputStream quotaInputStream = new QuotaInputStream(inputStream);
     try {
-      Path path = load(filename);
-      Resource resource = new UrlResource(path.toUri());
-      if (resource.exists() && resource.isFile() && resource.isReadable()) {
-        return resource;
-      } else {
-        throw new FileStorageException("File not found: " + filename);
+      if (expectedSize > 0L) {
+        quotaInputStream.reserveUpFront(expectedSize);
+      }
+      Files.createDirectories(tempDir);
+      uploadDir = Files.createTempDirectory(tempDir, UPLOAD_DIR_PREFIX);
+      Path filePath = uploadDir.resolve(filename);
+      LOGGER.debug("Local file path for upload: " + filePath.toString());
+      String digest = LocalFileIngestor.writeWithDigest(quotaInputStream, filePath, false);
+      quotaInputStream.trim();
+      spooledFiles.put(normalize(filePath),
+          new SpooledFile(quotaInputStream.getReserved(), digest));
+      return filePath;
+    } catch (IOException e) {
+      release(quotaInputStream.getReserved());
+      deleteUploadDirectory(uploadDir);
+      if (e instanceof QuotaExceededIOException) {
+        rejected.increment();
+        LOGGER.warn("Rejected upload of file {}: {}", filename, e.getMessage());
+        Long retryAfter = ((QuotaExceededIOException) e).retryable
+            ? Math.max(1L, TimeUnit.MILLISECONDS.toSeconds(waitTimeout))
+            : null;
+        throw new SpoolQuotaExceededException(e.getMessage(), retryAfter, e);
       }
-    } catch (MalformedURLException e) {
       e.printStackTrace();
       throw new FileStorageException(e);
     }
   }
+
+  /**
+   * Cleans the provided file name and checks that it is safe to use for a stored file.
+   *
+   * @param originalFilename the file name provided by the client
+   * @return the cleaned file name
+   */
+  public static String cleanFilename(String originalFilename) throws FileStorageException {
+    String filename = originalFilename != null ? StringUtils.cleanPath(originalFilename) : null;
+    LOGGER.debug("File to upload: " + filename);
+    if (!StringUtils.hasText(filename)) {
+      throw new FileStorageException("File name is empty");
+    }
+    if (filename.contains("..")) {
+      throw new FileStorageException("Cannot store file with relative path.");
+    }
+    return filename;
+  }
+
+  /**
+   * Returns true if the path refers to a file in the application file store. Such files are
+   *   temporary copies of uploads, and may be moved rather than copied into their destination.
+   *
+   * @param path the file path
+   * @return true if the file is in the application file store
+   */
+  public boolean isStoredFile(Path path) {
+    return spooledFiles.containsKey(normalize(path));
+  }
+
+  /**
+   * Returns the hex-encoded SHA-256 digest computed when the file was stored.
+   *
+   * @param path the stored file path
+   * @return the digest, or null if it is not known
+   */
+  public String getDigest(Path path) {
+    SpooledFile spooledFile = spooledFiles.get(normalize(path));
+    return spooledFile != null ? spooledFile.digest : null;
+  }
+
+  /**
+   * Releases a stored file once it has been handed off, deleting it and its upload directory if
+   *   they still exist and freeing its space in the spool quota. Paths that do not refer to a
+   *   stored file are ignored.
+   *
+   * @param path the stored file path
+   */
+  public void delete(Path path) {
+    if (path == null) {
+      return;
+    }
+    SpooledFile spooledFile = spooledFiles.remove(normalize(path));
+    if (spooledFile == null) {
+      return;
+    }
+    release(spooledFile.size);
+    deleteUploadDirectory(path.getParent());
+  }
+
+  /**
+   * Removes upload directories that have not been modified within the maximum spool file age,
+   *   such as those left behind by requests that failed before their files were released, or by a
+   *   previous run of the application.
+   */
+  @Scheduled(
+      fixedDelayString = "${storage.spool.reaper-interval:600000}",
+      initialDelayString = "${storage.spool.reaper-interval:600000}")
+  public void reap() {
+    if (!Files.isDirectory(tempDir)) {
+      return;
+    }
+    long cutoff = System.currentTimeMillis() - maxAge;
+    try (DirectoryStream<Path> stream =
+        Files.newDirectoryStream(tempDir, UPLOAD_DIR_PREFIX + "*")) {
+      for (Path uploadDir : stream) {
+        try {
+          if (!Files.isDirectory(uploadDir) || lastModified(uploadDir) >= cutoff) {
+            continue;
+          }
+          LOGGER.info("Removing expired upload directory: {}", uploadDir);
+          try (DirectoryStream<Path> files = Files.newDirectoryStream(uploadDir)) {
+            for (Path file : files) {
+              SpooledFile spooledFile = spooledFiles.remove(normalize(file));
+              if (spooledFile != null) {
+                release(spooledFile.size);
+              }
+            }
+          }
+          deleteUploadDirectory(uploadDir);
+          reaped.increment();
+        } catch (IOException e) {
+          LOGGER.warn("Failed to remove upload directory: {}", uploadDir, e);
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Failed to read upload directory: {}", tempDir, e);
+    }
+  }
+
+  /**
+   * Returns the number of bytes currently held in the spool, including uploads in progress.
+   *
+   * @return spooled bytes
+   */
+  public long getSpooledBytes() {
+    lock.lock();
+    try {
+      return reservedBytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("storage.spool.bytes", this, FileSystemStorageService::getSpooledBytes)
+        .description("Bytes held in the upload spool, including uploads in progress")
+        .baseUnit("bytes")
+        .register(registry);
+    Gauge.builder("storage.spool.files", spooledFiles, Map::size)
+        .description("Files held in the upload spool")
+        .register(registry);
+    Gauge.builder("storage.spool.quota", this, s -> s.quota)
+        .description("Maximum bytes held in the upload spool, or 0 if unlimited")
+        .baseUnit("bytes")
+        .register(registry);
+    FunctionCounter.builder("storage.spool.rejected", rejected, LongAdder::doubleValue)
+        .description("Uploads rejected because the upload spool quota was exceeded")
+        .register(registry);
+    FunctionCounter.builder("storage.spool.reaped", reaped, LongAdder::doubleValue)
+        .description("Expired upload directories removed by the spool reaper")
+        .register(registry);
+  }
+
+  private void reserve(long bytes) throws IOException {
+    if (quota <= 0) {
+      lock.lock();
+      try {
+        reservedBytes += bytes;
+      } finally {
+        lock.unlock();
+      }
+      return;
+    }
+    if (bytes > quota) {
+      throw new QuotaExceededIOException(
+          "Upload exceeds the spool quota of " + quota + " bytes", false);
+    }
+    lock.lock();
+    try {
+      long remaining = TimeUnit.MILLISECONDS.toNanos(waitTimeout);
+      while (reservedBytes + bytes > quota) {
+        if (remaining <= 0L) {
+          throw new QuotaExceededIOException(
+              "Timed out waiting for space in the upload spool", true);
+        }
+        remaining = spaceAvailable.awaitNanos(remaining);
+      }
+      reservedBytes += bytes;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted waiting for space in the upload spool");
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void release(long bytes) {
+    if (bytes <= 0L) {
+      return;
+    }
+    lock.lock();
+    try {
+      reservedBytes = Math.max(0L, reservedBytes - bytes);
+      spaceAvailable.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Returns the latest modification time of an upload directory or any file written to it. */
+  private static long lastModified(Path uploadDir) throws IOException {
+    long lastModified = Files.getLastModifiedTime(uploadDir).toMillis();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(uploadDir)) {
+      for (Path file : files) {
+        lastModified = Math.max(lastModified, Files.getLastModifiedTime(file).toMillis());
+      }
+    }
+    return lastModified;
+  }
+
+  private void deleteUploadDirectory(Path uploadDir) {
+    if (uploadDir == null
+        || !uploadDir.getFileName().toString().startsWith(UPLOAD_DIR_PREFIX)
+        || !normalize(uploadDir).startsWith(normalize(tempDir))) {
+      return;
+    }
+    try {
+      FileUtils.deleteDirectory(uploadDir.toFile());
+    } catch (IOException e) {
+      LOGGER.warn("Failed to delete upload directory: {}", uploadDir, e);
+    }
+  }
+
+  private static Path normalize(Path path) {
+    return path.toAbsolutePath().normalize();
+  }
+
+  private static final class SpooledFile {
+
+    private final long size;
+    private final String digest;
+
+    private SpooledFile(long size, String digest) {
+      this.size = size;
+      this.digest = digest;
+    }
+  }
+
+  private static final class QuotaExceededIOException extends IOException {
+
+    private final boolean retryable;
+
+    private QuotaExceededIOException(String message, boolean retryable) {
+      super(message);
+      this.retryable = retryable;
+    }
+  }
+
+  /**
+   * Tracks the spool quota held by an upload. Space may be reserved up front for uploads of known
+   *   size; any bytes read beyond the reserved amount are reserved chunk by chunk, so a large
+   *   upload of unknown size is throttled while it is written rather than rejected after the fact.
+   */
+  private final class QuotaInputStream extends FilterInputStream {
+
+    private long reserved = 0L;
+
+    private long bytesRead = 0L;
+
+    private QuotaInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) {
+        consumed(1L);
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = super.read(b, off, len);
+      if (n > 0) {
+        consumed(n);
+      }
+      return n;
+    }
+
+    private void reserveUpFront(long bytes) throws IOException {
+      reserve(bytes);
+      reserved += bytes;
+    }
+
+    private void consumed(long bytes) throws IOException {
+      bytesRead += bytes;
+      if (bytesRead > reserved) {
+        long excess = bytesRead - reserved;
+        reserve(excess);
+        reserved += excess;
+      }
+    }
+
+    /** Releases any space reserved up front that was not used by the upload. */
+    private void trim() {
+      if (reserved > bytesRead) {
+        release(reserved - bytesRead);
+        reserved = bytesRead;
+      }
+    }
+
+    private long getReserved() {
+      return reserved;
+    }
+  }
 }
@@ -16,6 +16,7 @@
 
 package io.studytracker.service;
 
+import io.studytracker.integration.IntegrationOptionsCache;
 import io.studytracker.model.IntegrationDefinition;
 import io.studytracker.model.IntegrationInstance;
 import io.studytracker.repository.IntegrationDefinitionRepository;
@@ -27,6 +28,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class IntegrationsService {
@@ -39,6 +42,9 @@ public class IntegrationsService {
   @Autowired
   private IntegrationDefinitionRepository integrationDefinitionRepository;
 
+  @Autowired
+  private IntegrationOptionsCache integrationOptionsCache;
+
   public List<IntegrationInstance> findAllInstances() {
     return integrationInstanceRepository.findAll();
   }
@@ -68,7 +74,28 @@ public class IntegrationsService {
     i.setActive(instance.isActive());
     i.setDisplayName(instance.getDisplayName());
     i.setConfigurationValues(instance.getConfigurationValues());
+    evictCachedOptions(i.getId());
     return integrationInstanceRepository.save(i);
   }
 
+  /**
+   * Evicts the instance's cached integration options once the current transaction commits, so
+   * that storage services pick up the updated configuration.
+   *
+   * @param instanceId PKID of the integration instance
+   */
+  private void evictCachedOptions(Long instanceId) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              integrationOptionsCache.invalidate(instanceId);
+            }
+          });
+    } else {
+      integrationOptionsCache.invalidate(instanceId);
+    }
+  }
+
 }
@@ -23,7 +23,11 @@ import io.studytracker.model.Collaborator;
 import io.studytracker.model.Program;
 import io.studytracker.model.Study;
 import io.studytracker.repository.AssayRepository;
+import io.studytracker.repository.CodeCounterRepository;
+import io.studytracker.repository.CodeCounterRepository.CounterType;
 import io.studytracker.repository.StudyRepository;
+import java.util.Optional;
+import java.util.function.LongSupplier;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /** Service definition for naming study folders, notebook entries, and more. */
@@ -32,15 +36,15 @@ public class NamingService {
   @Autowired
   private StudyProperties studyProperties;
 
-  @Autowired
-  private ProgramService programService;
-
   @Autowired
   private StudyRepository studyRepository;
 
   @Autowired
   private AssayRepository assayRepository;
 
+  @Autowired
+  private CodeCounterRepository codeCounterRepository;
+
   /**
    * Generates a new {@link Study} code, given that study's record.
    *
@@ -52,10 +56,13 @@ public class NamingService {
       throw new StudyTrackerException("Legacy studies do not receive new study codes.");
     }
     Program program = study.getProgram();
-    Integer count = studyProperties.getStudyCodeCounterStart();
-    for (Program p : programService.findByCode(program.getCode())) {
-      count = count + (studyRepository.findActiveProgramStudies(p.getId())).size();
-    }
+    long count =
+        studyProperties.getStudyCodeCounterStart()
+            + nextCounterValue(
+                CounterType.STUDY,
+                program.getCode(),
+                () -> studyRepository.countActiveStudiesByProgramCode(program.getCode()))
+            - 1;
     return program.getCode()
         + "-"
         + String.format("%0" + studyProperties.getStudyCodeMinDigits() + "d", count);
@@ -72,9 +79,14 @@ public class NamingService {
     if (collaborator == null) {
       throw new StudyTrackerException("External studies require a valid collaborator reference.");
     }
-    int count =
+    String prefix = collaborator.getCode() + "-";
+    long count =
         studyProperties.getExternalCodeCounterStart()
-            + studyRepository.findByExternalCodePrefix(collaborator.getCode() + "-").size();
+            + nextCounterValue(
+                CounterType.EXTERNAL_STUDY,
+                collaborator.getCode().toLowerCase(),
+                () -> studyRepository.countByExternalCodePrefix(prefix))
+            - 1;
     return collaborator.getCode()
         + "-"
         + String.format("%0" + studyProperties.getExternalCodeMinDigits() + "d", count);
@@ -88,13 +100,39 @@ public class NamingService {
    */
   public String generateAssayCode(Assay assay) {
     Study study = assay.getStudy();
-    String prefix = study.getCode().split("-")[0] + "-";
-    long count = studyProperties.getAssayCodeCounterStart() + assayRepository.countByCodePrefix(prefix);
+    String programCode = study.getCode().split("-")[0];
+    long count =
+        studyProperties.getAssayCodeCounterStart()
+            + nextCounterValue(
+                CounterType.ASSAY,
+                programCode.toLowerCase(),
+                () -> assayRepository.countByCodePrefix(programCode + "-"))
+            - 1;
     return study.getCode()
         + "-"
         + String.format("%0" + studyProperties.getAssayCodeMinDigits() + "d", count);
   }
 
+  /**
+   * Atomically increments and returns the named code counter. Counters that do not exist yet, such
+   * as those for newly-created programs and collaborators, are first seeded with the number of
+   * records already using the prefix.
+   *
+   * @param type counter type
+   * @param key counter prefix
+   * @param seed supplies the count of existing records for the prefix
+   * @return the next counter value, starting at 1
+   */
+  private long nextCounterValue(CounterType type, String key, LongSupplier seed) {
+    Optional<Long> value = codeCounterRepository.increment(type, key);
+    if (!value.isPresent()) {
+      codeCounterRepository.initialize(type, key, seed.getAsLong());
+      value = codeCounterRepository.increment(type, key);
+    }
+    return value.orElseThrow(
+        () -> new StudyTrackerException("Unable to allocate code for prefix: " + key));
+  }
+
   /**
    * Returns a {@link Study} object's derived storage folder name.
    *
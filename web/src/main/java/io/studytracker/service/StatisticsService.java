@@ -18,12 +18,11 @@ package io.studytracker.service;
 
 import io.studytracker.mapstruct.dto.response.SummaryStatisticsDto;
 import io.studytracker.mapstruct.dto.response.UserStatisticsDto;
-import io.studytracker.model.Program;
 import io.studytracker.model.User;
+import io.studytracker.repository.EntityCounts;
+import io.studytracker.repository.StatisticsRepository;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -32,70 +31,44 @@ public class StatisticsService {
 
   @Autowired private StudyService studyService;
 
-  @Autowired private AssayService assayService;
-
-  @Autowired private ProgramService programService;
+  @Autowired private StatisticsRepository statisticsRepository;
 
   @Autowired private ActivityService activityService;
 
   @Autowired private UserService userService;
 
   public SummaryStatisticsDto getCurrent() {
-    SummaryStatisticsDto summaryStatisticsDto = new SummaryStatisticsDto();
-    summaryStatisticsDto.setProgramCount(programService.count());
-    summaryStatisticsDto.setStudyCount(studyService.count());
-    summaryStatisticsDto.setAssayCount(assayService.count());
-    summaryStatisticsDto.setUserCount(userService.count());
-    summaryStatisticsDto.setActivityCount(activityService.count());
-    summaryStatisticsDto.setActiveUserCount(userService.countActiveUsers());
-    Map<String, Long> programCounts = new HashMap<>();
-    for (Program program : programService.findAll()) {
-      System.out.println(program.getName());
-      if (program.isActive()) {
-        programCounts.put(program.getName(), studyService.countByProgram(program));
-      }
-    }
-    summaryStatisticsDto.setProgramStudyCounts(programCounts);
+    SummaryStatisticsDto summaryStatisticsDto =
+        toDto(statisticsRepository.countEntities(null, null));
+    summaryStatisticsDto.setProgramStudyCounts(
+        statisticsRepository.countStudiesByActiveProgram(null));
     return summaryStatisticsDto;
   }
 
   public SummaryStatisticsDto getBeforeDate(Date date) {
-    SummaryStatisticsDto summaryStatisticsDto = new SummaryStatisticsDto();
-    summaryStatisticsDto.setProgramCount(programService.countBeforeDate(date));
-    summaryStatisticsDto.setStudyCount(studyService.countBeforeDate(date));
-    summaryStatisticsDto.setAssayCount(assayService.countBeforeDate(date));
-    summaryStatisticsDto.setUserCount(userService.countBeforeDate(date));
-    summaryStatisticsDto.setActivityCount(activityService.countBeforeDate(date));
-    summaryStatisticsDto.setActiveUserCount(userService.countActiveUsers());
-    return summaryStatisticsDto;
+    return toDto(statisticsRepository.countEntities(null, date));
   }
 
   public SummaryStatisticsDto getAfterDate(Date date) {
-    SummaryStatisticsDto summaryStatisticsDto = new SummaryStatisticsDto();
-    summaryStatisticsDto.setProgramCount(programService.countFromDate(date));
-    summaryStatisticsDto.setStudyCount(studyService.countFromDate(date));
-    summaryStatisticsDto.setAssayCount(assayService.countFromDate(date));
-    summaryStatisticsDto.setUserCount(userService.countFromDate(date));
-    summaryStatisticsDto.setActivityCount(activityService.countFromDate(date));
-    summaryStatisticsDto.setActiveUserCount(userService.countActiveUsers());
-    Map<String, Long> programCounts = new HashMap<>();
-    for (Program program : programService.findAll()) {
-      if (program.isActive()) {
-        programCounts.put(program.getName(), studyService.countByProgramAfterDate(program, date));
-      }
-    }
-    summaryStatisticsDto.setProgramStudyCounts(programCounts);
+    SummaryStatisticsDto summaryStatisticsDto =
+        toDto(statisticsRepository.countEntities(date, null));
+    summaryStatisticsDto.setProgramStudyCounts(
+        statisticsRepository.countStudiesByActiveProgram(date));
     return summaryStatisticsDto;
   }
 
   public SummaryStatisticsDto getBetweenDates(Date startDate, Date endDate) {
+    return toDto(statisticsRepository.countEntities(startDate, endDate));
+  }
+
+  private SummaryStatisticsDto toDto(EntityCounts counts) {
     SummaryStatisticsDto summaryStatisticsDto = new SummaryStatisticsDto();
-    summaryStatisticsDto.setProgramCount(programService.countBetweenDates(startDate, endDate));
-    summaryStatisticsDto.setStudyCount(studyService.countBetweenDates(startDate, endDate));
-    summaryStatisticsDto.setAssayCount(assayService.countBetweenDates(startDate, endDate));
-    summaryStatisticsDto.setUserCount(userService.countBetweenDates(startDate, endDate));
-    summaryStatisticsDto.setActivityCount(activityService.countBetweenDates(startDate, endDate));
-    summaryStatisticsDto.setActiveUserCount(userService.countActiveUsers());
+    summaryStatisticsDto.setProgramCount(counts.getProgramCount());
+    summaryStatisticsDto.setStudyCount(counts.getStudyCount());
+    summaryStatisticsDto.setAssayCount(counts.getAssayCount());
+    summaryStatisticsDto.setUserCount(counts.getUserCount());
+    summaryStatisticsDto.setActivityCount(counts.getActivityCount());
+    summaryStatisticsDto.setActiveUserCount(counts.getActiveUserCount());
     return summaryStatisticsDto;
   }
 
@@ -41,7 +41,9 @@ import io.studytracker.model.User;
 import io.studytracker.repository.ELNFolderRepository;
 import io.studytracker.repository.FileStoreFolderRepository;
 import io.studytracker.repository.ProgramRepository;
+import io.studytracker.repository.StudyKeyset;
 import io.studytracker.repository.StudyRepository;
+import io.studytracker.repository.StudySpecifications;
 import io.studytracker.storage.StorageFolder;
 import io.studytracker.storage.StudyStorageService;
 import io.studytracker.storage.exception.StudyStorageException;
@@ -56,6 +58,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -113,6 +117,30 @@ public class StudyService {
     return studyRepository.findAll(pageable);
   }
 
+  /**
+   * Returns all studies matching the provided filter.
+   *
+   * @param specification study filter
+   * @return matching studies
+   */
+  public List<Study> findAll(Specification<Study> specification) {
+    return studyRepository.findAll(specification, Sort.unsorted());
+  }
+
+  /**
+   * Returns a single page of studies matching the provided filter, starting after the position
+   *   of the keyset cursor.
+   *
+   * @param specification study filter
+   * @param keyset sort order and the position of the previous page's last record
+   * @param size maximum number of studies to return
+   * @return page of studies
+   */
+  public List<Study> findAll(Specification<Study> specification, StudyKeyset keyset, int size) {
+    return studyRepository.findSummaries(
+        specification.and(StudySpecifications.seek(keyset)), keyset.toSort(), size);
+  }
+
   /**
    * Finds all studies associated with a given {@link Program}
    *
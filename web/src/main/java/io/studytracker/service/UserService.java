@@ -22,6 +22,7 @@ import io.studytracker.model.User;
 import io.studytracker.model.UserType;
 import io.studytracker.repository.PasswordResetTokenRepository;
 import io.studytracker.repository.UserRepository;
+import io.studytracker.security.AuthenticationCache;
 import io.studytracker.security.UserPasswordGenerator;
 import java.util.Calendar;
 import java.util.Date;
@@ -37,6 +38,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class UserService {
@@ -51,6 +54,8 @@ public class UserService {
 
   @Autowired private UserPasswordGenerator userPasswordGenerator;
 
+  @Autowired private AuthenticationCache authenticationCache;
+
   public Optional<User> findById(Long id) {
     return userRepository.findById(id);
   }
@@ -92,6 +97,8 @@ public class UserService {
   @Transactional
   public void update(User user) {
     User u = userRepository.getById(user.getId());
+    evictCachedAuthentication(u.getUsername());
+    evictCachedAuthentication(user.getUsername());
     u.setDisplayName(user.getDisplayName());
     u.setEmail(user.getEmail());
     u.setUsername(user.getUsername());
@@ -106,6 +113,7 @@ public class UserService {
   @Transactional
   public void updatePassword(User user, String password) {
     User u = userRepository.getById(user.getId());
+    evictCachedAuthentication(u.getUsername());
     u.setPassword(password);
     u.setCredentialsExpired(false);
     userRepository.save(u);
@@ -114,6 +122,7 @@ public class UserService {
   @Transactional
   public void delete(User user) {
     userRepository.delete(user);
+    evictCachedAuthentication(user.getUsername());
   }
 
   public boolean exists(User user) {
@@ -194,6 +203,7 @@ public class UserService {
   public String createUserPassword(User user) {
     LOGGER.info("Creating new password for user: " + user.getUsername());
     User u = userRepository.getById(user.getId());
+    evictCachedAuthentication(u.getUsername());
     String password = userPasswordGenerator.generatePassword(12);
     u.setPassword(passwordEncoder.encode(password));
     u.setCredentialsExpired(false);
@@ -201,4 +211,24 @@ public class UserService {
     return password;
   }
 
+  /**
+   * Evicts the user's cached authentication details once the current transaction commits, so that
+   * changes to their account apply to subsequent API requests.
+   *
+   * @param username
+   */
+  private void evictCachedAuthentication(String username) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              authenticationCache.evictUser(username);
+            }
+          });
+    } else {
+      authenticationCache.evictUser(username);
+    }
+  }
+
 }
@@ -20,6 +20,7 @@ import io.studytracker.model.FileStorageLocation;
 import io.studytracker.storage.exception.StudyStorageException;
 import io.studytracker.storage.exception.StudyStorageNotFoundException;
 import java.io.File;
+import java.io.InputStream;
 import org.springframework.core.io.Resource;
 
 /**
@@ -40,6 +41,22 @@ public interface DataFileStorageService {
    */
   StorageFolder findFolderByPath(FileStorageLocation location, String path) throws StudyStorageNotFoundException;
 
+  /**
+   * Looks up a single page of a folder's contents by path. Services that cannot page folder
+   *   listings return the full contents as a single page.
+   *
+   * @param location the storage location
+   * @param path the path to the folder
+   * @param cursor the cursor returned with the previous page, or null for the first page
+   * @param size the maximum number of objects to return
+   * @return the folder page
+   * @throws StudyStorageNotFoundException if the folder is not found
+   */
+  default StorageFolderPage findFolderPageByPath(FileStorageLocation location, String path,
+      String cursor, int size) throws StudyStorageNotFoundException {
+    StorageFolder folder = this.findFolderByPath(location, path);
+    return new StorageFolderPage(folder, cursor, null, size);
+  }
 
   /**
    * Finds a file by its path in the file system.
@@ -74,11 +91,39 @@ public interface DataFileStorageService {
   StorageFile saveFile(FileStorageLocation location, String path, File file) throws StudyStorageException;
 
   /**
-   * Downloads the file at the provided path.
+   * Returns true if the service can write a file directly from a stream of unknown length, using
+   *   {@link #saveFile(FileStorageLocation, String, String, InputStream)}. Services that return
+   *   false require uploads to be written to a local file first.
+   *
+   * @return true if streaming uploads are supported
+   */
+  default boolean supportsStreamingUploads() {
+    return false;
+  }
+
+  /**
+   * Uploads the contents of the given stream as a new file in the provided path. The stream is
+   *   read to its end, but is not closed. Services that do not support streaming uploads write
+   *   the stream to a local file first.
+   *
+   * @param location the storage location
+   * @param path the path to the folder to upload the file to
+   * @param fileName the name of the new file
+   * @param inputStream the file contents
+   * @return the uploaded file object
+   * @throws StudyStorageException if the file cannot be uploaded
+   */
+  StorageFile saveFile(FileStorageLocation location, String path, String fileName,
+      InputStream inputStream) throws StudyStorageException;
+
+  /**
+   * Returns a resource for reading the file at the provided path. Implementations should stream
+   *   the file contents rather than reading them into memory, and should report the content length
+   *   without reading the file, so that byte ranges can be served from it.
    *
    * @param location the storage location
    * @param path the path to the object to download
-   * @return the downloaded file byte stream
+   * @return the file resource
    * @throws StudyStorageException if the file cannot be downloaded
    */
   Resource fetchFile(FileStorageLocation location, String path) throws StudyStorageException;
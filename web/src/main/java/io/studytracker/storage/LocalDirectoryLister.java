@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.storage;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lists the contents of folders on a local or mounted file system. Each directory is read once
+ *   with a {@link DirectoryStream}, entries are ordered by name, and file attributes are read only
+ *   for the entries being returned. Temporary files left by in-progress writes are skipped. Large
+ *   folders can be read a page at a time, using the name of the last entry in a page as the cursor
+ *   for the next.
+ */
+public class LocalDirectoryLister {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LocalDirectoryLister.class);
+
+  private LocalDirectoryLister() {}
+
+  /**
+   * Reads the attributes of the given folder, returning a {@link StorageFolder} without contents.
+   *
+   * @param path the folder path
+   * @return the folder, or null if the path does not exist or is not a directory
+   */
+  public static StorageFolder readFolder(Path path) {
+    BasicFileAttributes attributes = readAttributes(path);
+    if (attributes == null || !attributes.isDirectory()) {
+      return null;
+    }
+    return toStorageFolder(path, attributes);
+  }
+
+  /**
+   * Reads the attributes of the given file.
+   *
+   * @param path the file path
+   * @return the file, or null if the path does not exist or is not a regular file
+   */
+  public static StorageFile readFile(Path path) {
+    BasicFileAttributes attributes = readAttributes(path);
+    if (attributes == null || !attributes.isRegularFile()) {
+      return null;
+    }
+    return toStorageFile(path, attributes);
+  }
+
+  /**
+   * Lists the entire contents of the folder into the provided {@link StorageFolder}.
+   *
+   * @param folder the folder to populate
+   * @throws IOException if the directory cannot be read
+   */
+  public static void listContents(StorageFolder folder) throws IOException {
+    listContents(folder, null, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Lists up to {@code size} entries of the folder that sort after {@code cursor} into the provided
+   *   {@link StorageFolder}, and returns the cursor for the following page.
+   *
+   * @param folder the folder to populate
+   * @param cursor the name of the last entry in the previous page, or null for the first page
+   * @param size the maximum number of entries to list
+   * @return the cursor for the next page, or null if there are no more entries
+   * @throws IOException if the directory cannot be read
+   */
+  public static String listContents(StorageFolder folder, String cursor, int size)
+      throws IOException {
+    Path path = Paths.get(folder.getPath());
+    List<String> names = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+      for (Path entry : stream) {
+        String name = entry.getFileName().toString();
+        if (LocalFileIngestor.isTempFile(name)) {
+          continue;
+        }
+        if (cursor == null || name.compareTo(cursor) > 0) {
+          names.add(name);
+        }
+      }
+    }
+    Collections.sort(names);
+
+    List<StorageFile> files = new ArrayList<>();
+    List<StorageFolder> subFolders = new ArrayList<>();
+    int count = Math.min(size, names.size());
+    for (int i = 0; i < count; i++) {
+      Path entry = path.resolve(names.get(i));
+      BasicFileAttributes attributes = readAttributes(entry);
+      if (attributes == null) {
+        continue;
+      }
+      if (attributes.isDirectory()) {
+        subFolders.add(toStorageFolder(entry, attributes));
+      } else if (attributes.isRegularFile()) {
+        files.add(toStorageFile(entry, attributes));
+      }
+    }
+    folder.setFiles(files);
+    folder.setSubFolders(subFolders);
+    return names.size() > size ? names.get(size - 1) : null;
+  }
+
+  private static BasicFileAttributes readAttributes(Path path) {
+    try {
+      return Files.readAttributes(path, BasicFileAttributes.class);
+    } catch (IOException e) {
+      LOGGER.debug("Unable to read attributes of path: {}", path, e);
+      return null;
+    }
+  }
+
+  private static StorageFolder toStorageFolder(Path path, BasicFileAttributes attributes) {
+    StorageFolder folder = new StorageFolder();
+    folder.setPath(path);
+    folder.setName(path.getFileName() != null ? path.getFileName().toString() : path.toString());
+    folder.setLastModified(new Date(attributes.lastModifiedTime().toMillis()));
+    return folder;
+  }
+
+  private static StorageFile toStorageFile(Path path, BasicFileAttributes attributes) {
+    StorageFile file = new StorageFile();
+    file.setPath(path);
+    file.setName(path.getFileName().toString());
+    file.setSize(attributes.size());
+    file.setLastModified(new Date(attributes.lastModifiedTime().toMillis()));
+    return file;
+  }
+}
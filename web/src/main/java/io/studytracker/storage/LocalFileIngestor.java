@@ -0,0 +1,226 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Date;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes files into local storage folders so that readers never see a partially-written file. New
+ *   content is written to a hidden temporary file in the target folder, created with the default
+ *   permissions for new files, and renamed into place once complete. Files that are already on the
+ *   same file system are moved with a single atomic rename. A SHA-256 digest of the content is
+ *   computed as it is written, so the data never needs to be read again to verify it.
+ */
+public final class LocalFileIngestor {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LocalFileIngestor.class);
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final int MAX_TEMP_PREFIX_LENGTH = 64;
+
+  private static final String TEMP_PREFIX = ".studytracker-";
+
+  private static final String TEMP_SUFFIX = ".part";
+
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  private LocalFileIngestor() {}
+
+  /**
+   * Writes the stream to the target path, replacing any existing file once the write is complete.
+   *
+   * @param inputStream the file contents
+   * @param target the target file path
+   * @return the written file, with its size and SHA-256 digest
+   * @throws IOException if the file cannot be written
+   */
+  public static StorageFile write(InputStream inputStream, Path target) throws IOException {
+    Path temp = target.resolveSibling(tempFileName(target.getFileName().toString()));
+    FileChannel channel =
+        FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    try {
+      String sha256;
+      try (FileChannel tempChannel = channel) {
+        sha256 = writeWithDigest(inputStream, tempChannel, true);
+      }
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+      syncDirectory(target);
+      return toStorageFile(target, sha256);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Returns true if the name is that of a temporary file written by {@link #write(InputStream,
+   *   Path)}, which should not be listed as part of a folder's contents.
+   *
+   * @param name the file name
+   * @return true if the file is an in-progress write
+   */
+  public static boolean isTempFile(String name) {
+    return name.startsWith(TEMP_PREFIX) && name.endsWith(TEMP_SUFFIX);
+  }
+
+  /**
+   * Returns a unique, hidden name for the temporary file that a new file is written to. The file is
+   *   created with the default permissions for new files, rather than the owner-only permissions
+   *   of {@link Files#createTempFile}, since it is renamed into place with those permissions.
+   */
+  private static String tempFileName(String name) {
+    String prefix = name.length() > MAX_TEMP_PREFIX_LENGTH
+        ? name.substring(0, MAX_TEMP_PREFIX_LENGTH) : name;
+    return TEMP_PREFIX + Long.toUnsignedString(RANDOM.nextLong(), 36) + "-" + prefix + TEMP_SUFFIX;
+  }
+
+  /**
+   * Copies the source file to the target path, leaving the source in place.
+   *
+   * @param source the file to copy
+   * @param target the target file path
+   * @return the written file, with its size and SHA-256 digest
+   * @throws IOException if the file cannot be copied
+   */
+  public static StorageFile copy(Path source, Path target) throws IOException {
+    try (InputStream inputStream = Files.newInputStream(source)) {
+      return write(inputStream, target);
+    }
+  }
+
+  /**
+   * Moves the source file to the target path. If both are on the same file system, and the digest
+   *   of the source is already known, the file is renamed into place without being read, and the
+   *   file and its new folder are synced to the storage device. Otherwise it is copied and the
+   *   source is deleted.
+   *
+   * @param source the file to move
+   * @param target the target file path
+   * @param sha256 the known digest of the source file, or null if it is not known
+   * @return the moved file, with its size and SHA-256 digest
+   * @throws IOException if the file cannot be moved
+   */
+  public static StorageFile move(Path source, Path target, String sha256) throws IOException {
+    if (sha256 != null) {
+      try {
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+          channel.force(true);
+        }
+        syncDirectory(target);
+        return toStorageFile(target, sha256);
+      } catch (AtomicMoveNotSupportedException e) {
+        LOGGER.debug("Cannot rename {} to {}, copying instead", source, target);
+      }
+    }
+    StorageFile file = copy(source, target);
+    Files.deleteIfExists(source);
+    return file;
+  }
+
+  /**
+   * Writes the stream to the target path, computing its SHA-256 digest in the same pass.
+   *
+   * @param inputStream the file contents
+   * @param target the target file path
+   * @param sync whether to flush the file contents to the storage device before returning
+   * @return the hex-encoded SHA-256 digest of the contents
+   * @throws IOException if the file cannot be written
+   */
+  public static String writeWithDigest(InputStream inputStream, Path target, boolean sync)
+      throws IOException {
+    try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      return writeWithDigest(inputStream, channel, sync);
+    }
+  }
+
+  private static String writeWithDigest(InputStream inputStream, FileChannel channel, boolean sync)
+      throws IOException {
+    MessageDigest digest = newSha256Digest();
+    byte[] buffer = new byte[BUFFER_SIZE];
+    int read;
+    while ((read = inputStream.read(buffer)) != -1) {
+      digest.update(buffer, 0, read);
+      ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+      while (byteBuffer.hasRemaining()) {
+        channel.write(byteBuffer);
+      }
+    }
+    if (sync) {
+      channel.force(true);
+    }
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Syncs the folder containing the given file, so that a rename into it survives a crash. Some
+   *   platforms do not allow folders to be opened, in which case the rename is left to the file
+   *   system to persist.
+   */
+  private static void syncDirectory(Path file) {
+    Path directory = file.toAbsolutePath().getParent();
+    try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      channel.force(true);
+    } catch (IOException e) {
+      LOGGER.debug("Cannot sync folder {}", directory, e);
+    }
+  }
+
+  private static MessageDigest newSha256Digest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder builder = new StringBuilder(bytes.length * 2);
+    for (byte b : bytes) {
+      builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+      builder.append(Character.forDigit(b & 0xF, 16));
+    }
+    return builder.toString();
+  }
+
+  private static StorageFile toStorageFile(Path path, String sha256) throws IOException {
+    StorageFile file = new StorageFile();
+    file.setPath(path);
+    file.setName(path.getFileName().toString());
+    file.setSize(Files.size(path));
+    file.setLastModified(new Date(Files.getLastModifiedTime(path).toMillis()));
+    file.setSha256(sha256);
+    return file;
+  }
+}
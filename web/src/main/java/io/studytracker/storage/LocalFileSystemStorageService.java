@@ -16,34 +16,29 @@
 
 package io.studytracker.storage;
 
-import io.studytracker.exception.RecordNotFoundException;
-import io.studytracker.exception.StudyTrackerException;
+import io.studytracker.integration.IntegrationOptionsCache;
 import io.studytracker.model.Assay;
 import io.studytracker.model.FileStorageLocation;
-import io.studytracker.model.IntegrationInstance;
 import io.studytracker.model.Program;
 import io.studytracker.model.Study;
-import io.studytracker.repository.IntegrationInstanceRepository;
+import io.studytracker.service.FileSystemStorageService;
 import io.studytracker.service.NamingService;
 import io.studytracker.storage.exception.StudyStorageDuplicateException;
 import io.studytracker.storage.exception.StudyStorageException;
 import io.studytracker.storage.exception.StudyStorageNotFoundException;
 import io.studytracker.storage.exception.StudyStorageWriteException;
 import io.studytracker.storage.integration.LocalFileSystemOptions;
-import io.studytracker.storage.integration.LocalFileSystemOptionsFactory;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.List;
-import java.util.stream.Collectors;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 
 public class LocalFileSystemStorageService implements StudyStorageService, DataFileStorageService {
@@ -55,68 +50,56 @@ public class LocalFileSystemStorageService implements StudyStorageService, DataF
   private NamingService namingService;
 
   @Autowired
-  private IntegrationInstanceRepository integrationInstanceRepository;
+  private IntegrationOptionsCache integrationOptionsCache;
+
+  @Autowired
+  private FileSystemStorageService fileSystemStorageService;
 
   private LocalFileSystemOptions getOptionsFromLocation(FileStorageLocation location) {
-    IntegrationInstance instance = integrationInstanceRepository
-        .findById(location.getIntegrationInstance().getId())
-        .orElseThrow(() -> new RecordNotFoundException("Integration instance not found: "
-            + location.getIntegrationInstance().getId()));
-    return LocalFileSystemOptionsFactory.create(instance);
+    return integrationOptionsCache.getLocalFileSystemOptions(location);
   }
 
-  /**
-   * Returns {@link StorageFile} instances for every file in the target folder, at the top level.
-   *
-   * @param path
-   * @return
-   */
-  private List<StorageFile> getFolderFiles(Path path) {
-    try {
-      return Files.walk(path, 1)
-          .filter(Files::isRegularFile)
-          .map(
-              f -> {
-                StorageFile file = new StorageFile();
-                file.setPath(f);
-                file.setName(f.getFileName().toString());
-                return file;
-              })
-          .collect(Collectors.toList());
-    } catch (IOException e) {
-      throw new StudyTrackerException(e);
-    }
+  private Path getFolderPath(FileStorageLocation location, Program program) {
+    LocalFileSystemOptions options = getOptionsFromLocation(location);
+    return Paths.get(options.getRootPath()).resolve(namingService.getProgramStorageFolderName(program));
+  }
+
+  private Path getFolderPath(FileStorageLocation location, Study study) {
+    return getFolderPath(location, study.getProgram())
+        .resolve(namingService.getStudyStorageFolderName(study));
+  }
+
+  private Path getFolderPath(FileStorageLocation location, Assay assay) {
+    return getFolderPath(location, assay.getStudy())
+        .resolve(namingService.getAssayStorageFolderName(assay));
   }
 
   /**
-   * Returns {@link StorageFolder} instances for every subfolder in the target folder.
+   * Checks that the folder exists, without listing its contents.
    *
-   * @param path
-   * @return
+   * @param location the storage location
+   * @param path the folder path
+   * @return the normalized folder path
+   * @throws StudyStorageNotFoundException if the folder does not exist
    */
-  private List<StorageFolder> getSubfolders(Path path) {
+  private Path requireFolder(FileStorageLocation location, Path path)
+      throws StudyStorageNotFoundException {
     try {
-      return Files.walk(path, 1)
-          .filter(Files::isDirectory)
-          .filter(p -> !p.toString().equals(path.toString()))
-          .map(
-              d -> {
-                StorageFolder folder = new StorageFolder();
-                folder.setName(d.toFile().getName());
-                folder.setPath(d);
-                return folder;
-              })
-          .collect(Collectors.toList());
-    } catch (IOException e) {
-      throw new StudyTrackerException(e);
+      validatePath(location, path.toString());
+    } catch (StudyStorageException e) {
+      throw new StudyStorageNotFoundException(e);
+    }
+    Path folderPath = path.normalize();
+    if (!Files.isDirectory(folderPath)) {
+      throw new StudyStorageNotFoundException("Cannot find folder at path: " + path);
     }
+    return folderPath;
   }
 
   @Override
   public StorageFolder findFolder(FileStorageLocation location, Program program) throws StudyStorageNotFoundException {
     LOGGER.info("Fetching storage folder instance for program: " + program.getName());
-    LocalFileSystemOptions options = getOptionsFromLocation(location);
-    Path path = Paths.get(options.getRootPath()).resolve(namingService.getProgramStorageFolderName(program));
+    Path path = getFolderPath(location, program);
     LOGGER.info(path.toString());
     return findFolderByPath(location, path.toString());
   }
@@ -124,9 +107,7 @@ public class LocalFileSystemStorageService implements StudyStorageService, DataF
   @Override
   public StorageFolder findFolder(FileStorageLocation location, Study study) throws StudyStorageNotFoundException {
     LOGGER.info("Fetching storage folder instance for study: " + study.getCode());
-    StorageFolder programFolder = this.findFolder(location, study.getProgram());
-    Path programPath = Paths.get(programFolder.getPath());
-    Path studyFolder = programPath.resolve(namingService.getStudyStorageFolderName(study));
+    Path studyFolder = getFolderPath(location, study);
     LOGGER.info(studyFolder.toString());
     return findFolderByPath(location, studyFolder.toString());
   }
@@ -134,9 +115,7 @@ public class LocalFileSystemStorageService implements StudyStorageService, DataF
   @Override
   public StorageFolder findFolder(FileStorageLocation location, Assay assay) throws StudyStorageNotFoundException {
     LOGGER.info("Fetching storage folder instance for assay: " + assay.getCode());
-    StorageFolder studyFolder = this.findFolder(location, assay.getStudy());
-    Path studyPath = Paths.get(studyFolder.getPath());
-    Path assayFolder = studyPath.resolve(namingService.getAssayStorageFolderName(assay));
+    Path assayFolder = getFolderPath(location, assay);
     LOGGER.info(assayFolder.toString());
     return findFolderByPath(location, assayFolder.toString());
   }
@@ -152,15 +131,15 @@ public class LocalFileSystemStorageService implements StudyStorageService, DataF
   @Override
   public StorageFolder createFolder(FileStorageLocation location, Study study) throws StudyStorageException {
     LOGGER.info("Creating storage folder instance for study: " + study.getCode());
-    StorageFolder programFolder = this.findFolder(location, study.getProgram());
-    return createFolder(location, programFolder.getPath(), namingService.getStudyStorageFolderName(study));
+    Path programFolder = requireFolder(location, getFolderPath(location, study.getProgram()));
+    return createFolder(location, programFolder.toString(), namingService.getStudyStorageFolderName(study));
   }
 
   @Override
   public StorageFolder createFolder(FileStorageLocation location, Assay assay) throws StudyStorageException {
     LOGGER.info("Creating storage folder instance for assay: " + assay.getCode());
-    StorageFolder studyFolder = this.findFolder(location, assay.getStudy());
-    return createFolder(location, studyFolder.getPath(), namingService.getAssayStorageFolderName(assay));
+    Path studyFolder = requireFolder(location, getFolderPath(location, assay.getStudy()));
+    return createFolder(location, studyFolder.toString(), namingService.getAssayStorageFolderName(assay));
   }
 
   @Override
@@ -170,8 +149,8 @@ public class LocalFileSystemStorageService implements StudyStorageService, DataF
             "Saving file %s to storage folder instance for study %s",
             file.getName(), study.getCode()));
 //    validatePath(location, file.getPath());
-    StorageFolder studyFolder = this.findFolder(location, study);
-    return this.saveFileToFolder(file, studyFolder);
+    Path studyFolder = requireFolder(location, getFolderPath(location, study));
+    return this.saveFileToPath(file, studyFolder);
   }
 
   @Override
@@ -181,8 +160,8 @@ public class LocalFileSystemStorageService implements StudyStorageService, DataF
             "Saving file %s to storage folder instance for assay %s",
             file.getName(), assay.getCode()));
 //    validatePath(location, file.getPath());
-    StorageFolder assayFolder = this.findFolder(location, assay);
-    return this.saveFileToFolder(file, assayFolder);
+    Path assayFolder = requireFolder(location, getFolderPath(location, assay));
+    return this.saveFileToPath(file, assayFolder);
   }
 
   @Override
@@ -194,19 +173,39 @@ public class LocalFileSystemStorageService implements StudyStorageService, DataF
       e.printStackTrace();
       throw new StudyStorageNotFoundException(e);
     }
-    Path folderPath = Paths.get(path).normalize();
-    File file = folderPath.toFile();
-    if (!file.isDirectory() || !file.exists()) {
+    StorageFolder folder = LocalDirectoryLister.readFolder(Paths.get(path).normalize());
+    if (folder == null) {
       throw new StudyStorageNotFoundException("Cannot find folder at path: " + path);
     }
-    StorageFolder folder = new StorageFolder();
-    folder.setPath(folderPath.toString());
-    folder.setName(file.getName());
-    folder.setFiles(getFolderFiles(folderPath));
-    folder.setSubFolders(getSubfolders(folderPath));
+    try {
+      LocalDirectoryLister.listContents(folder);
+    } catch (IOException e) {
+      throw new StudyStorageNotFoundException("Cannot read folder at path: " + path, e);
+    }
     return folder;
   }
 
+  @Override
+  public StorageFolderPage findFolderPageByPath(FileStorageLocation location, String path,
+      String cursor, int size) throws StudyStorageNotFoundException {
+    try {
+      validatePath(location, path);
+    } catch (StudyStorageException e) {
+      e.printStackTrace();
+      throw new StudyStorageNotFoundException(e);
+    }
+    StorageFolder folder = LocalDirectoryLister.readFolder(Paths.get(path).normalize());
+    if (folder == null) {
+      throw new StudyStorageNotFoundException("Cannot find folder at path: " + path);
+    }
+    try {
+      String nextCursor = LocalDirectoryLister.listContents(folder, cursor, size);
+      return new StorageFolderPage(folder, cursor, nextCursor, size);
+    } catch (IOException e) {
+      throw new StudyStorageNotFoundException("Cannot read folder at path: " + path, e);
+    }
+  }
+
   @Override
   public StorageFile findFileByPath(FileStorageLocation location, String path)
       throws StudyStorageNotFoundException {
@@ -216,14 +215,10 @@ public class LocalFileSystemStorageService implements StudyStorageService, DataF
       e.printStackTrace();
       throw new StudyStorageNotFoundException(e);
     }
-    Path filePath = Paths.get(path).normalize();
-    File file = filePath.toFile();
-    if (!file.isFile() || !file.exists()) {
+    StorageFile storageFile = LocalDirectoryLister.readFile(Paths.get(path).normalize());
+    if (storageFile == null) {
       throw new StudyStorageNotFoundException("Cannot find file at path: " + path);
     }
-    StorageFile storageFile = new StorageFile();
-    storageFile.setName(file.getName());
-    storageFile.setPath(file.getPath());
     return storageFile;
   }
 
@@ -291,13 +286,32 @@ public class LocalFileSystemStorageService implements StudyStorageService, DataF
   }
 
   @Override
-  public Resource fetchFile(FileStorageLocation location, String path)
-      throws StudyStorageException {
+  public boolean supportsStreamingUploads() {
+    return true;
+  }
+
+  @Override
+  public StorageFile saveFile(FileStorageLocation location, String path, String fileName,
+      InputStream inputStream) throws StudyStorageException {
+    LOGGER.info("Saving file {} to storage location {} at path {}", fileName, location.getName(), path);
+    validatePath(location, path);
+    Path newFilePath = Paths.get(path).normalize().resolve(FilenameUtils.getName(fileName));
     try {
-      return new ByteArrayResource(Files.readAllBytes(Paths.get(path).normalize()));
+      return LocalFileIngestor.write(inputStream, newFilePath);
     } catch (IOException e) {
-      throw new StudyStorageException("Failed to read file from path: " + path, e);
+      throw new StudyStorageWriteException("Failed to write file: " + newFilePath, e);
+    }
+  }
+
+  @Override
+  public Resource fetchFile(FileStorageLocation location, String path)
+      throws StudyStorageException {
+    validatePath(location, path);
+    Path filePath = Paths.get(path).normalize();
+    if (!Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
+      throw new StudyStorageException("Failed to read file from path: " + path);
     }
+    return new FileSystemResource(filePath);
   }
 
   @Override
@@ -324,24 +338,19 @@ public class LocalFileSystemStorageService implements StudyStorageService, DataF
     return file.exists() && !file.isFile();
   }
 
-  private StorageFile saveFileToFolder(File file, StorageFolder folder) {
-    return saveFileToPath(file, Paths.get(folder.getPath()));
-  }
-
-  private StorageFile saveFileToPath(File file, Path path) {
-    String fileName = FilenameUtils.getName(file.getName());
-    Path cleanPath = path.normalize();
-    Path newFilePath = cleanPath.resolve(fileName);
-    File newFile = newFilePath.toFile();
+  private StorageFile saveFileToPath(File file, Path path) throws StudyStorageWriteException {
+    Path source = file.toPath();
+    Path newFilePath = path.normalize().resolve(FilenameUtils.getName(file.getName()));
     try {
-      FileUtils.copyFile(file, newFile);
-    } catch (Exception e) {
-      throw new StudyTrackerException(e);
+      if (fileSystemStorageService.isStoredFile(source)) {
+        return LocalFileIngestor.move(
+            source, newFilePath, fileSystemStorageService.getDigest(source));
+      } else {
+        return LocalFileIngestor.copy(source, newFilePath);
+      }
+    } catch (IOException e) {
+      throw new StudyStorageWriteException("Failed to write file: " + newFilePath, e);
     }
-    StorageFile studyFile = new StorageFile();
-    studyFile.setPath(newFilePath);
-    studyFile.setName(newFile.getName());
-    return studyFile;
   }
 
   private void validatePath(FileStorageLocation location, String path) throws StudyStorageException {
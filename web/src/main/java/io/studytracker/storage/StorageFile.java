@@ -34,6 +34,8 @@ public class StorageFile implements StorageObject {
 
   private String fileId;
 
+  private String sha256;
+
   private boolean downloadable = false;
 
   @Override
@@ -100,6 +102,14 @@ public class StorageFile implements StorageObject {
     this.fileId = fileId;
   }
 
+  public String getSha256() {
+    return sha256;
+  }
+
+  public void setSha256(String sha256) {
+    this.sha256 = sha256;
+  }
+
   public boolean isDownloadable() {
     return downloadable;
   }
@@ -117,6 +127,7 @@ public class StorageFile implements StorageObject {
         ", lastModified=" + lastModified +
         ", size=" + size +
         ", fileId='" + fileId + '\'' +
+        ", sha256='" + sha256 + '\'' +
         '}';
   }
 }
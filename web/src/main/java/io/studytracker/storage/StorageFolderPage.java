@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.storage;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A single page of a folder listing. The folder contains only the files and subfolders in this
+ *   page. If more contents are available, {@code nextCursor} can be used to fetch the next page.
+ */
+public class StorageFolderPage {
+
+  private StorageFolder folder;
+
+  private String cursor;
+
+  private String nextCursor;
+
+  private int size;
+
+  public StorageFolderPage() {}
+
+  public StorageFolderPage(StorageFolder folder, String cursor, String nextCursor, int size) {
+    this.folder = folder;
+    this.cursor = cursor;
+    this.nextCursor = nextCursor;
+    this.size = size;
+  }
+
+  public StorageFolder getFolder() {
+    return folder;
+  }
+
+  public void setFolder(StorageFolder folder) {
+    this.folder = folder;
+  }
+
+  public String getCursor() {
+    return cursor;
+  }
+
+  public void setCursor(String cursor) {
+    this.cursor = cursor;
+  }
+
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  public void setNextCursor(String nextCursor) {
+    this.nextCursor = nextCursor;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public void setSize(int size) {
+    this.size = size;
+  }
+
+  @JsonProperty("hasNext")
+  public boolean hasNext() {
+    return nextCursor != null;
+  }
+}
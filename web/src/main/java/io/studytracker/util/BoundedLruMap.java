@@ -0,0 +1,44 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Access-ordered map that discards its least-recently used entry once it holds more than a fixed
+ * number of entries. Like {@link LinkedHashMap}, it is not thread-safe: callers that share an
+ * instance between threads must synchronize access to it, for example through {@link
+ * java.util.Collections#synchronizedMap(Map)}.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedLruMap<K, V> extends LinkedHashMap<K, V> {
+
+  private final int maxEntries;
+
+  public BoundedLruMap(int maxEntries) {
+    super(16, 0.75f, true);
+    this.maxEntries = maxEntries;
+  }
+
+  @Override
+  protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+    return size() > maxEntries;
+  }
+}
@@ -0,0 +1,15 @@
+CREATE TABLE search_index_checkpoints
+(
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    document_type  VARCHAR(255) NOT NULL,
+    status         VARCHAR(255) NOT NULL,
+    last_record_id BIGINT       NOT NULL,
+    indexed_count  BIGINT       NOT NULL,
+    started_at     TIMESTAMP WITHOUT TIME ZONE,
+    updated_at     TIMESTAMP WITHOUT TIME ZONE,
+    completed_at   TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_search_index_checkpoints PRIMARY KEY (id)
+);
+
+ALTER TABLE search_index_checkpoints
+    ADD CONSTRAINT uc_search_index_checkpoints_document_type UNIQUE (document_type);
@@ -0,0 +1,28 @@
+CREATE TABLE code_counters
+(
+    counter_type VARCHAR(32)  NOT NULL,
+    counter_key  VARCHAR(255) NOT NULL,
+    value        BIGINT       NOT NULL,
+    CONSTRAINT pk_code_counters PRIMARY KEY (counter_type, counter_key)
+);
+
+-- Seed the counters so that the next allocated codes match what the previous scan-based
+-- naming logic would have produced.
+
+INSERT INTO code_counters (counter_type, counter_key, value)
+SELECT 'STUDY', p.code, COUNT(s.id)
+FROM programs p
+         LEFT JOIN studies s ON s.program_id = p.id AND s.legacy = FALSE
+GROUP BY p.code;
+
+INSERT INTO code_counters (counter_type, counter_key, value)
+SELECT 'EXTERNAL_STUDY',
+       c.code,
+       (SELECT COUNT(*) FROM studies s WHERE LOWER(s.external_code) LIKE c.code || '-%')
+FROM (SELECT DISTINCT LOWER(code) AS code FROM collaborators) c;
+
+INSERT INTO code_counters (counter_type, counter_key, value)
+SELECT 'ASSAY',
+       p.code,
+       (SELECT COUNT(*) FROM assays a WHERE LOWER(a.code) LIKE p.code || '-%')
+FROM (SELECT DISTINCT LOWER(code) AS code FROM programs) p;
@@ -0,0 +1,18 @@
+CREATE TABLE event_outbox
+(
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    activity_id     BIGINT       NOT NULL,
+    created_at      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    next_attempt_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    last_error      VARCHAR(1024),
+    parked_at       TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_event_outbox PRIMARY KEY (id)
+);
+
+ALTER TABLE event_outbox
+    ADD CONSTRAINT fk_event_outbox_activity FOREIGN KEY (activity_id) REFERENCES activity (id)
+        ON DELETE CASCADE;
+
+CREATE INDEX idx_event_outbox_next_attempt_at ON event_outbox (next_attempt_at, id)
+    WHERE parked_at IS NULL;
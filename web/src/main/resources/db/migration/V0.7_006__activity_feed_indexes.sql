@@ -0,0 +1,7 @@
+CREATE INDEX idx_activity_study_date ON activity (study_id, date DESC, id DESC);
+
+CREATE INDEX idx_activity_assay_date ON activity (assay_id, date DESC, id DESC);
+
+CREATE INDEX idx_activity_program_date ON activity (program_id, date DESC, id DESC);
+
+CREATE INDEX idx_activity_user_date ON activity (user_id, date DESC, id DESC);
@@ -0,0 +1,2 @@
+CREATE INDEX idx_activity_completed_study_date ON activity (date)
+    WHERE event_type = 'STUDY_STATUS_CHANGED' AND (data ->> 'newStatus') = 'COMPLETE';
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.test.aws;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.studytracker.aws.EventBridgePublisher;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.eventbridge.EventBridgeClient;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequest;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsRequestEntry;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResponse;
+import software.amazon.awssdk.services.eventbridge.model.PutEventsResultEntry;
+
+public class EventBridgePublisherTests {
+
+  private EventBridgeClient client;
+
+  private EventBridgePublisher publisher;
+
+  private SimpleMeterRegistry registry;
+
+  @Before
+  public void before() {
+    client = mock(EventBridgeClient.class);
+    registry = new SimpleMeterRegistry();
+  }
+
+  @After
+  public void after() {
+    if (publisher != null) {
+      publisher.shutdown();
+    }
+  }
+
+  private EventBridgePublisher createPublisher(int queueCapacity, int maxRetries) {
+    publisher = new EventBridgePublisher(client, 10, 50L, queueCapacity, maxRetries);
+    publisher.bindTo(registry);
+    return publisher;
+  }
+
+  private static PutEventsRequestEntry entry(String detail) {
+    return PutEventsRequestEntry.builder()
+        .eventBusName("test-bus")
+        .source("study-tracker")
+        .detailType("TEST_EVENT")
+        .detail(detail)
+        .build();
+  }
+
+  /** Responds to a PutEvents request as if every entry was published. */
+  private static PutEventsResponse succeed(InvocationOnMock invocation) {
+    PutEventsRequest request = invocation.getArgument(0);
+    List<PutEventsResultEntry> results = new ArrayList<>();
+    for (int i = 0; i < request.entries().size(); i++) {
+      results.add(PutEventsResultEntry.builder().eventId("event-" + i).build());
+    }
+    return PutEventsResponse.builder().failedEntryCount(0).entries(results).build();
+  }
+
+  private List<List<String>> capturedDetails(int requests) {
+    ArgumentCaptor<PutEventsRequest> captor = ArgumentCaptor.forClass(PutEventsRequest.class);
+    verify(client, timeout(5000).times(requests)).putEvents(captor.capture());
+    return captor.getAllValues().stream()
+        .map(request -> request.entries().stream()
+            .map(PutEventsRequestEntry::detail)
+            .collect(Collectors.toList()))
+        .collect(Collectors.toList());
+  }
+
+  private double count(String name) {
+    return registry.get(name).functionCounter().count();
+  }
+
+  private void awaitCount(String name, double expected) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000L;
+    while (count(name) < expected && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+    }
+    Assert.assertEquals(expected, count(name), 0.0);
+  }
+
+  @Test
+  public void batchSizeTest() {
+    when(client.putEvents(any(PutEventsRequest.class)))
+        .thenAnswer(EventBridgePublisherTests::succeed);
+    createPublisher(100, 3);
+    for (int i = 0; i < 25; i++) {
+      publisher.publish(entry("{\"n\": " + i + "}"));
+    }
+    publisher.start();
+
+    List<List<String>> requests = capturedDetails(3);
+    Assert.assertEquals(Arrays.asList(10, 10, 5),
+        requests.stream().map(List::size).collect(Collectors.toList()));
+    Assert.assertEquals("{\"n\": 0}", requests.get(0).get(0));
+    Assert.assertEquals("{\"n\": 24}", requests.get(2).get(4));
+  }
+
+  @Test
+  public void requestSizeLimitTest() {
+    when(client.putEvents(any(PutEventsRequest.class)))
+        .thenAnswer(EventBridgePublisherTests::succeed);
+    createPublisher(100, 3);
+
+    // Two of these entries fit in a single 256KB request, but three do not
+    char[] chars = new char[100 * 1024];
+    Arrays.fill(chars, 'x');
+    String detail = new String(chars);
+    for (int i = 0; i < 3; i++) {
+      publisher.publish(entry(detail));
+    }
+    publisher.start();
+
+    List<List<String>> requests = capturedDetails(2);
+    Assert.assertEquals(2, requests.get(0).size());
+    Assert.assertEquals(1, requests.get(1).size());
+  }
+
+  @Test
+  public void partialFailureRetryTest() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    when(client.putEvents(any(PutEventsRequest.class))).thenAnswer(invocation -> {
+      if (calls.getAndIncrement() > 0) {
+        return succeed(invocation);
+      }
+      return PutEventsResponse.builder()
+          .failedEntryCount(1)
+          .entries(
+              PutEventsResultEntry.builder().eventId("event-0").build(),
+              PutEventsResultEntry.builder()
+                  .errorCode("ThrottlingException")
+                  .errorMessage("Rate exceeded")
+                  .build(),
+              PutEventsResultEntry.builder().eventId("event-2").build())
+          .build();
+    });
+    createPublisher(100, 3);
+    publisher.publish(entry("first"));
+    publisher.publish(entry("second"));
+    publisher.publish(entry("third"));
+    publisher.start();
+
+    // Only the failed entry is sent again
+    List<List<String>> requests = capturedDetails(2);
+    Assert.assertEquals(Arrays.asList("first", "second", "third"), requests.get(0));
+    Assert.assertEquals(Arrays.asList("second"), requests.get(1));
+    awaitCount("eventbridge.events.published", 3.0);
+    Assert.assertEquals(1.0, count("eventbridge.events.retried"), 0.0);
+    Assert.assertEquals(0.0, count("eventbridge.events.dropped"), 0.0);
+  }
+
+  @Test
+  public void maxRetriesTest() throws Exception {
+    when(client.putEvents(any(PutEventsRequest.class)))
+        .thenThrow(SdkClientException.create("Unable to reach EventBridge"));
+    createPublisher(100, 2);
+    publisher.publish(entry("doomed"));
+    publisher.start();
+
+    // The initial attempt and two retries are made, after which the entry is dropped
+    verify(client, timeout(5000).times(3)).putEvents(any(PutEventsRequest.class));
+    awaitCount("eventbridge.events.dropped", 1.0);
+    Assert.assertEquals(2.0, count("eventbridge.events.retried"), 0.0);
+    Thread.sleep(1000L);
+    verify(client, times(3)).putEvents(any(PutEventsRequest.class));
+  }
+
+  @Test
+  public void queueFullTest() {
+    when(client.putEvents(any(PutEventsRequest.class)))
+        .thenAnswer(EventBridgePublisherTests::succeed);
+    createPublisher(2, 3);
+    publisher.publish(entry("first"));
+    publisher.publish(entry("second"));
+    publisher.publish(entry("third"));
+    Assert.assertEquals(1.0, count("eventbridge.events.dropped"), 0.0);
+
+    publisher.start();
+    List<List<String>> requests = capturedDetails(1);
+    Assert.assertEquals(Arrays.asList("first", "second"), requests.get(0));
+  }
+
+  @Test
+  public void drainOnShutdownTest() {
+    when(client.putEvents(any(PutEventsRequest.class)))
+        .thenAnswer(EventBridgePublisherTests::succeed);
+
+    // The flush interval is long enough that only shutdown can cause the batch to be sent
+    publisher = new EventBridgePublisher(client, 10, 60000L, 100, 3);
+    publisher.bindTo(registry);
+    publisher.start();
+    publisher.publish(entry("first"));
+    publisher.publish(entry("second"));
+    publisher.shutdown();
+
+    verify(client, times(1)).putEvents(any(PutEventsRequest.class));
+    Assert.assertEquals(2.0, count("eventbridge.events.published"), 0.0);
+
+    // Entries published after shutdown are dropped
+    publisher.publish(entry("late"));
+    Assert.assertEquals(1.0, count("eventbridge.events.dropped"), 0.0);
+  }
+
+  @Test
+  public void publishAndWaitTest() {
+    AtomicInteger calls = new AtomicInteger();
+    when(client.putEvents(any(PutEventsRequest.class))).thenAnswer(invocation -> {
+      PutEventsResponse response = succeed(invocation);
+      if (calls.getAndIncrement() > 0) {
+        return response;
+      }
+      List<PutEventsResultEntry> results = new ArrayList<>(response.entries());
+      results.set(1, PutEventsResultEntry.builder()
+          .errorCode("ThrottlingException")
+          .errorMessage("Rate exceeded")
+          .build());
+      return PutEventsResponse.builder().failedEntryCount(1).entries(results).build();
+    });
+    createPublisher(100, 3);
+    List<PutEventsRequestEntry> entries = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      entries.add(entry("{\"n\": " + i + "}"));
+    }
+
+    // Entries are sent on the calling thread, and failures are reported rather than retried
+    List<String> errors = publisher.publishAndWait(entries);
+    Assert.assertEquals(12, errors.size());
+    Assert.assertEquals("ThrottlingException Rate exceeded", errors.get(1));
+    Assert.assertEquals(11, errors.stream().filter(error -> error == null).count());
+    List<List<String>> requests = capturedDetails(2);
+    Assert.assertEquals(10, requests.get(0).size());
+    Assert.assertEquals(2, requests.get(1).size());
+    Assert.assertEquals(11.0, count("eventbridge.events.published"), 0.0);
+    Assert.assertEquals(0.0, count("eventbridge.events.retried"), 0.0);
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.test.aws;
+
+import io.studytracker.aws.S3ObjectResource;
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ResourceRegionHttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.util.StreamUtils;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+public class S3ObjectResourceTests {
+
+  private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+  private S3Client client;
+
+  @Before
+  public void doBefore() {
+    client = Mockito.mock(S3Client.class);
+    Mockito.when(client.headObject(Mockito.any(HeadObjectRequest.class)))
+        .thenReturn(HeadObjectResponse.builder()
+            .contentLength((long) CONTENT.length)
+            .lastModified(Instant.now())
+            .build());
+    Mockito.when(client.getObject(Mockito.any(GetObjectRequest.class)))
+        .thenAnswer(invocation -> {
+          GetObjectRequest request = invocation.getArgument(0);
+          int start = request.range() == null ? 0
+              : Integer.parseInt(request.range().replace("bytes=", "").replace("-", ""));
+          return new ResponseInputStream<>(GetObjectResponse.builder().build(),
+              AbortableInputStream.create(
+                  new ByteArrayInputStream(CONTENT, start, CONTENT.length - start)));
+        });
+  }
+
+  private GetObjectRequest verifyGetObject() {
+    ArgumentCaptor<GetObjectRequest> captor = ArgumentCaptor.forClass(GetObjectRequest.class);
+    Mockito.verify(client, Mockito.times(1)).getObject(captor.capture());
+    return captor.getValue();
+  }
+
+  @Test
+  public void readObjectTest() throws Exception {
+    S3ObjectResource resource = new S3ObjectResource(client, "bucket", "path/to/file.txt");
+    Assert.assertTrue(resource.exists());
+    Assert.assertEquals(CONTENT.length, resource.contentLength());
+    Assert.assertEquals("file.txt", resource.getFilename());
+
+    // The object is not requested until it is read
+    InputStream inputStream = resource.getInputStream();
+    Mockito.verify(client, Mockito.never()).getObject(Mockito.any(GetObjectRequest.class));
+    try (InputStream in = inputStream) {
+      Assert.assertArrayEquals(CONTENT, StreamUtils.copyToByteArray(in));
+    }
+
+    // Metadata is only fetched once
+    Mockito.verify(client, Mockito.times(1)).headObject(Mockito.any(HeadObjectRequest.class));
+    GetObjectRequest request = verifyGetObject();
+    Assert.assertEquals("bucket", request.bucket());
+    Assert.assertEquals("path/to/file.txt", request.key());
+    Assert.assertNull(request.range());
+  }
+
+  @Test
+  public void rangeRequestTest() throws Exception {
+    HeadObjectResponse metadata = HeadObjectResponse.builder()
+        .contentLength((long) CONTENT.length)
+        .lastModified(Instant.now())
+        .build();
+    S3ObjectResource resource = new S3ObjectResource(client, "bucket", "file.txt", metadata);
+
+    // Write the region the same way Spring MVC does when serving a Range request
+    ResourceRegion region = HttpRange.parseRanges("bytes=4-7").get(0).toResourceRegion(resource);
+    MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+    new ResourceRegionHttpMessageConverter()
+        .write(region, MediaType.APPLICATION_OCTET_STREAM, outputMessage);
+
+    Assert.assertEquals("4567", outputMessage.getBodyAsString(StandardCharsets.UTF_8));
+    Assert.assertEquals("bytes 4-7/10",
+        outputMessage.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+    Assert.assertEquals("bytes=4-", verifyGetObject().range());
+    Mockito.verify(client, Mockito.never()).headObject(Mockito.any(HeadObjectRequest.class));
+  }
+
+  @Test
+  public void closeUnreadStreamTest() throws Exception {
+    S3ObjectResource resource = new S3ObjectResource(client, "bucket", "file.txt");
+    resource.getInputStream().close();
+    Mockito.verify(client, Mockito.never()).getObject(Mockito.any(GetObjectRequest.class));
+  }
+
+  @Test
+  public void missingObjectTest() throws Exception {
+    Mockito.when(client.headObject(Mockito.any(HeadObjectRequest.class)))
+        .thenThrow(NoSuchKeyException.builder().message("Not found").build());
+    S3ObjectResource resource = new S3ObjectResource(client, "bucket", "missing.txt");
+    Assert.assertFalse(resource.exists());
+    Exception exception = null;
+    try {
+      resource.contentLength();
+    } catch (Exception e) {
+      exception = e;
+    }
+    Assert.assertTrue(exception instanceof FileNotFoundException);
+  }
+
+}
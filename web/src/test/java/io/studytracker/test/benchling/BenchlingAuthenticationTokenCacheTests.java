@@ -0,0 +1,165 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.test.benchling;
+
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.studytracker.benchling.api.BenchlingAuthenticationTokenCache;
+import io.studytracker.benchling.api.BenchlingElnRestClient;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseCreator;
+import org.springframework.web.client.RestTemplate;
+
+public class BenchlingAuthenticationTokenCacheTests {
+
+  private static final String TOKEN_URL = "https://benchling.example.com/api/v2/token";
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private MockRestServiceServer server;
+
+  private BenchlingAuthenticationTokenCache cache;
+
+  @Before
+  public void before() throws Exception {
+    RestTemplate restTemplate = new RestTemplate();
+    server = MockRestServiceServer.bindTo(restTemplate).build();
+    BenchlingElnRestClient client = new BenchlingElnRestClient();
+    ReflectionTestUtils.setField(client, "restTemplate", restTemplate);
+    ReflectionTestUtils.setField(client, "rootUrl", new URL("https://benchling.example.com"));
+    cache = new BenchlingAuthenticationTokenCache(client, clock::get);
+  }
+
+  @After
+  public void after() {
+    cache.shutdown();
+  }
+
+  private static ResponseCreator token(String accessToken) {
+    return withSuccess(
+        "{\"access_token\": \"" + accessToken + "\", \"expires_in\": 3600,"
+            + " \"token_type\": \"Bearer\"}",
+        MediaType.APPLICATION_JSON);
+  }
+
+  private void expectToken(ResponseCreator response) {
+    server
+        .expect(ExpectedCount.once(), requestTo(TOKEN_URL))
+        .andExpect(method(HttpMethod.POST))
+        .andRespond(response);
+  }
+
+  @Test
+  public void reuseTokenTest() {
+    expectToken(token("first"));
+    Assert.assertEquals("first", cache.getAccessToken("client", "secret"));
+    clock.set(TimeUnit.MINUTES.toNanos(30));
+    Assert.assertEquals("first", cache.getAccessToken("client", "secret"));
+    server.verify();
+  }
+
+  @Test
+  public void expiredTokenTest() {
+    expectToken(token("first"));
+    expectToken(token("second"));
+    Assert.assertEquals("first", cache.getAccessToken("client", "secret"));
+
+    // Tokens are not used within the expiry margin
+    clock.set(TimeUnit.SECONDS.toNanos(3600 - 10));
+    Assert.assertEquals("second", cache.getAccessToken("client", "secret"));
+    server.verify();
+  }
+
+  @Test
+  public void refreshAheadTest() throws Exception {
+    expectToken(token("first"));
+    expectToken(token("second"));
+    Assert.assertEquals("first", cache.getAccessToken("client", "secret"));
+
+    // Past the refresh point, the cached token is still returned while a new one is fetched
+    clock.set(TimeUnit.SECONDS.toNanos(3000));
+    Assert.assertEquals("first", cache.getAccessToken("client", "secret"));
+
+    long deadline = System.currentTimeMillis() + 5000L;
+    String token = cache.getAccessToken("client", "secret");
+    while (!"second".equals(token) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+      token = cache.getAccessToken("client", "secret");
+    }
+    Assert.assertEquals("second", token);
+    server.verify();
+  }
+
+  @Test
+  public void concurrentRefreshTest() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    expectToken(request -> {
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return token("shared").createResponse(request);
+    });
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    cache.bindTo(registry);
+
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(() -> cache.getAccessToken("client", "secret")));
+      }
+
+      // Wait until every caller is waiting on the refresh before letting it complete
+      long deadline = System.currentTimeMillis() + 5000L;
+      while (registry.get("benchling.auth.token.requests").tag("result", "miss")
+          .functionCounter().count() < threads && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10L);
+      }
+      release.countDown();
+
+      for (Future<String> future : futures) {
+        Assert.assertEquals("shared", future.get(5, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    server.verify();
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.test.benchling;
+
+import io.studytracker.benchling.api.BenchlingEntryTemplateCache;
+import io.studytracker.eln.NotebookTemplate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BenchlingEntryTemplateCacheTests {
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private BenchlingEntryTemplateCache cache;
+
+  @Before
+  public void before() {
+    loads.set(0);
+    cache =
+        new BenchlingEntryTemplateCache(
+            () -> {
+              loads.incrementAndGet();
+              return Arrays.asList(
+                  template("tmpl_1", "Cell Culture Protocol"),
+                  template("tmpl_2", "Cell Line Characterization"),
+                  template("tmpl_3", "In Vivo Study Summary"),
+                  template("tmpl_4", "Assay-Summary (v2)"));
+            },
+            60000L);
+  }
+
+  @After
+  public void after() {
+    cache.shutdown();
+  }
+
+  private static NotebookTemplate template(String id, String name) {
+    NotebookTemplate template = new NotebookTemplate();
+    template.setReferenceId(id);
+    template.setName(name);
+    return template;
+  }
+
+  private List<String> search(String keyword) {
+    return cache.search(keyword).stream()
+        .map(NotebookTemplate::getReferenceId)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void prefixSearchTest() {
+    Assert.assertEquals(Arrays.asList("tmpl_1", "tmpl_2"), search("cell"));
+    Assert.assertEquals(Arrays.asList("tmpl_1", "tmpl_2"), search("CE"));
+    Assert.assertEquals(Arrays.asList("tmpl_2"), search("cell char"));
+    Assert.assertEquals(Arrays.asList("tmpl_3", "tmpl_4"), search("summ"));
+    Assert.assertEquals(Arrays.asList("tmpl_4"), search("summary v2"));
+    Assert.assertEquals(4, search("").size());
+    Assert.assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void substringFallbackTest() {
+    Assert.assertEquals(Arrays.asList("tmpl_2"), search("racter"));
+    Assert.assertTrue(search("xyz").isEmpty());
+  }
+
+  @Test
+  public void findByIdTest() {
+    Assert.assertTrue(cache.findById("tmpl_3").isPresent());
+    Assert.assertEquals("In Vivo Study Summary", cache.findById("tmpl_3").get().getName());
+    Assert.assertFalse(cache.findById("tmpl_missing").isPresent());
+    Assert.assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void invalidateTest() {
+    Assert.assertEquals(4, cache.findAll().size());
+    Assert.assertEquals(1, loads.get());
+    cache.invalidate();
+    Assert.assertEquals(4, cache.findAll().size());
+    Assert.assertEquals(2, loads.get());
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.test.benchling;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import io.studytracker.benchling.api.BenchlingElnRestClient;
+import io.studytracker.benchling.api.BenchlingFolderTreeLoader;
+import io.studytracker.benchling.api.entities.BenchlingEntry;
+import io.studytracker.benchling.api.entities.BenchlingFolder;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+public class BenchlingFolderTreeLoaderTests {
+
+  private static final String AUTH_HEADER = "Bearer token";
+
+  private MockRestServiceServer server;
+
+  private BenchlingFolderTreeLoader loader;
+
+  @Before
+  public void before() throws Exception {
+    RestTemplate restTemplate = new RestTemplate();
+    server = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+    BenchlingElnRestClient client = new BenchlingElnRestClient();
+    ReflectionTestUtils.setField(client, "restTemplate", restTemplate);
+    ReflectionTestUtils.setField(client, "rootUrl", new URL("https://benchling.example.com"));
+    loader = new BenchlingFolderTreeLoader(client, 2);
+  }
+
+  @After
+  public void after() {
+    loader.shutdown();
+  }
+
+  private static BenchlingFolder folder(String id) {
+    BenchlingFolder folder = new BenchlingFolder();
+    folder.setId(id);
+    folder.setName(id);
+    folder.setProjectId("src_project");
+    return folder;
+  }
+
+  private void expectChildren(String parentFolderId, String json) {
+    server
+        .expect(
+            requestTo(
+                allOf(
+                    containsString("/api/v2/folders"),
+                    containsString("parentFolderId=" + parentFolderId))))
+        .andExpect(method(HttpMethod.GET))
+        .andRespond(withSuccess(json, MediaType.APPLICATION_JSON));
+  }
+
+  @Test
+  public void loadOneLevelTest() {
+    expectChildren(
+        "lib_root",
+        "{\"folders\": [{\"id\": \"lib_a\", \"name\": \"A\", \"parentFolderId\": \"lib_root\"},"
+            + " {\"id\": \"lib_b\", \"name\": \"B\", \"parentFolderId\": \"lib_root\"}]}");
+    Map<String, List<BenchlingFolder>> children =
+        loader.loadChildren(folder("lib_root"), 1, AUTH_HEADER);
+    server.verify();
+    Assert.assertEquals(1, children.size());
+    Assert.assertEquals(2, children.get("lib_root").size());
+    Assert.assertFalse(children.containsKey("lib_a"));
+  }
+
+  @Test
+  public void loadEntireTreeTest() {
+    expectChildren(
+        "lib_root",
+        "{\"folders\": [{\"id\": \"lib_a\", \"name\": \"A\", \"parentFolderId\": \"lib_root\"},"
+            + " {\"id\": \"lib_b\", \"name\": \"B\", \"parentFolderId\": \"lib_root\"}]}");
+    expectChildren(
+        "lib_a",
+        "{\"folders\": [{\"id\": \"lib_c\", \"name\": \"C\", \"parentFolderId\": \"lib_a\"}]}");
+    expectChildren("lib_b", "{\"folders\": []}");
+    expectChildren("lib_c", "{\"folders\": []}");
+    Map<String, List<BenchlingFolder>> children =
+        loader.loadChildren(folder("lib_root"), -1, AUTH_HEADER);
+    server.verify();
+    Assert.assertEquals(4, children.size());
+    Assert.assertEquals("lib_c", children.get("lib_a").get(0).getId());
+    Assert.assertTrue(children.get("lib_c").isEmpty());
+  }
+
+  @Test
+  public void loadFolderEntriesTest() {
+    server
+        .expect(
+            requestTo(
+                allOf(
+                    containsString("/api/v2/entries"),
+                    containsString("folderId=lib_a"),
+                    not(containsString("nextToken")))))
+        .andExpect(method(HttpMethod.GET))
+        .andRespond(
+            withSuccess(
+                "{\"entries\": [{\"id\": \"etr_1\", \"folderId\": \"lib_a\"}],"
+                    + " \"nextToken\": \"page2\"}",
+                MediaType.APPLICATION_JSON));
+    server
+        .expect(
+            requestTo(
+                allOf(
+                    containsString("/api/v2/entries"),
+                    containsString("folderId=lib_a"),
+                    containsString("nextToken=page2"))))
+        .andExpect(method(HttpMethod.GET))
+        .andRespond(
+            withSuccess(
+                "{\"entries\": [{\"id\": \"etr_2\", \"folderId\": \"lib_a\"}]}",
+                MediaType.APPLICATION_JSON));
+    server
+        .expect(
+            requestTo(
+                allOf(containsString("/api/v2/entries"), containsString("folderId=lib_b"))))
+        .andExpect(method(HttpMethod.GET))
+        .andRespond(withSuccess("{\"entries\": []}", MediaType.APPLICATION_JSON));
+
+    Map<String, List<BenchlingEntry>> entries =
+        loader.loadFolderEntries(Arrays.asList("lib_a", "lib_b"), AUTH_HEADER);
+    server.verify();
+    Assert.assertEquals(2, entries.size());
+    Assert.assertEquals(2, entries.get("lib_a").size());
+    Assert.assertEquals("etr_2", entries.get("lib_a").get(1).getId());
+    Assert.assertTrue(entries.get("lib_b").isEmpty());
+  }
+}
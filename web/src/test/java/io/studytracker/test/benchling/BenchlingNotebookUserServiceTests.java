@@ -0,0 +1,135 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.test.benchling;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import io.studytracker.benchling.api.BenchlingElnRestClient;
+import io.studytracker.benchling.api.BenchlingNotebookUserService;
+import io.studytracker.config.properties.BenchlingProperties;
+import io.studytracker.eln.NotebookUser;
+import io.studytracker.model.User;
+import io.studytracker.model.UserConfigurations;
+import io.studytracker.repository.UserRepository;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+public class BenchlingNotebookUserServiceTests {
+
+  private static final String ROOT_URL = "https://benchling.example.com";
+
+  private MockRestServiceServer server;
+
+  private UserRepository userRepository;
+
+  private BenchlingNotebookUserService userService;
+
+  @Before
+  public void before() throws Exception {
+    RestTemplate restTemplate = new RestTemplate();
+    server = MockRestServiceServer.bindTo(restTemplate).build();
+    BenchlingElnRestClient client = new BenchlingElnRestClient();
+    ReflectionTestUtils.setField(client, "restTemplate", restTemplate);
+    ReflectionTestUtils.setField(client, "rootUrl", new URL(ROOT_URL));
+    BenchlingProperties properties = new BenchlingProperties();
+    properties.getApi().setToken("token");
+    userRepository = Mockito.mock(UserRepository.class);
+    userService = new BenchlingNotebookUserService();
+    ReflectionTestUtils.setField(userService, "client", client);
+    ReflectionTestUtils.setField(userService, "properties", properties);
+    ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+  }
+
+  private static User user(Long id, String email, String benchlingId) {
+    User user = new User();
+    user.setId(id);
+    user.setEmail(email);
+    if (benchlingId != null) {
+      user.addAttribute(UserConfigurations.BENCHLING_USER_ID, benchlingId);
+    }
+    return user;
+  }
+
+  private void expectUsers(String query, String json) {
+    server
+        .expect(requestTo(allOf(containsString("/api/v2/users"), containsString(query))))
+        .andExpect(method(HttpMethod.GET))
+        .andExpect(header("Authorization", "Basic token"))
+        .andRespond(withSuccess(json, MediaType.APPLICATION_JSON));
+  }
+
+  @Test
+  public void batchedLookupTest() {
+    User jsmith = user(1L, "jsmith@email.com", "ent_jsmith");
+    User ajohnson = user(2L, "ajohnson@email.com", null);
+    User rblack = user(3L, "rblack@email.com", null);
+
+    expectUsers(
+        "ids=ent_jsmith",
+        "{\"users\": [{\"id\": \"ent_jsmith\", \"handle\": \"jsmith\","
+            + " \"email\": \"jsmith@email.com\"}]}");
+    expectUsers(
+        "handles=ajohnson",
+        "{\"users\": [{\"id\": \"ent_ajohnson\", \"handle\": \"ajohnson\","
+            + " \"email\": \"ajohnson@email.com\"}]}");
+    server
+        .expect(requestTo(endsWith("/api/v2/users")))
+        .andExpect(method(HttpMethod.GET))
+        .andRespond(
+            withSuccess(
+                "{\"users\": [{\"id\": \"ent_jsmith\", \"handle\": \"jsmith\","
+                    + " \"email\": \"jsmith@email.com\"}]}",
+                MediaType.APPLICATION_JSON));
+
+    Map<String, NotebookUser> users =
+        userService.findNotebookUsers(Arrays.asList(jsmith, ajohnson, rblack));
+    server.verify();
+    Assert.assertEquals(2, users.size());
+    Assert.assertEquals("ent_jsmith", users.get("jsmith@email.com").getReferenceId());
+    Assert.assertEquals("ent_ajohnson", users.get("ajohnson@email.com").getReferenceId());
+    Assert.assertFalse(users.containsKey("rblack@email.com"));
+
+    // Newly-resolved IDs are saved, unchanged ones are not
+    Assert.assertEquals(
+        "ent_ajohnson", ajohnson.getAttributes().get(UserConfigurations.BENCHLING_USER_ID));
+    Mockito.verify(userRepository).save(ajohnson);
+    Mockito.verify(userRepository, Mockito.never()).save(jsmith);
+
+    // Users that were not found are not looked up again
+    server.reset();
+    Assert.assertTrue(
+        userService.findNotebookUsers(Collections.singletonList(rblack)).isEmpty());
+    server.verify();
+  }
+}
@@ -16,14 +16,17 @@
 
 package io.studytracker.test.benchling;
 
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -83,4 +86,25 @@ public class NotebookServiceControllerTest {
     ;
   }
 
+  @Test
+  public void refreshEntryTemplatesTest() throws Exception {
+    mockMvc
+        .perform(post("/api/internal/eln/entrytemplate/refresh")
+            .with(user("jsmith@email.com")).with(csrf()))
+        .andExpect(status().isForbidden());
+
+    mockMvc
+        .perform(post("/api/internal/eln/entrytemplate/refresh")
+            .with(user("rblack@email.com")).with(csrf()))
+        .andExpect(status().isOk());
+
+    mockMvc
+        .perform(get("/api/internal/eln/entrytemplate")
+            .with(user(username)).with(csrf()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", not(empty())))
+        .andExpect(jsonPath("$[0]", hasKey("referenceId")))
+        .andExpect(jsonPath("$[0].referenceId", notNullValue()));
+  }
+
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.test.egnyte;
+
+import io.studytracker.egnyte.rest.EgnyteRateLimiter;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+public class EgnyteRateLimiterTests {
+
+  private static HttpHeaders retryAfter(String value) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.RETRY_AFTER, value);
+    return headers;
+  }
+
+  @Test
+  public void tokenRefillTest() throws Exception {
+    EgnyteRateLimiter limiter = new EgnyteRateLimiter(10, 2, 3);
+
+    // The initial burst is available immediately
+    limiter.acquire();
+    limiter.acquire();
+    Assert.assertEquals(0.0, limiter.getTotalWaitSeconds(), 0.0);
+
+    // Once the bucket is empty, callers wait for the next token
+    limiter.acquire();
+    double waited = limiter.getTotalWaitSeconds();
+    Assert.assertTrue(waited > 0.0);
+    Assert.assertTrue(waited < 0.11);
+
+    // Tokens refill over time, but never beyond the burst size
+    Thread.sleep(500L);
+    limiter.acquire();
+    limiter.acquire();
+    Assert.assertEquals(waited, limiter.getTotalWaitSeconds(), 0.0);
+    limiter.acquire();
+    Assert.assertTrue(limiter.getTotalWaitSeconds() > waited);
+    Assert.assertEquals(6, limiter.getRequestCount());
+  }
+
+  @Test
+  public void retryAfterParsingTest() {
+    Assert.assertEquals(-1L, EgnyteRateLimiter.parseRetryAfter(null));
+    Assert.assertEquals(-1L, EgnyteRateLimiter.parseRetryAfter(new HttpHeaders()));
+    Assert.assertEquals(-1L, EgnyteRateLimiter.parseRetryAfter(retryAfter(" ")));
+    Assert.assertEquals(-1L, EgnyteRateLimiter.parseRetryAfter(retryAfter("soon")));
+    Assert.assertEquals(5000L, EgnyteRateLimiter.parseRetryAfter(retryAfter("5")));
+    Assert.assertEquals(60000L, EgnyteRateLimiter.parseRetryAfter(retryAfter("3600")));
+
+    String date = ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(30)
+        .format(DateTimeFormatter.RFC_1123_DATE_TIME);
+    long millis = EgnyteRateLimiter.parseRetryAfter(retryAfter(date));
+    Assert.assertTrue(millis > 28000L);
+    Assert.assertTrue(millis <= 30000L);
+
+    String past = ZonedDateTime.now(ZoneOffset.UTC).minusSeconds(30)
+        .format(DateTimeFormatter.RFC_1123_DATE_TIME);
+    Assert.assertEquals(0L, EgnyteRateLimiter.parseRetryAfter(retryAfter(past)));
+  }
+
+  @Test
+  public void retryAfterPausesRequestsTest() {
+    EgnyteRateLimiter limiter = new EgnyteRateLimiter(100, 10, 3);
+    Assert.assertTrue(limiter.backoff(0, retryAfter("1")));
+    limiter.acquire();
+    Assert.assertTrue(limiter.getTotalWaitSeconds() > 0.9);
+  }
+
+  @Test
+  public void retryCapTest() {
+    EgnyteRateLimiter limiter = new EgnyteRateLimiter(1, 1, 2);
+    Assert.assertTrue(limiter.isThrottled(HttpStatus.TOO_MANY_REQUESTS));
+    Assert.assertTrue(limiter.isThrottled(HttpStatus.SERVICE_UNAVAILABLE));
+    Assert.assertFalse(limiter.isThrottled(HttpStatus.INTERNAL_SERVER_ERROR));
+
+    Assert.assertTrue(limiter.backoff(0, new HttpHeaders()));
+    Assert.assertTrue(limiter.backoff(1, new HttpHeaders()));
+    Assert.assertFalse(limiter.backoff(2, new HttpHeaders()));
+    Assert.assertEquals(3, limiter.getThrottledCount());
+    Assert.assertEquals(2, limiter.getRetryCount());
+  }
+
+  @Test
+  public void interruptedAcquireTest() {
+    EgnyteRateLimiter limiter = new EgnyteRateLimiter(1, 1, 3);
+    limiter.acquire();
+    Thread.currentThread().interrupt();
+    limiter.acquire();
+    Assert.assertTrue(Thread.interrupted());
+  }
+
+}
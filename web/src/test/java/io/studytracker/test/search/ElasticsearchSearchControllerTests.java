@@ -20,7 +20,9 @@ import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -28,10 +30,13 @@ import io.studytracker.Application;
 import io.studytracker.example.ExampleDataGenerator;
 import io.studytracker.exception.RecordNotFoundException;
 import io.studytracker.model.Study;
+import io.studytracker.model.User;
+import io.studytracker.search.SearchReindexService;
 import io.studytracker.search.elasticsearch.ElasticsearchSearchService;
 import io.studytracker.service.StudyService;
 import io.studytracker.service.UserService;
 import org.hamcrest.Matchers;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -44,7 +49,10 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 
-@SpringBootTest(classes = Application.class, webEnvironment = WebEnvironment.RANDOM_PORT)
+@SpringBootTest(
+    classes = Application.class,
+    webEnvironment = WebEnvironment.RANDOM_PORT,
+    properties = "search.reindex-on-startup=false")
 @RunWith(SpringRunner.class)
 @AutoConfigureMockMvc
 @ActiveProfiles({"web-elasticsearch-test", "example"})
@@ -60,6 +68,8 @@ public class ElasticsearchSearchControllerTests {
 
   @Autowired private ElasticsearchSearchService searchService;
 
+  @Autowired private SearchReindexService searchReindexService;
+
   private String username;
 
   @Before
@@ -92,4 +102,51 @@ public class ElasticsearchSearchControllerTests {
         .andExpect(jsonPath("$.hits[0].document.data", hasKey("code")))
         .andExpect(jsonPath("$.hits[0].document.data.code", Matchers.is("PPB-00001")));
   }
+
+  @Test
+  public void searchIndexProgressTest() throws Exception {
+    User admin = userService.findAll().stream().filter(User::isAdmin).findFirst().orElseThrow();
+    User user = userService.findAll().stream().filter(u -> !u.isAdmin()).findFirst().orElseThrow();
+
+    mockMvc
+        .perform(get("/api/internal/search/index").with(user(user.getEmail())))
+        .andExpect(status().isForbidden());
+
+    mockMvc
+        .perform(get("/api/internal/search/index").with(user(admin.getEmail())))
+        .andDo(MockMvcResultHandlers.print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(2)))
+        .andExpect(jsonPath("$[0]", hasKey("documentType")))
+        .andExpect(jsonPath("$[0].total", Matchers.is(ExampleDataGenerator.STUDY_COUNT)));
+  }
+
+  @Test
+  public void startSearchReindexTest() throws Exception {
+    User admin = userService.findAll().stream().filter(User::isAdmin).findFirst().orElseThrow();
+    User user = userService.findAll().stream().filter(u -> !u.isAdmin()).findFirst().orElseThrow();
+
+    mockMvc
+        .perform(post("/api/internal/search/index").with(user(user.getEmail())).with(csrf()))
+        .andExpect(status().isForbidden());
+
+    mockMvc
+        .perform(post("/api/internal/search/index?restart=true")
+            .with(user(admin.getEmail())).with(csrf()))
+        .andDo(MockMvcResultHandlers.print())
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$", hasSize(2)));
+
+    long timeout = System.currentTimeMillis() + 60000L;
+    while (searchReindexService.isRunning()) {
+      Assert.assertTrue("Reindex did not complete", System.currentTimeMillis() < timeout);
+      Thread.sleep(100L);
+    }
+
+    mockMvc
+        .perform(get("/api/internal/search/index").with(user(admin.getEmail())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].status", Matchers.is("COMPLETE")))
+        .andExpect(jsonPath("$[0].indexed", Matchers.is(ExampleDataGenerator.STUDY_COUNT)));
+  }
 }
@@ -17,6 +17,7 @@
 package io.studytracker.test.search;
 
 import io.studytracker.Application;
+import io.studytracker.config.properties.ElasticsearchProperties;
 import io.studytracker.example.ExampleDataGenerator;
 import io.studytracker.exception.RecordNotFoundException;
 import io.studytracker.mapstruct.dto.elasticsearch.ElasticsearchAssayDocument;
@@ -30,6 +31,7 @@ import io.studytracker.search.DocumentType;
 import io.studytracker.search.GenericSearchHit;
 import io.studytracker.search.GenericSearchHits;
 import io.studytracker.search.elasticsearch.AssayIndexRepository;
+import io.studytracker.search.elasticsearch.BulkIndexResult;
 import io.studytracker.search.elasticsearch.ElasticsearchSearchService;
 import io.studytracker.search.elasticsearch.StudyIndexRepository;
 import java.util.ArrayList;
@@ -45,7 +47,10 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
 @RunWith(SpringRunner.class)
-@SpringBootTest(classes = Application.class, webEnvironment = WebEnvironment.RANDOM_PORT)
+@SpringBootTest(
+    classes = Application.class,
+    webEnvironment = WebEnvironment.RANDOM_PORT,
+    properties = {"search.reindex-on-startup=false", "elasticsearch.bulk.max-documents=2"})
 @ActiveProfiles({"test", "example", "elasticsearch-test"})
 public class ElasticsearchSearchServiceTests {
 
@@ -65,6 +70,9 @@ public class ElasticsearchSearchServiceTests {
   @Autowired
   private AssayRepository assayRepository;
 
+  @Autowired
+  private ElasticsearchProperties elasticsearchProperties;
+
   @Before
   public void before() {
     exampleDataGenerator.populateDatabase();
@@ -83,6 +91,24 @@ public class ElasticsearchSearchServiceTests {
     elasticsearchSearchService.indexStudies(studyList);
     Assert.assertEquals(ExampleDataGenerator.STUDY_COUNT, studyIndexRepository.count());
   }
+
+  @Test
+  public void bulkIndexStudiesTest() {
+    Assert.assertEquals(0, studyIndexRepository.count());
+    List<Study> studyList = new ArrayList<>();
+    for (Study s : studyRepository.findAll()) {
+      Study study = studyRepository.findById(s.getId()).orElseThrow(RecordNotFoundException::new);
+      studyList.add(study);
+    }
+    Assert.assertEquals(2, elasticsearchProperties.getBulk().getMaxDocuments().intValue());
+    BulkIndexResult result = elasticsearchSearchService.bulkIndexStudies(studyList);
+    Assert.assertFalse(result.hasFailures());
+    Assert.assertEquals(ExampleDataGenerator.STUDY_COUNT, result.getIndexed());
+    Assert.assertEquals((ExampleDataGenerator.STUDY_COUNT + 1) / 2, result.getRequests());
+    Assert.assertTrue(result.getBytes() > 0);
+    Assert.assertEquals(ExampleDataGenerator.STUDY_COUNT, studyIndexRepository.count());
+  }
+
   @Test
   public void searchStudyIndexTest() {
     this.indexStudiesTest();
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.test.search;
+
+import io.studytracker.config.properties.SearchProperties;
+import io.studytracker.events.StudyTrackerApplicationEvent;
+import io.studytracker.exception.SearchIndexException;
+import io.studytracker.model.Activity;
+import io.studytracker.model.Study;
+import io.studytracker.repository.AssayRepository;
+import io.studytracker.repository.StudyRepository;
+import io.studytracker.search.IncrementalSearchIndexer;
+import io.studytracker.search.SearchService;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+public class IncrementalSearchIndexerTests {
+
+  private static final long DELAY = 2000L;
+
+  private IncrementalSearchIndexer indexer;
+
+  private SearchService searchService;
+
+  private StudyRepository studyRepository;
+
+  @Before
+  public void before() {
+    searchService = Mockito.mock(SearchService.class);
+    SearchProperties searchProperties = new SearchProperties();
+    searchProperties.setEventIndexingDelay(DELAY);
+    indexer = new IncrementalSearchIndexer(Mockito.mock(PlatformTransactionManager.class));
+    ReflectionTestUtils.setField(indexer, "searchService", searchService);
+    ReflectionTestUtils.setField(indexer, "searchProperties", searchProperties);
+    studyRepository = Mockito.mock(StudyRepository.class);
+    ReflectionTestUtils.setField(indexer, "studyRepository", studyRepository);
+    ReflectionTestUtils.setField(indexer, "assayRepository", Mockito.mock(AssayRepository.class));
+  }
+
+  private void studyChanged(Long id) {
+    Study study = new Study();
+    study.setId(id);
+    Activity activity = new Activity();
+    activity.setStudy(study);
+    indexer.onApplicationEvent(new StudyTrackerApplicationEvent(this, activity));
+  }
+
+  @Test
+  public void debounceTest() {
+    long start = System.currentTimeMillis();
+    studyChanged(1L);
+    studyChanged(1L);
+    studyChanged(2L);
+    Assert.assertEquals(2, indexer.getPendingCount());
+
+    // Nothing is indexed until the records have stopped changing
+    indexer.flush(start);
+    Mockito.verify(searchService, Mockito.never()).indexStudies(Mockito.any());
+    Assert.assertEquals(2, indexer.getPendingCount());
+
+    // Repeated changes are coalesced into a single batch
+    indexer.flush(start + DELAY + 1000L);
+    Mockito.verify(searchService, Mockito.times(1)).indexStudies(Mockito.any());
+    Assert.assertEquals(0, indexer.getPendingCount());
+  }
+
+  @Test
+  public void retryWithBackoffTest() {
+    Mockito.doThrow(new RuntimeException("Search is unavailable"))
+        .when(searchService).indexStudies(Mockito.any());
+
+    long now = System.currentTimeMillis();
+    studyChanged(1L);
+    now = now + DELAY + 1000L;
+    indexer.flush(now);
+    Mockito.verify(searchService, Mockito.times(1)).indexStudies(Mockito.any());
+    Assert.assertEquals(1, indexer.getPendingCount());
+
+    // Failed records are not retried until their backoff has elapsed
+    indexer.flush(now + DELAY);
+    Mockito.verify(searchService, Mockito.times(1)).indexStudies(Mockito.any());
+
+    // Each failure doubles the backoff, until the record is dropped
+    long retryDelay = DELAY * 2;
+    for (int attempt = 2; attempt <= IncrementalSearchIndexer.MAX_ATTEMPTS; attempt++) {
+      now = now + retryDelay;
+      indexer.flush(now);
+      Mockito.verify(searchService, Mockito.times(attempt)).indexStudies(Mockito.any());
+      retryDelay = retryDelay * 2;
+    }
+    Assert.assertEquals(0, indexer.getPendingCount());
+    indexer.flush(now + retryDelay);
+    Mockito.verify(searchService, Mockito.times(IncrementalSearchIndexer.MAX_ATTEMPTS))
+        .indexStudies(Mockito.any());
+  }
+
+  @Test
+  public void retrySucceedsTest() {
+    Mockito.doThrow(new RuntimeException("Search is unavailable"))
+        .doNothing()
+        .when(searchService).indexStudies(Mockito.any());
+
+    long now = System.currentTimeMillis() + DELAY + 1000L;
+    studyChanged(1L);
+    indexer.flush(now);
+    Assert.assertEquals(1, indexer.getPendingCount());
+    indexer.flush(now + DELAY * 2);
+    Mockito.verify(searchService, Mockito.times(2)).indexStudies(Mockito.any());
+    Assert.assertEquals(0, indexer.getPendingCount());
+  }
+
+  @Test
+  public void partialFailureTest() {
+    Mockito.doThrow(new SearchIndexException("Failed to index 1 documents",
+            Collections.singletonList(2L)))
+        .doNothing()
+        .when(searchService).indexStudies(Mockito.any());
+
+    long now = System.currentTimeMillis() + DELAY + 1000L;
+    studyChanged(1L);
+    studyChanged(2L);
+    studyChanged(3L);
+    indexer.flush(now);
+    Assert.assertEquals(1, indexer.getPendingCount());
+
+    // Only the record that failed is retried
+    indexer.flush(now + DELAY * 2);
+    Mockito.verify(searchService, Mockito.times(2)).indexStudies(Mockito.any());
+    Mockito.verify(studyRepository).findAllWithDetailsByIdIn(Collections.singletonList(2L));
+    Assert.assertEquals(0, indexer.getPendingCount());
+  }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.test.search;
+
+import io.studytracker.Application;
+import io.studytracker.example.ExampleDataGenerator;
+import io.studytracker.exception.SearchIndexException;
+import io.studytracker.model.SearchIndexCheckpoint;
+import io.studytracker.model.SearchIndexCheckpoint.Status;
+import io.studytracker.model.Study;
+import io.studytracker.repository.SearchIndexCheckpointRepository;
+import io.studytracker.repository.StudyRepository;
+import io.studytracker.search.DocumentType;
+import io.studytracker.search.SearchIndexProgress;
+import io.studytracker.search.SearchReindexService;
+import io.studytracker.search.elasticsearch.AssayIndexRepository;
+import io.studytracker.search.elasticsearch.ElasticsearchSearchService;
+import io.studytracker.search.elasticsearch.StudyIndexRepository;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+    classes = Application.class,
+    webEnvironment = WebEnvironment.RANDOM_PORT,
+    properties = {"search.reindex-on-startup=false", "search.reindex-chunk-size=2"})
+@ActiveProfiles({"test", "example", "elasticsearch-test"})
+public class SearchReindexServiceTests {
+
+  @Autowired private ExampleDataGenerator exampleDataGenerator;
+
+  @Autowired private SearchReindexService searchReindexService;
+
+  @Autowired private SearchIndexCheckpointRepository checkpointRepository;
+
+  @Autowired private StudyRepository studyRepository;
+
+  @Autowired private StudyIndexRepository studyIndexRepository;
+
+  @Autowired private AssayIndexRepository assayIndexRepository;
+
+  @SpyBean private ElasticsearchSearchService searchService;
+
+  @Before
+  public void before() {
+    exampleDataGenerator.populateDatabase();
+    checkpointRepository.deleteAll();
+    studyIndexRepository.deleteAll();
+    assayIndexRepository.deleteAll();
+  }
+
+  private void waitForReindex() throws Exception {
+    long timeout = System.currentTimeMillis() + 60000L;
+    while (searchReindexService.isRunning()) {
+      Assert.assertTrue("Reindex did not complete", System.currentTimeMillis() < timeout);
+      Thread.sleep(100L);
+    }
+  }
+
+  @Test
+  public void fullReindexTest() throws Exception {
+    Assert.assertTrue(searchReindexService.isEnabled());
+    Assert.assertTrue(searchReindexService.startReindex(false));
+    waitForReindex();
+
+    Assert.assertEquals(ExampleDataGenerator.STUDY_COUNT, studyIndexRepository.count());
+    Assert.assertEquals(ExampleDataGenerator.ASSAY_COUNT, assayIndexRepository.count());
+
+    List<SearchIndexProgress> progress = searchReindexService.getProgress();
+    Assert.assertEquals(2, progress.size());
+    for (SearchIndexProgress p : progress) {
+      Assert.assertEquals(Status.COMPLETE, p.getStatus());
+      Assert.assertEquals(p.getTotal(), p.getIndexed());
+      Assert.assertNotNull(p.getCompletedAt());
+    }
+  }
+
+  @Test
+  public void resumeReindexTest() throws Exception {
+    List<Long> ids = studyRepository.findIdsAfter(0L, PageRequest.of(0, 100));
+    Assert.assertEquals(ExampleDataGenerator.STUDY_COUNT, ids.size());
+
+    // Simulate a reindex that was interrupted after the first two studies
+    SearchIndexCheckpoint checkpoint = new SearchIndexCheckpoint(DocumentType.STUDY);
+    checkpoint.setStatus(Status.IN_PROGRESS);
+    checkpoint.setLastRecordId(ids.get(1));
+    checkpoint.setIndexedCount(2L);
+    checkpoint.setStartedAt(new Date());
+    checkpoint.setUpdatedAt(new Date());
+    checkpointRepository.save(checkpoint);
+
+    Assert.assertTrue(searchReindexService.startReindex(false));
+    waitForReindex();
+
+    // Only the studies after the checkpoint are indexed
+    Assert.assertEquals(ExampleDataGenerator.STUDY_COUNT - 2, studyIndexRepository.count());
+    Assert.assertEquals(ExampleDataGenerator.ASSAY_COUNT, assayIndexRepository.count());
+    checkpoint = checkpointRepository.findByDocumentType(DocumentType.STUDY).orElseThrow();
+    Assert.assertEquals(Status.COMPLETE, checkpoint.getStatus());
+    Assert.assertEquals(ExampleDataGenerator.STUDY_COUNT, checkpoint.getIndexedCount().intValue());
+    Assert.assertEquals(ids.get(ids.size() - 1), checkpoint.getLastRecordId());
+
+    // A restart discards the checkpoint and indexes everything
+    studyIndexRepository.deleteAll();
+    checkpoint.setStatus(Status.IN_PROGRESS);
+    checkpoint.setLastRecordId(ids.get(1));
+    checkpoint.setIndexedCount(2L);
+    checkpointRepository.save(checkpoint);
+
+    Assert.assertTrue(searchReindexService.startReindex(true));
+    waitForReindex();
+    Assert.assertEquals(ExampleDataGenerator.STUDY_COUNT, studyIndexRepository.count());
+    checkpoint = checkpointRepository.findByDocumentType(DocumentType.STUDY).orElseThrow();
+    Assert.assertEquals(ExampleDataGenerator.STUDY_COUNT, checkpoint.getIndexedCount().intValue());
+  }
+
+  @Test
+  public void failedDocumentTest() throws Exception {
+    List<Long> ids = studyRepository.findIdsAfter(0L, PageRequest.of(0, 100));
+    Long failingId = ids.get(0);
+
+    // One study can never be indexed, while the rest of its chunk is indexed normally
+    Mockito.doAnswer(invocation -> {
+      Collection<Study> studies = invocation.getArgument(0);
+      List<Study> indexable = studies.stream()
+          .filter(study -> !study.getId().equals(failingId))
+          .collect(Collectors.toList());
+      searchService.bulkIndexStudies(indexable);
+      if (indexable.size() < studies.size()) {
+        throw new SearchIndexException("Failed to index study",
+            Collections.singletonList(failingId));
+      }
+      return null;
+    }).when(searchService).indexStudies(Mockito.anyCollection());
+
+    Assert.assertTrue(searchReindexService.startReindex(false));
+    waitForReindex();
+
+    // The failed study is retried once, then skipped and left out of the indexed count
+    Mockito.verify(searchService, Mockito.times(2)).indexStudies(
+        Mockito.argThat((Collection<Study> studies) -> studies.stream()
+            .anyMatch(study -> study.getId().equals(failingId))));
+    Assert.assertEquals(ExampleDataGenerator.STUDY_COUNT - 1, studyIndexRepository.count());
+    SearchIndexCheckpoint checkpoint =
+        checkpointRepository.findByDocumentType(DocumentType.STUDY).orElseThrow();
+    Assert.assertEquals(Status.COMPLETE, checkpoint.getStatus());
+    Assert.assertEquals(
+        ExampleDataGenerator.STUDY_COUNT - 1, checkpoint.getIndexedCount().intValue());
+  }
+
+}
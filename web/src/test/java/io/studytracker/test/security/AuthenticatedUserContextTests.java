@@ -0,0 +1,83 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.test.security;
+
+import io.studytracker.model.User;
+import io.studytracker.security.AuthenticatedUserContext;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+public class AuthenticatedUserContextTests {
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private final Function<String, User> loader = username -> {
+    loads.incrementAndGet();
+    User user = new User();
+    user.setUsername(username);
+    return user;
+  };
+
+  @After
+  public void after() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  private static MockHttpServletRequest startRequest() {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    return request;
+  }
+
+  @Test
+  public void resolveOncePerRequestTest() {
+    MockHttpServletRequest request = startRequest();
+    User first = AuthenticatedUserContext.getUser("jsmith", loader);
+    User second = AuthenticatedUserContext.getUser("jsmith", loader);
+    Assert.assertEquals(1, loads.get());
+    Assert.assertSame(first, second);
+    Assert.assertTrue(request.getAttributeNames().hasMoreElements());
+
+    // A new request resolves the user again
+    startRequest();
+    User third = AuthenticatedUserContext.getUser("jsmith", loader);
+    Assert.assertEquals(2, loads.get());
+    Assert.assertNotSame(first, third);
+  }
+
+  @Test
+  public void differentUserTest() {
+    startRequest();
+    AuthenticatedUserContext.getUser("jsmith", loader);
+    User other = AuthenticatedUserContext.getUser("ajohnson", loader);
+    Assert.assertEquals(2, loads.get());
+    Assert.assertEquals("ajohnson", other.getUsername());
+  }
+
+  @Test
+  public void outsideRequestTest() {
+    AuthenticatedUserContext.getUser("jsmith", loader);
+    AuthenticatedUserContext.getUser("jsmith", loader);
+    Assert.assertEquals(2, loads.get());
+  }
+}
@@ -17,15 +17,22 @@
 package io.studytracker.test.service;
 
 import io.studytracker.Application;
+import io.studytracker.events.EventOutboxRelay;
 import io.studytracker.events.EventType;
+import io.studytracker.events.EventsService;
 import io.studytracker.events.util.StudyActivityUtils;
 import io.studytracker.example.ExampleDataGenerator;
 import io.studytracker.exception.RecordNotFoundException;
 import io.studytracker.model.Activity;
+import io.studytracker.model.EventOutboxEntry;
 import io.studytracker.model.Status;
 import io.studytracker.model.Study;
+import io.studytracker.repository.EventOutboxRepository;
 import io.studytracker.repository.StudyRepository;
 import io.studytracker.service.ActivityService;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -33,25 +40,38 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
 @RunWith(SpringRunner.class)
-@SpringBootTest(classes = Application.class, webEnvironment = WebEnvironment.RANDOM_PORT)
+@SpringBootTest(
+    classes = Application.class,
+    webEnvironment = WebEnvironment.RANDOM_PORT,
+    properties = {"events.outbox.poll-interval=3600000", "events.outbox.max-attempts=2"})
 @ActiveProfiles({"test", "example"})
 public class ActivityServiceTests {
 
   private static final int ACTION_COUNT = 2;
 
+  private static final int MAX_OUTBOX_ATTEMPTS = 2;
+
   @Autowired private StudyRepository studyRepository;
 
   @Autowired private ActivityService activityService;
 
   @Autowired private ExampleDataGenerator exampleDataGenerator;
 
+  @Autowired private EventOutboxRepository eventOutboxRepository;
+
+  @Autowired private EventOutboxRelay eventOutboxRelay;
+
+  @SpyBean private EventsService eventsService;
+
   @Before
   public void doBefore() {
     exampleDataGenerator.populateDatabase();
@@ -86,6 +106,111 @@ public class ActivityServiceTests {
     Assert.assertEquals(Status.COMPLETE.toString(), activity.getData().get("newStatus"));
   }
 
+  @Test
+  public void activityEventOutboxTest() {
+    Study study = studyRepository.findByCode("CPA-10001").orElseThrow(RecordNotFoundException::new);
+    eventOutboxRepository.deleteAll();
+    Activity activity =
+        StudyActivityUtils.fromStudyStatusChange(
+            study, study.getLastModifiedBy(), Status.IN_PLANNING, Status.COMPLETE);
+    activityService.create(activity);
+    Assert.assertNotNull(activity.getId());
+
+    // The event is queued with the activity, and not dispatched until the relay runs
+    List<EventOutboxEntry> entries = eventOutboxRepository.findAll();
+    Assert.assertEquals(1, entries.size());
+    Assert.assertEquals(activity.getId(), entries.get(0).getActivityId());
+    Mockito.verify(eventsService, Mockito.never()).dispatchEvent(Mockito.any(Activity.class));
+
+    eventOutboxRelay.relay();
+    Mockito.verify(eventsService)
+        .dispatchEvent(Mockito.argThat((Activity a) -> a.getId().equals(activity.getId())));
+    Assert.assertEquals(0, eventOutboxRepository.count());
+  }
+
+  @Test
+  public void parkFailingOutboxEventTest() {
+    Study study = studyRepository.findByCode("CPA-10001").orElseThrow(RecordNotFoundException::new);
+    eventOutboxRepository.deleteAll();
+    Mockito.doThrow(new IllegalStateException("Dispatch failed"))
+        .when(eventsService)
+        .dispatchEvent(Mockito.any(Activity.class));
+    Activity activity =
+        StudyActivityUtils.fromStudyStatusChange(
+            study, study.getLastModifiedBy(), Status.IN_PLANNING, Status.COMPLETE);
+    activityService.create(activity);
+
+    // First failure is rescheduled
+    eventOutboxRelay.relay();
+    EventOutboxEntry entry = eventOutboxRepository.findAll().get(0);
+    Assert.assertEquals(1, entry.getAttempts().intValue());
+    Assert.assertNull(entry.getParkedAt());
+    Assert.assertTrue(entry.getNextAttemptAt().after(new Date()));
+
+    // Second failure reaches the maximum number of attempts and parks the entry
+    entry.setNextAttemptAt(new Date());
+    eventOutboxRepository.save(entry);
+    eventOutboxRelay.relay();
+    entry = eventOutboxRepository.findAll().get(0);
+    Assert.assertEquals(MAX_OUTBOX_ATTEMPTS, entry.getAttempts().intValue());
+    Assert.assertNotNull(entry.getParkedAt());
+    Assert.assertTrue(entry.getLastError().contains("Dispatch failed"));
+
+    // Parked entries are not retried
+    entry.setNextAttemptAt(new Date());
+    eventOutboxRepository.save(entry);
+    eventOutboxRelay.relay();
+    Mockito.verify(eventsService, Mockito.times(MAX_OUTBOX_ATTEMPTS))
+        .dispatchEvent(Mockito.any(Activity.class));
+    Assert.assertEquals(
+        MAX_OUTBOX_ATTEMPTS, eventOutboxRepository.findAll().get(0).getAttempts().intValue());
+  }
+
+  @Test
+  public void partialOutboxDeliveryTest() {
+    Study study = studyRepository.findByCode("CPA-10001").orElseThrow(RecordNotFoundException::new);
+    eventOutboxRepository.deleteAll();
+    Activity delivered =
+        StudyActivityUtils.fromStudyStatusChange(
+            study, study.getLastModifiedBy(), Status.IN_PLANNING, Status.ACTIVE);
+    activityService.create(delivered);
+    Activity undelivered =
+        StudyActivityUtils.fromStudyStatusChange(
+            study, study.getLastModifiedBy(), Status.ACTIVE, Status.COMPLETE);
+    activityService.create(undelivered);
+    Mockito.doReturn(Collections.singletonMap(undelivered.getId(), "InternalFailure"))
+        .when(eventsService)
+        .dispatchEventsAndWait(Mockito.anyList());
+
+    // Only the acknowledged event is removed from the outbox
+    eventOutboxRelay.relay();
+    List<EventOutboxEntry> entries = eventOutboxRepository.findAll();
+    Assert.assertEquals(1, entries.size());
+    EventOutboxEntry entry = entries.get(0);
+    Assert.assertEquals(undelivered.getId(), entry.getActivityId());
+    Assert.assertEquals(1, entry.getAttempts().intValue());
+    Assert.assertEquals("InternalFailure", entry.getLastError());
+    Assert.assertNull(entry.getParkedAt());
+    Assert.assertTrue(entry.getNextAttemptAt().after(new Date()));
+  }
+
+  @Test
+  public void countCompletedStudiesTest() {
+    Study study = studyRepository.findByCode("CPA-10001").orElseThrow(RecordNotFoundException::new);
+    Calendar calendar = Calendar.getInstance();
+    calendar.add(Calendar.DATE, -1);
+    long count = activityService.countCompletedStudiesFromDate(calendar.getTime());
+
+    activityService.create(StudyActivityUtils.fromStudyStatusChange(
+        study, study.getLastModifiedBy(), Status.IN_PLANNING, Status.ON_HOLD));
+    Assert.assertEquals(count, activityService.countCompletedStudiesFromDate(calendar.getTime()));
+
+    activityService.create(StudyActivityUtils.fromStudyStatusChange(
+        study, study.getLastModifiedBy(), Status.ON_HOLD, Status.COMPLETE));
+    Assert.assertEquals(
+        count + 1, activityService.countCompletedStudiesFromDate(calendar.getTime()));
+  }
+
   //  @Test
   //  public void findStudyActivityTest() {
   //    Study study =
@@ -19,9 +19,16 @@ package io.studytracker.test.service;
 import io.studytracker.Application;
 import io.studytracker.example.ExampleDataGenerator;
 import io.studytracker.mapstruct.dto.response.SummaryStatisticsDto;
+import io.studytracker.model.Program;
+import io.studytracker.model.User;
+import io.studytracker.repository.ProgramRepository;
+import io.studytracker.repository.UserRepository;
 import io.studytracker.service.StatisticsService;
 import java.util.Calendar;
 import java.util.Date;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -51,6 +58,12 @@ public class StatisticsServiceTests {
 
   @Autowired private ExampleDataGenerator exampleDataGenerator;
 
+  @Autowired private ProgramRepository programRepository;
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
   @Before
   public void doBefore() {
     exampleDataGenerator.populateDatabase();
@@ -85,4 +98,42 @@ public class StatisticsServiceTests {
     Assert.assertEquals(USER_COUNT, summaryStatisticsDto.getUserCount());
     Assert.assertEquals(ACTIVITY_COUNT, summaryStatisticsDto.getActivityCount());
   }
+
+  @Test
+  public void queryCountIndependentOfProgramCountTest() throws Exception {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+    try {
+      long baseline = countStatements(statistics);
+      Assert.assertEquals(PROGRAM_COUNT, statisticsService.getCurrent().getProgramCount());
+
+      User user = userRepository.findAll().get(0);
+      for (int i = 0; i < 50; i++) {
+        Program program = new Program();
+        program.setActive(true);
+        program.setCode("BM" + i);
+        program.setName("Benchmark Program " + i);
+        program.setCreatedBy(user);
+        program.setLastModifiedBy(user);
+        programRepository.save(program);
+      }
+
+      long expanded = countStatements(statistics);
+
+      SummaryStatisticsDto summaryStatisticsDto = statisticsService.getCurrent();
+      Assert.assertEquals(PROGRAM_COUNT + 50, summaryStatisticsDto.getProgramCount());
+      Assert.assertEquals(
+          Long.valueOf(0L), summaryStatisticsDto.getProgramStudyCounts().get("Benchmark Program 0"));
+      Assert.assertEquals(baseline, expanded);
+    } finally {
+      statistics.setStatisticsEnabled(false);
+    }
+  }
+
+  private long countStatements(Statistics statistics) {
+    statistics.clear();
+    statisticsService.getCurrent();
+    statisticsService.getAfterDate(new Date(0L));
+    return statistics.getPrepareStatementCount();
+  }
 }
@@ -30,11 +30,17 @@ import io.studytracker.repository.StudyRepository;
 import io.studytracker.repository.UserRepository;
 import io.studytracker.service.NamingService;
 import io.studytracker.service.StudyService;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -219,6 +225,33 @@ public class StudyServiceTests {
     Assert.assertNotNull(exception);
   }
 
+  @Test
+  public void concurrentStudyCodeTest() throws Exception {
+    Program program =
+        programRepository
+            .findByName("Clinical Program A")
+            .orElseThrow(RecordNotFoundException::new);
+    ExecutorService executorService = Executors.newFixedThreadPool(4);
+    List<Future<String>> futures = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      futures.add(
+          executorService.submit(
+              () -> {
+                Study study = new Study();
+                study.setProgram(program);
+                return namingService.generateStudyCode(study);
+              }));
+    }
+    Set<String> codes = new HashSet<>();
+    for (Future<String> future : futures) {
+      codes.add(future.get());
+    }
+    executorService.shutdown();
+    Assert.assertEquals(8, codes.size());
+    Assert.assertTrue(codes.contains("CPA-10003"));
+    Assert.assertTrue(codes.contains("CPA-10010"));
+  }
+
   @Test
   public void createExternalStudyCodeTest() {
     Collaborator collaborator =
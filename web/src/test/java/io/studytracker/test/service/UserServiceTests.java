@@ -24,9 +24,14 @@ import io.studytracker.model.User;
 import io.studytracker.model.UserType;
 import io.studytracker.repository.PasswordResetTokenRepository;
 import io.studytracker.repository.UserRepository;
+import io.studytracker.security.AppUserDetails;
+import io.studytracker.security.AppUserDetails.AuthMethod;
+import io.studytracker.security.AuthenticationCache;
 import io.studytracker.service.UserService;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -52,6 +57,8 @@ public class UserServiceTests {
 
   @Autowired private UserService userService;
 
+  @Autowired private AuthenticationCache authenticationCache;
+
   @Autowired private ExampleDataGenerator exampleDataGenerator;
 
   @Before
@@ -182,4 +189,39 @@ public class UserServiceTests {
     Assert.assertFalse(
         userService.validatePasswordResetToken("another@email.com", token.getToken()));
   }
+
+  @Test
+  public void updatedUserEvictedFromAuthenticationCacheTest() {
+    User user =
+        userService.findByEmail("jsmith@email.com").orElseThrow(RecordNotFoundException::new);
+    authenticationCache.evictUser(user.getUsername());
+    AtomicInteger loads = new AtomicInteger();
+    Function<String, AppUserDetails> loader =
+        username -> {
+          loads.incrementAndGet();
+          User u = userService.findByUsername(username).orElseThrow(RecordNotFoundException::new);
+          return new AppUserDetails(u, AuthMethod.DATABASE);
+        };
+
+    AppUserDetails details = authenticationCache.getUserDetails(user.getUsername(), loader);
+    Assert.assertTrue(details.isEnabled());
+    authenticationCache.getUserDetails(user.getUsername(), loader);
+    Assert.assertEquals(1, loads.get());
+
+    // Deactivating the user evicts their cached details
+    user.setActive(false);
+    userService.update(user);
+    details = authenticationCache.getUserDetails(user.getUsername(), loader);
+    Assert.assertEquals(2, loads.get());
+    Assert.assertFalse(details.isEnabled());
+
+    // Granting admin rights evicts them again
+    user.setActive(true);
+    user.setAdmin(true);
+    userService.update(user);
+    details = authenticationCache.getUserDetails(user.getUsername(), loader);
+    Assert.assertEquals(3, loads.get());
+    Assert.assertTrue(details.isEnabled());
+    Assert.assertTrue(details.getUser().isAdmin());
+  }
 }
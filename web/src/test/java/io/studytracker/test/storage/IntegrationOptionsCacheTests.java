@@ -0,0 +1,132 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.test.storage;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.studytracker.integration.IntegrationOptionsCache;
+import io.studytracker.integration.IntegrationType;
+import io.studytracker.model.FileStorageLocation;
+import io.studytracker.model.IntegrationDefinition;
+import io.studytracker.model.IntegrationInstance;
+import io.studytracker.model.IntegrationInstanceConfigurationValue;
+import io.studytracker.repository.IntegrationInstanceRepository;
+import io.studytracker.service.IntegrationsService;
+import io.studytracker.storage.integration.LocalFileSystemIntegrationV1;
+import io.studytracker.storage.integration.LocalFileSystemOptions;
+import java.util.Optional;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class IntegrationOptionsCacheTests {
+
+  private static final Long INSTANCE_ID = 1L;
+
+  private IntegrationInstanceRepository integrationInstanceRepository;
+
+  private IntegrationOptionsCache integrationOptionsCache;
+
+  private FileStorageLocation location;
+
+  @Before
+  public void before() {
+    integrationInstanceRepository = mock(IntegrationInstanceRepository.class);
+    integrationOptionsCache = new IntegrationOptionsCache();
+    ReflectionTestUtils.setField(
+        integrationOptionsCache, "integrationInstanceRepository", integrationInstanceRepository);
+    location = new FileStorageLocation();
+    location.setIntegrationInstance(createInstance("/data/original"));
+  }
+
+  private static IntegrationInstance createInstance(String rootPath) {
+    IntegrationDefinition definition = new IntegrationDefinition();
+    definition.setType(IntegrationType.LOCAL_FILE_SYSTEM);
+    definition.setVersion(1);
+    IntegrationInstance instance = new IntegrationInstance();
+    instance.setId(INSTANCE_ID);
+    instance.setName("local-file-system");
+    instance.setDisplayName("Local File System");
+    instance.setActive(true);
+    instance.setDefinition(definition);
+    IntegrationInstanceConfigurationValue value = new IntegrationInstanceConfigurationValue();
+    value.setFieldName(LocalFileSystemIntegrationV1.ROOT_PATH);
+    value.setValue(rootPath);
+    instance.addConfigurationValue(value);
+    return instance;
+  }
+
+  @Test
+  public void cacheHitTest() {
+    when(integrationInstanceRepository.findById(INSTANCE_ID))
+        .thenReturn(Optional.of(createInstance("/data/original")));
+
+    LocalFileSystemOptions options = integrationOptionsCache.getLocalFileSystemOptions(location);
+    Assert.assertEquals("/data/original", options.getRootPath());
+    Assert.assertSame(options, integrationOptionsCache.getLocalFileSystemOptions(location));
+    verify(integrationInstanceRepository, times(1)).findById(INSTANCE_ID);
+  }
+
+  @Test
+  public void invalidateAfterUpdateTest() {
+    IntegrationInstance stored = createInstance("/data/original");
+    when(integrationInstanceRepository.findById(INSTANCE_ID)).thenReturn(Optional.of(stored));
+    when(integrationInstanceRepository.getById(INSTANCE_ID)).thenReturn(stored);
+    when(integrationInstanceRepository.save(any(IntegrationInstance.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+    IntegrationsService integrationsService = new IntegrationsService();
+    ReflectionTestUtils.setField(
+        integrationsService, "integrationInstanceRepository", integrationInstanceRepository);
+    ReflectionTestUtils.setField(
+        integrationsService, "integrationOptionsCache", integrationOptionsCache);
+
+    LocalFileSystemOptions options = integrationOptionsCache.getLocalFileSystemOptions(location);
+    Assert.assertEquals("/data/original", options.getRootPath());
+
+    // Updating the instance evicts its options, so the next lookup reads the new configuration
+    integrationsService.updateInstance(createInstance("/data/updated"));
+    LocalFileSystemOptions updated = integrationOptionsCache.getLocalFileSystemOptions(location);
+    Assert.assertNotSame(options, updated);
+    Assert.assertEquals("/data/updated", updated.getRootPath());
+    verify(integrationInstanceRepository, times(2)).findById(INSTANCE_ID);
+  }
+
+  @Test
+  public void invalidatedWhileLoadingTest() {
+    // The instance is updated and invalidated while the first lookup is still loading it
+    when(integrationInstanceRepository.findById(INSTANCE_ID))
+        .thenAnswer(invocation -> {
+          integrationOptionsCache.invalidate(INSTANCE_ID);
+          return Optional.of(createInstance("/data/original"));
+        })
+        .thenReturn(Optional.of(createInstance("/data/updated")));
+
+    LocalFileSystemOptions stale = integrationOptionsCache.getLocalFileSystemOptions(location);
+    Assert.assertEquals("/data/original", stale.getRootPath());
+
+    // The options read before the invalidation were not cached
+    LocalFileSystemOptions options = integrationOptionsCache.getLocalFileSystemOptions(location);
+    Assert.assertEquals("/data/updated", options.getRootPath());
+    Assert.assertSame(options, integrationOptionsCache.getLocalFileSystemOptions(location));
+    verify(integrationInstanceRepository, times(2)).findById(INSTANCE_ID);
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.test.storage;
+
+import io.studytracker.storage.LocalDirectoryLister;
+import io.studytracker.storage.LocalFileIngestor;
+import io.studytracker.storage.StorageFile;
+import io.studytracker.storage.StorageFolder;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LocalFileIngestorTests {
+
+  private static final String CONTENTS = "hello";
+
+  private static final String CONTENTS_SHA256 =
+      "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+  private Path folder;
+
+  @Before
+  public void before() throws Exception {
+    folder = Files.createTempDirectory("st-ingest-test");
+  }
+
+  @After
+  public void after() throws Exception {
+    FileUtils.deleteDirectory(folder.toFile());
+  }
+
+  private static ByteArrayInputStream contents() {
+    return new ByteArrayInputStream(CONTENTS.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void writeFileTest() throws Exception {
+    Path target = folder.resolve("test.txt");
+    StorageFile file = LocalFileIngestor.write(contents(), target);
+    Assert.assertEquals("test.txt", file.getName());
+    Assert.assertEquals(Long.valueOf(CONTENTS.length()), file.getSize());
+    Assert.assertEquals(CONTENTS_SHA256, file.getSha256());
+    Assert.assertEquals(CONTENTS, new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+    try (Stream<Path> paths = Files.list(folder)) {
+      Assert.assertEquals(1, paths.count());
+    }
+  }
+
+  @Test
+  public void writtenFileHasDefaultPermissionsTest() throws Exception {
+    Assume.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+    Path reference = Files.createFile(folder.resolve("reference.txt"));
+    Set<PosixFilePermission> expected = Files.getPosixFilePermissions(reference);
+
+    Path target = folder.resolve("test.txt");
+    LocalFileIngestor.write(contents(), target);
+    Assert.assertEquals(expected, Files.getPosixFilePermissions(target));
+  }
+
+  @Test
+  public void listingSkipsTempFilesTest() throws Exception {
+    LocalFileIngestor.write(contents(), folder.resolve("test.txt"));
+    Files.createFile(folder.resolve(".studytracker-abc123-test.txt.part"));
+    Files.createFile(folder.resolve(".hidden"));
+    Files.createFile(folder.resolve(".draft.part"));
+    Assert.assertTrue(LocalFileIngestor.isTempFile(".studytracker-abc123-test.txt.part"));
+    Assert.assertFalse(LocalFileIngestor.isTempFile("test.part"));
+    Assert.assertFalse(LocalFileIngestor.isTempFile(".draft.part"));
+
+    StorageFolder storageFolder = LocalDirectoryLister.readFolder(folder);
+    LocalDirectoryLister.listContents(storageFolder);
+    Assert.assertEquals(
+        Stream.of(".draft.part", ".hidden", "test.txt").collect(Collectors.toList()),
+        storageFolder.getFiles().stream().map(StorageFile::getName).collect(Collectors.toList()));
+  }
+}
@@ -18,7 +18,9 @@ package io.studytracker.test.storage;
 
 import io.studytracker.Application;
 import io.studytracker.example.ExampleDataGenerator;
+import io.studytracker.exception.FileStorageException;
 import io.studytracker.exception.RecordNotFoundException;
+import io.studytracker.exception.SpoolQuotaExceededException;
 import io.studytracker.model.Assay;
 import io.studytracker.model.AssayType;
 import io.studytracker.model.FileStorageLocation;
@@ -31,15 +33,25 @@ import io.studytracker.repository.AssayTypeRepository;
 import io.studytracker.repository.ProgramRepository;
 import io.studytracker.repository.StudyRepository;
 import io.studytracker.repository.UserRepository;
+import io.studytracker.service.FileSystemStorageService;
 import io.studytracker.service.StorageLocationService;
 import io.studytracker.storage.LocalFileSystemStorageService;
 import io.studytracker.storage.StorageFile;
 import io.studytracker.storage.StorageFolder;
+import io.studytracker.storage.StorageFolderPage;
 import io.studytracker.storage.exception.StudyStorageDuplicateException;
 import io.studytracker.storage.exception.StudyStorageNotFoundException;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import org.apache.commons.io.FileUtils;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -271,4 +283,154 @@ public class LocalStorageStudyStorageServiceTests {
     Assert.assertTrue(exception instanceof StudyStorageNotFoundException);
     Assert.assertNull(folder);
   }
+
+  @Test
+  public void folderPageTest() throws Exception {
+    FileStorageLocation location = storageLocationService.findDefaultStudyLocation();
+    Path root = Paths.get(location.getRootFolderPath()).resolve("folder-page-test");
+    FileUtils.deleteDirectory(root.toFile());
+    Files.createDirectories(root.resolve("d-folder"));
+    for (String name : new String[]{"a.txt", "b.txt", "c.txt", "e.txt", "f.txt"}) {
+      Files.write(root.resolve(name), name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    StorageFolder folder = storageService.findFolderByPath(location, root.toString());
+    Assert.assertEquals(5, folder.getFiles().size());
+    Assert.assertEquals(1, folder.getSubFolders().size());
+    StorageFile file = folder.getFiles().get(0);
+    Assert.assertEquals("a.txt", file.getName());
+    Assert.assertEquals(Long.valueOf(5L), file.getSize());
+    Assert.assertNotNull(file.getLastModified());
+
+    List<String> names = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      StorageFolderPage page =
+          storageService.findFolderPageByPath(location, root.toString(), cursor, 2);
+      page.getFolder().getFiles().forEach(f -> names.add(f.getName()));
+      page.getFolder().getSubFolders().forEach(f -> names.add(f.getName()));
+      cursor = page.getNextCursor();
+      pages++;
+    } while (cursor != null);
+    Assert.assertEquals(3, pages);
+    Collections.sort(names);
+    Assert.assertEquals(List.of("a.txt", "b.txt", "c.txt", "d-folder", "e.txt", "f.txt"), names);
+
+    FileUtils.deleteDirectory(root.toFile());
+  }
+
+  @Test
+  public void atomicFileWriteTest() throws Exception {
+    FileStorageLocation location = storageLocationService.findDefaultStudyLocation();
+    Path root = Paths.get(location.getRootFolderPath()).resolve("atomic-write-test");
+    FileUtils.deleteDirectory(root.toFile());
+    Files.createDirectories(root);
+
+    StorageFile file = storageService.saveFile(location, root.toString(), "hello.txt",
+        new ByteArrayInputStream("hello".getBytes(StandardCharsets.UTF_8)));
+    Assert.assertEquals(
+        "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824", file.getSha256());
+    Assert.assertEquals(Long.valueOf(5L), file.getSize());
+    Assert.assertEquals("hello", new String(Files.readAllBytes(root.resolve("hello.txt")),
+        StandardCharsets.UTF_8));
+    Assert.assertEquals(1, root.toFile().list().length);
+
+    FileUtils.deleteDirectory(root.toFile());
+  }
+
+  @Test
+  public void uploadSpoolTest() throws Exception {
+    Path spoolDir = Files.createTempDirectory("spool-test");
+    FileSystemStorageService spool = new FileSystemStorageService(spoolDir, 8L, 0L, 3600000L);
+    byte[] content = "hello".getBytes(StandardCharsets.UTF_8);
+
+    Path file = spool.store("hello.txt", new ByteArrayInputStream(content));
+    Assert.assertTrue(Files.exists(file));
+    Assert.assertTrue(spool.isStoredFile(file));
+    Assert.assertEquals(5L, spool.getSpooledBytes());
+    Assert.assertEquals(
+        "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824",
+        spool.getDigest(file));
+
+    // Uploads with the same name are written to different directories
+    Path other = spool.store("hello.txt", new ByteArrayInputStream("hi".getBytes(
+        StandardCharsets.UTF_8)));
+    Assert.assertNotEquals(file.getParent(), other.getParent());
+    Assert.assertEquals(7L, spool.getSpooledBytes());
+
+    // Uploads that would exceed the quota are rejected and leave nothing behind
+    Exception exception = null;
+    try {
+      spool.store("too-big.txt", new ByteArrayInputStream(content));
+    } catch (FileStorageException e) {
+      exception = e;
+    }
+    Assert.assertNotNull(exception);
+    Assert.assertEquals(7L, spool.getSpooledBytes());
+    Assert.assertEquals(2, spoolDir.toFile().list().length);
+
+    // Released files free their space and upload directories
+    spool.delete(file);
+    spool.delete(other);
+    Assert.assertFalse(Files.exists(file.getParent()));
+    Assert.assertFalse(Files.exists(other.getParent()));
+    Assert.assertEquals(0L, spool.getSpooledBytes());
+
+    // Expired uploads are removed by the reaper
+    FileSystemStorageService expiring = new FileSystemStorageService(spoolDir, 0L, 0L, -1L);
+    Path orphan = expiring.store("orphan.txt", new ByteArrayInputStream(content));
+    expiring.reap();
+    Assert.assertFalse(Files.exists(orphan.getParent()));
+    Assert.assertEquals(0L, expiring.getSpooledBytes());
+    Assert.assertFalse(expiring.isStoredFile(orphan));
+
+    FileUtils.deleteDirectory(spoolDir.toFile());
+  }
+
+  @Test
+  public void uploadSpoolKnownSizeTest() throws Exception {
+    Path spoolDir = Files.createTempDirectory("spool-test");
+    FileSystemStorageService spool = new FileSystemStorageService(spoolDir, 8L, 0L, 3600000L);
+    byte[] content = "hello".getBytes(StandardCharsets.UTF_8);
+
+    // Uploads of known size hold exactly their size once stored
+    Path file = spool.store("hello.txt", new ByteArrayInputStream(content), content.length);
+    Assert.assertEquals(5L, spool.getSpooledBytes());
+
+    // Unused space reserved for an overstated size is released after the upload
+    Path small = spool.store("hi.txt", new ByteArrayInputStream("hi".getBytes(
+        StandardCharsets.UTF_8)), 3L);
+    Assert.assertEquals(7L, spool.getSpooledBytes());
+    spool.delete(small);
+    Assert.assertEquals(5L, spool.getSpooledBytes());
+
+    // Uploads larger than the quota are rejected before anything is written, and cannot be retried
+    SpoolQuotaExceededException exception = null;
+    try {
+      spool.store("too-big.txt", new ByteArrayInputStream(new byte[16]), 16L);
+    } catch (SpoolQuotaExceededException e) {
+      exception = e;
+    }
+    Assert.assertNotNull(exception);
+    Assert.assertNull(exception.getRetryAfter());
+    Assert.assertEquals(1, spoolDir.toFile().list().length);
+
+    // Uploads that do not fit in the remaining space may be retried once it has been freed
+    exception = null;
+    try {
+      spool.store("later.txt", new ByteArrayInputStream(content), content.length);
+    } catch (SpoolQuotaExceededException e) {
+      exception = e;
+    }
+    Assert.assertNotNull(exception);
+    Assert.assertNotNull(exception.getRetryAfter());
+    Assert.assertEquals(5L, spool.getSpooledBytes());
+    Assert.assertEquals(1, spoolDir.toFile().list().length);
+
+    spool.delete(file);
+    Assert.assertEquals(0L, spool.getSpooledBytes());
+
+    FileUtils.deleteDirectory(spoolDir.toFile());
+  }
 }
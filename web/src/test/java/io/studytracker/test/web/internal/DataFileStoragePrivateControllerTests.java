@@ -0,0 +1,263 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.studytracker.test.web.internal;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import io.studytracker.Application;
+import io.studytracker.example.ExampleDataGenerator;
+import io.studytracker.model.FileStorageLocation;
+import io.studytracker.model.User;
+import io.studytracker.service.StorageLocationService;
+import io.studytracker.service.UserService;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
+
+@SpringBootTest(classes = Application.class, webEnvironment = WebEnvironment.RANDOM_PORT)
+@RunWith(SpringRunner.class)
+@AutoConfigureMockMvc
+@ActiveProfiles({"web-test", "example"})
+public class DataFileStoragePrivateControllerTests {
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private ExampleDataGenerator exampleDataGenerator;
+
+  @Autowired private StorageLocationService storageLocationService;
+
+  @Autowired private UserService userService;
+
+  private FileStorageLocation location;
+
+  private Path folder;
+
+  private User user;
+
+  @Before
+  public void doBefore() throws Exception {
+    exampleDataGenerator.populateDatabase();
+    user = userService.findAll().get(0);
+    location = storageLocationService.findDefaultStudyLocation();
+    folder = Paths.get(location.getRootFolderPath()).resolve("data-file-controller-test");
+    FileUtils.deleteDirectory(folder.toFile());
+    Files.createDirectories(folder);
+  }
+
+  @After
+  public void doAfter() throws Exception {
+    FileUtils.deleteDirectory(folder.toFile());
+  }
+
+  @Test
+  public void streamFileToFolderTest() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/internal/data-files/upload/stream")
+                .param("path", folder.toString())
+                .param("locationId", location.getId().toString())
+                .param("fileName", "stream-test.txt")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content("hello".getBytes(StandardCharsets.UTF_8))
+                .with(user(user.getEmail())).with(csrf()))
+        .andDo(MockMvcResultHandlers.print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.name", Matchers.is("stream-test.txt")))
+        .andExpect(jsonPath("$.size", Matchers.is(5)))
+        .andExpect(jsonPath("$.sha256",
+            Matchers.is("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824")));
+
+    Path file = folder.resolve("stream-test.txt");
+    Assert.assertTrue(Files.exists(file));
+    Assert.assertEquals("hello", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void streamFileWithInvalidNameTest() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/internal/data-files/upload/stream")
+                .param("path", folder.toString())
+                .param("locationId", location.getId().toString())
+                .param("fileName", "../escape.txt")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content("hello".getBytes(StandardCharsets.UTF_8))
+                .with(user(user.getEmail())).with(csrf()))
+        .andExpect(status().isBadRequest());
+    Assert.assertFalse(Files.exists(folder.getParent().resolve("escape.txt")));
+  }
+
+  @Test
+  public void downloadFileTest() throws Exception {
+    Path file = folder.resolve("download-test.txt");
+    Files.write(file, "0123456789".getBytes(StandardCharsets.UTF_8));
+
+    mockMvc
+        .perform(
+            get("/api/internal/data-files/download")
+                .param("path", file.toString())
+                .param("locationId", location.getId().toString())
+                .with(user(user.getEmail())))
+        .andExpect(status().isOk())
+        .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10L))
+        .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+        .andExpect(content().string("0123456789"));
+  }
+
+  @Test
+  public void downloadFileRangeTest() throws Exception {
+    Path file = folder.resolve("download-test.txt");
+    Files.write(file, "0123456789".getBytes(StandardCharsets.UTF_8));
+
+    mockMvc
+        .perform(
+            get("/api/internal/data-files/download")
+                .param("path", file.toString())
+                .param("locationId", location.getId().toString())
+                .header(HttpHeaders.RANGE, "bytes=4-7")
+                .with(user(user.getEmail())))
+        .andExpect(status().isPartialContent())
+        .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 4-7/10"))
+        .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4L))
+        .andExpect(content().string("4567"));
+  }
+
+  @Test
+  public void getDataStorageFolderPageTest() throws Exception {
+    for (String name : new String[]{"a.txt", "b.txt", "c.txt"}) {
+      Files.write(folder.resolve(name), name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    MvcResult result = mockMvc
+        .perform(
+            get("/api/internal/data-files/page")
+                .param("path", folder.toString())
+                .param("locationId", location.getId().toString())
+                .param("size", "2")
+                .with(user(user.getEmail())))
+        .andDo(MockMvcResultHandlers.print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.folder.files", Matchers.hasSize(2)))
+        .andExpect(jsonPath("$.size", Matchers.is(2)))
+        .andExpect(jsonPath("$.hasNext", Matchers.is(true)))
+        .andExpect(jsonPath("$.nextCursor", Matchers.notNullValue()))
+        .andReturn();
+    String content = result.getResponse().getContentAsString();
+    List<String> firstPage = JsonPath.read(content, "$.folder.files[*].name");
+    List<String> names = new ArrayList<>(firstPage);
+    String nextCursor = JsonPath.read(content, "$.nextCursor");
+
+    result = mockMvc
+        .perform(
+            get("/api/internal/data-files/page")
+                .param("path", folder.toString())
+                .param("locationId", location.getId().toString())
+                .param("size", "2")
+                .param("cursor", nextCursor)
+                .with(user(user.getEmail())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.folder.files", Matchers.hasSize(1)))
+        .andExpect(jsonPath("$.hasNext", Matchers.is(false)))
+        .andReturn();
+    List<String> secondPage =
+        JsonPath.read(result.getResponse().getContentAsString(), "$.folder.files[*].name");
+    names.addAll(secondPage);
+    Assert.assertEquals(List.of("a.txt", "b.txt", "c.txt"), names);
+
+    mockMvc
+        .perform(
+            get("/api/internal/data-files/page")
+                .param("path", folder.toString())
+                .param("locationId", location.getId().toString())
+                .param("size", "0")
+                .with(user(user.getEmail())))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  public void downloadFileETagTest() throws Exception {
+    Path file = folder.resolve("download-test.txt");
+    Files.write(file, "hello world".getBytes(StandardCharsets.UTF_8));
+
+    MvcResult result = mockMvc
+        .perform(
+            get("/api/internal/data-files/download")
+                .param("path", file.toString())
+                .param("locationId", location.getId().toString())
+                .with(user(user.getEmail())))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, Matchers.startsWith("W/\"")))
+        .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+        .andExpect(content().string("hello world"))
+        .andReturn();
+    String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+    // A matching ETag is answered with an empty 304
+    mockMvc
+        .perform(
+            get("/api/internal/data-files/download")
+                .param("path", file.toString())
+                .param("locationId", location.getId().toString())
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .with(user(user.getEmail())))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, eTag))
+        .andExpect(content().string(""));
+
+    // A stale ETag gets the full file
+    mockMvc
+        .perform(
+            get("/api/internal/data-files/download")
+                .param("path", file.toString())
+                .param("locationId", location.getId().toString())
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"0-0\"")
+                .with(user(user.getEmail())))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, eTag))
+        .andExpect(content().string("hello world"));
+  }
+
+}
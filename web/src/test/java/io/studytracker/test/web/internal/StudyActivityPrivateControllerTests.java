@@ -19,13 +19,19 @@ package io.studytracker.test.web.internal;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import io.studytracker.Application;
+import io.studytracker.controller.api.AbstractApiController;
 import io.studytracker.example.ExampleDataGenerator;
+import io.studytracker.exception.RecordNotFoundException;
 import io.studytracker.model.Status;
 import io.studytracker.model.Study;
+import io.studytracker.repository.StudyRepository;
 import io.studytracker.service.StudyService;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -36,6 +42,7 @@ import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 
 @SpringBootTest(classes = Application.class, webEnvironment = WebEnvironment.RANDOM_PORT)
@@ -50,6 +57,8 @@ public class StudyActivityPrivateControllerTests {
 
   @Autowired private StudyService studyService;
 
+  @Autowired private StudyRepository studyRepository;
+
   @Before
   public void doBefore() {
     exampleDataGenerator.populateDatabase();
@@ -68,4 +77,33 @@ public class StudyActivityPrivateControllerTests {
         .andDo(MockMvcResultHandlers.print())
         .andExpect(status().isOk());
   }
+
+  @Test
+  public void pageStudyActivityTest() throws Exception {
+    Study study = studyRepository.findByCode("CPA-10001").orElseThrow(RecordNotFoundException::new);
+    String url = "/api/internal/study/" + study.getCode() + "/activity";
+
+    MvcResult first = mockMvc
+        .perform(get(url).param("limit", "1")
+            .with(user(study.getOwner().getEmail())).with(csrf()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(header().exists(AbstractApiController.NEXT_CURSOR_HEADER))
+        .andReturn();
+    String cursor = first.getResponse().getHeader(AbstractApiController.NEXT_CURSOR_HEADER);
+
+    MvcResult second = mockMvc
+        .perform(get(url).param("limit", "1").param("cursor", cursor)
+            .with(user(study.getOwner().getEmail())).with(csrf()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andReturn();
+    Assert.assertNotEquals(first.getResponse().getContentAsString(),
+        second.getResponse().getContentAsString());
+
+    mockMvc
+        .perform(get(url).param("cursor", "not-a-cursor")
+            .with(user(study.getOwner().getEmail())).with(csrf()))
+        .andExpect(status().isBadRequest());
+  }
 }
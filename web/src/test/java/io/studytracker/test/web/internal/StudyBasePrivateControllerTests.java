@@ -26,6 +26,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -34,6 +35,7 @@ import io.studytracker.Application;
 import io.studytracker.example.ExampleDataGenerator;
 import io.studytracker.exception.RecordNotFoundException;
 import io.studytracker.mapstruct.dto.form.StudyFormDto;
+import io.studytracker.mapstruct.dto.response.StudySummaryDto;
 import io.studytracker.mapstruct.mapper.StudyMapper;
 import io.studytracker.model.Program;
 import io.studytracker.model.Status;
@@ -58,6 +60,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @SpringBootTest(classes = Application.class, webEnvironment = WebEnvironment.RANDOM_PORT)
 @RunWith(SpringRunner.class)
@@ -100,6 +103,37 @@ public class StudyBasePrivateControllerTests {
         .andExpect(jsonPath("$[0]", hasKey("description")));
   }
 
+  @Test
+  public void pagedStudiesTest() throws Exception {
+    int total = ExampleDataGenerator.STUDY_COUNT - 1;
+    MvcResult result = mockMvc
+        .perform(get("/api/internal/study?size=2&sort=code&direction=DESC")
+            .with(user(username)).with(csrf()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(2)))
+        .andExpect(header().exists("X-Next-Cursor"))
+        .andReturn();
+
+    int count = 2;
+    String cursor = result.getResponse().getHeader("X-Next-Cursor");
+    while (cursor != null) {
+      result = mockMvc
+          .perform(get("/api/internal/study?size=2&sort=code&direction=DESC&cursor=" + cursor)
+              .with(user(username)).with(csrf()))
+          .andExpect(status().isOk())
+          .andReturn();
+      StudySummaryDto[] page = objectMapper.readValue(
+          result.getResponse().getContentAsString(), StudySummaryDto[].class);
+      count = count + page.length;
+      cursor = result.getResponse().getHeader("X-Next-Cursor");
+    }
+    Assert.assertEquals(total, count);
+
+    mockMvc
+        .perform(get("/api/internal/study?size=2&sort=bad").with(user(username)).with(csrf()))
+        .andExpect(status().isBadRequest());
+  }
+
   @Test
   public void findStudyByIdTest() throws Exception {
     mockMvc